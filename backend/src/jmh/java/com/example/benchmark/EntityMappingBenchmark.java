@@ -0,0 +1,81 @@
+package com.example.benchmark;
+
+import com.example.entity.ERole;
+import com.example.entity.Role;
+import com.example.entity.Student;
+import com.example.entity.User;
+import com.example.entity.converter.StudentClassConverter;
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.entity.enums.StudentClass;
+import com.example.security.services.UserDetailsImpl;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row and per-request mapping work: the student class column converter, Jackson
+ * serialisation of a student with every course graded, and building the security principal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityMappingBenchmark {
+
+    private final StudentClassConverter studentClassConverter = new StudentClassConverter();
+    private ObjectWriter studentWriter;
+    private Student student;
+    private User user;
+
+    @State(Scope.Benchmark)
+    public static class StudentClassColumn {
+        // First, last and a lower-case value, since the converter scans values() case-insensitively.
+        @Param({"1A", "4B", "4b"})
+        public String value;
+    }
+
+    @Setup
+    public void setUp() {
+        studentWriter = new ObjectMapper().writerFor(Student.class);
+
+        student = new Student();
+        student.setId(42);
+        student.setFirstName("Ada");
+        student.setLastName("Lovelace");
+        student.setSchoolNumber("10042");
+        student.setBirthDate("2008-12-10");
+        student.setStudentClass(StudentClass.C3B);
+        Grade[] grades = Grade.values();
+        for (Course course : Course.values()) {
+            student.getCourses().put(course, grades[course.ordinal() % grades.length]);
+        }
+
+        user = new User("teacher", "teacher@example.com", "$2a$10$abcdefghijklmnopqrstuv");
+        user.setId(1L);
+        user.setVersion(0L);
+        for (ERole role : ERole.values()) {
+            user.getRoles().add(new Role(role));
+        }
+    }
+
+    @Benchmark
+    public StudentClass convertStudentClass(StudentClassColumn column) {
+        return studentClassConverter.convertToEntityAttribute(column.value);
+    }
+
+    @Benchmark
+    public byte[] serializeStudent() throws JsonProcessingException {
+        return studentWriter.writeValueAsBytes(student);
+    }
+
+    @Benchmark
+    public UserDetailsImpl buildUserDetails() {
+        return UserDetailsImpl.build(user);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.benchmark;
+
+import com.example.StudentApplication;
+import com.example.entity.Student;
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.entity.enums.StudentClass;
+import com.example.repository.StudentRepository;
+import com.example.repository.StudentViewRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * {@code GET /api/students?size=100} and an uncached {@code GET /api/students/{id}}, from the
+ * query to the JSON bytes, through managed entities inside an open-in-view session (the read
+ * path before {@code StudentViewRepository}) and through {@code StudentView} projections.
+ * <p>
+ * Runs the application against in-memory H2 with 1,000 students of five grades each. Run with
+ * {@code -prof gc} to see the bytes allocated per operation ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StudentReadPathBenchmark {
+
+    private static final int STUDENTS = 1_000;
+    private static final int PAGE_SIZE = 100;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+    private StudentRepository studentRepository;
+    private StudentViewRepository studentViewRepository;
+    private ObjectMapper objectMapper;
+    private int middleId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(StudentApplication.class)
+                .profiles("h2")
+                .properties("server.port=0", "logging.level.root=WARN")
+                .run();
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        studentRepository = context.getBean(StudentRepository.class);
+        studentViewRepository = context.getBean(StudentViewRepository.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        Grade[] grades = Grade.values();
+        Course[] courses = Course.values();
+        List<Student> students = new ArrayList<>(STUDENTS);
+        for (int i = 0; i < STUDENTS; i++) {
+            Student student = new Student();
+            student.setFirstName("First" + i);
+            student.setLastName("Last" + i);
+            student.setSchoolNumber(String.valueOf(10_000 + i));
+            student.setBirthDate("2008-01-01");
+            student.setStudentClass(StudentClass.values()[i % StudentClass.values().length]);
+            for (int c = 0; c < 5; c++) {
+                student.getCourses().put(courses[(i + c) % courses.length], grades[(i + c) % grades.length]);
+            }
+            students.add(student);
+        }
+        middleId = studentRepository.saveAll(students).get(STUDENTS / 2).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] entityPage() throws JsonProcessingException {
+        return inView(() -> studentRepository.findBy((root, query, cb) -> null,
+                query -> query.sortBy(Sort.by("id")).limit(PAGE_SIZE + 1).all()).subList(0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public byte[] viewPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(
+                studentViewRepository.findAll(null, Sort.by("id"), PAGE_SIZE + 1).subList(0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public byte[] entityById() throws JsonProcessingException {
+        return inView(() -> studentRepository.findById(middleId).orElseThrow());
+    }
+
+    @Benchmark
+    public byte[] viewById() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(studentViewRepository.findById(middleId).orElseThrow());
+    }
+
+    // What OpenEntityManagerInViewInterceptor does around a request: the entities stay managed,
+    // and their grades are loaded lazily while the response is serialised.
+    private byte[] inView(Supplier<Object> read) throws JsonProcessingException {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            return objectMapper.writeValueAsBytes(read.get());
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+        }
+    }
+}
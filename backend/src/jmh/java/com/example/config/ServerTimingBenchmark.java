@@ -0,0 +1,148 @@
+package com.example.config;
+
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.entity.enums.StudentClass;
+import com.example.payload.response.StudentView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What {@code Server-Timing} adds to a request, measured without the database, security or HTTP
+ * stack around it, with the header turned off, turned on but not sampling the request
+ * ({@code sample-rate=0}), and timing every request.
+ * <p>
+ * {@link #request()} is the filter and the {@link ServerTiming#current()} checks the token
+ * filter, interceptor and data source make for a request with a token and two statements,
+ * including formatting the header when sampled. {@link #jsonPage()} writes a 100-student page
+ * through the message converter, which a sampled request buffers in memory first. The JSON
+ * itself costs the same in every mode, so it is measured apart rather than hiding the per-request
+ * difference.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class ServerTimingBenchmark {
+
+    private static final int STUDENTS = 100;
+
+    @Param({"off", "unsampled", "sampled"})
+    public String mode;
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/students");
+    private final FilterChain chain = (req, res) -> phases();
+    private ServerTimingFilter filter;
+    private MappingJackson2HttpMessageConverter converter;
+    private List<StudentView> page;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        filter = mode.equals("off") ? null : new ServerTimingFilter(mode.equals("sampled") ? 1.0 : 0.0);
+        converter = mode.equals("off")
+                ? new MappingJackson2HttpMessageConverter(objectMapper)
+                : new ServerTimingJsonConverter(objectMapper);
+
+        Grade[] grades = Grade.values();
+        Course[] courses = Course.values();
+        StudentClass[] classes = StudentClass.values();
+        page = new ArrayList<>(STUDENTS);
+        for (int i = 0; i < STUDENTS; i++) {
+            Map<Course, Grade> graded = new EnumMap<>(Course.class);
+            for (int c = 0; c < 5; c++) {
+                graded.put(courses[(i + c) % courses.length], grades[(i + c) % grades.length]);
+            }
+            page.add(new StudentView(i, "First" + i, "Last" + i, String.valueOf(10_000 + i), "2008-12-10",
+                    classes[i % classes.length], graded, 0L));
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public MockHttpServletResponse request() throws IOException, ServletException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        if (filter == null) {
+            chain.doFilter(request, response);
+        } else {
+            filter.doFilter(request, response, chain);
+        }
+        return response;
+    }
+
+    // More runs than the request, whose cost is far smaller than the page's run-to-run noise.
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Measurement(iterations = 15, time = 1)
+    @Fork(5)
+    public byte[] jsonPage() throws IOException {
+        // Written to memory: MockHttpServletResponse copies a byte at a time, which would swamp the rest.
+        ByteArrayOutputStream body = new ByteArrayOutputStream(32_768);
+        HttpHeaders headers = new HttpHeaders();
+        HttpOutputMessage response = new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return body;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        };
+        if (mode.equals("sampled")) {
+            ServerTiming.begin();
+            try {
+                converter.write(page, MediaType.APPLICATION_JSON, response);
+            } finally {
+                ServerTiming.end();
+            }
+        } else {
+            converter.write(page, MediaType.APPLICATION_JSON, response);
+        }
+        return body.toByteArray();
+    }
+
+    private static void phases() {
+        // AuthTokenFilter: the JWT check and the user lookup.
+        ServerTiming timing = ServerTiming.current();
+        if (timing != null) {
+            long start = System.nanoTime();
+            timing.jwt(System.nanoTime() - start);
+            start = System.nanoTime();
+            timing.user(System.nanoTime() - start);
+        }
+        // The interceptor's preHandle, then StatementCountingDataSource for the students and their grades.
+        if ((timing = ServerTiming.current()) != null) {
+            timing.handlerStarted();
+        }
+        for (int i = 0; i < 2; i++) {
+            if ((timing = ServerTiming.current()) != null) {
+                long start = System.nanoTime();
+                timing.statement(System.nanoTime() - start);
+            }
+        }
+        // The interceptor's afterCompletion.
+        if ((timing = ServerTiming.current()) != null) {
+            timing.handlerFinished();
+        }
+    }
+}
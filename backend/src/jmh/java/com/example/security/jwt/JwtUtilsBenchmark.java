@@ -0,0 +1,67 @@
+package com.example.security.jwt;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.security.services.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+
+/**
+ * Token issue and per-request validation cost. {@code parseCached} is what a repeat request pays,
+ * {@code verifyUncached} what the first request with a token pays (signature check and JSON parse).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+  private JwtUtils jwtUtils;
+  private Authentication authentication;
+  private String token;
+  private Claims claims;
+
+  @Setup
+  public void setUp() {
+    jwtUtils = new JwtUtils();
+    ReflectionTestUtils.setField(jwtUtils, "jwtSecret",
+        "thisisasecretkeyforjwttokengenerationanditshouldbeverylongandsecure");
+    ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86_400_000);
+    ReflectionTestUtils.setField(jwtUtils, "verifiedCacheSize", 10_000);
+    jwtUtils.init();
+
+    UserDetailsImpl user = new UserDetailsImpl(1L, "teacher", "teacher@example.com", "hash",
+        List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_MODERATOR")), 0L);
+    authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    token = jwtUtils.generateJwtToken(authentication);
+    claims = jwtUtils.parseValidatedClaims(token);
+  }
+
+  @Benchmark
+  public String generate() {
+    return jwtUtils.generateJwtToken(authentication);
+  }
+
+  @Benchmark
+  public Claims verifyUncached() {
+    return jwtUtils.verify(token);
+  }
+
+  @Benchmark
+  public Claims parseCached() {
+    return jwtUtils.parseValidatedClaims(token);
+  }
+
+  @Benchmark
+  public UserDetailsImpl userDetailsFromClaims() {
+    return jwtUtils.getUserDetailsFromClaims(claims);
+  }
+}
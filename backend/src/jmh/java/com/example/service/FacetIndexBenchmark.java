@@ -0,0 +1,85 @@
+package com.example.service;
+
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.entity.enums.StudentClass;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Facet counts over a school-sized roster and over 1M students, each in a random class with a
+ * random grade in about half of the courses, and the time to build the larger index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+public class FacetIndexBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int students;
+
+    private FacetIndex index;
+
+    @Setup
+    public void setUp() {
+        index = build(students);
+    }
+
+    static FacetIndex build(int students) {
+        Random random = new Random(42);
+        StudentClass[] classes = StudentClass.values();
+        Grade[] grades = Grade.values();
+        FacetIndex index = new FacetIndex();
+        for (int id = 1; id <= students; id++) {
+            Map<Course, Grade> courses = new EnumMap<>(Course.class);
+            for (Course course : Course.values()) {
+                if (random.nextBoolean()) {
+                    courses.put(course, grades[random.nextInt(grades.length)]);
+                }
+            }
+            index.put(id, classes[random.nextInt(classes.length)], courses);
+        }
+        return index;
+    }
+
+    @Benchmark
+    public FacetIndex.Counts everyone() {
+        return index.count(null, null, null);
+    }
+
+    /**
+     * How many A's in cloud computing per class.
+     */
+    @Benchmark
+    public FacetIndex.Counts courseAndGrade() {
+        return index.count(null, Course.CLOUD_COMPUTING, Grade.A);
+    }
+
+    @Benchmark
+    public FacetIndex.Counts classAndAnyCourseGrade() {
+        return index.count(StudentClass.C2B, null, Grade.A);
+    }
+
+    /**
+     * Time to index 1M students from memory, which is the floor for a startup rebuild.
+     */
+    @State(Scope.Benchmark)
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public static class Build {
+
+        @Benchmark
+        public FacetIndex build() {
+            return FacetIndexBenchmark.build(1_000_000);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One class of 1M ranked students, each with 1 to 10 graded courses: the top 10, the rank of
+ * one student, and moving one student after a grade change.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+public class RankingTreeBenchmark {
+
+    private static final int STUDENTS = 1_000_000;
+
+    private final Random random = new Random(42);
+    private RankingTree tree;
+    private RankingTree.Entry[] entries;
+
+    @Setup
+    public void setUp() {
+        tree = new RankingTree();
+        entries = new RankingTree.Entry[STUDENTS];
+        for (int id = 0; id < STUDENTS; id++) {
+            entries[id] = randomEntry(id);
+            tree.insert(entries[id]);
+        }
+    }
+
+    private RankingTree.Entry randomEntry(int id) {
+        int graded = 1 + random.nextInt(10);
+        return new RankingTree.Entry(id, random.nextInt(4 * graded + 1), graded);
+    }
+
+    @Benchmark
+    public List<RankingTree.Entry> top10() {
+        return tree.top(10);
+    }
+
+    @Benchmark
+    public int rankOfOne() {
+        return tree.rank(entries[random.nextInt(STUDENTS)]);
+    }
+
+    /**
+     * What {@link ClassRankings} does for one changed student: remove the old entry, insert the new.
+     */
+    @Benchmark
+    public int regrade() {
+        int id = random.nextInt(STUDENTS);
+        tree.remove(entries[id]);
+        entries[id] = randomEntry(id);
+        tree.insert(entries[id]);
+        return tree.size();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Suggestion latency of the student name index at 1M students, and the time to build it.
+ * Names are drawn from small pools, so common names have thousands of exact duplicates, as in a
+ * real roster.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class TrigramIndexBenchmark {
+
+    static final int STUDENTS = 1_000_000;
+
+    private static final String[] FIRST_NAMES = {
+            "Mehmet", "Ahmet", "Mustafa", "Ayşe", "Fatma", "Emine", "Zeynep", "Elif", "Can", "Deniz",
+            "Ali", "Hüseyin", "Hasan", "İbrahim", "Murat", "Ömer", "Yusuf", "Merve", "Esra", "Büşra",
+            "Grace", "Alan", "Ada", "Linus", "Barbara", "Edsger", "Donald", "Margaret", "Ken", "Dennis",
+            "John", "Mary", "James", "Patricia", "Robert", "Jennifer", "Michael", "Linda", "David", "Susan"
+    };
+    private static final String[] LAST_NAMES = {
+            "Yılmaz", "Kaya", "Demir", "Şahin", "Çelik", "Yıldız", "Yıldırım", "Öztürk", "Aydın", "Özdemir",
+            "Arslan", "Doğan", "Kılıç", "Aslan", "Çetin", "Kara", "Koç", "Kurt", "Özkan", "Şimşek",
+            "Hopper", "Turing", "Lovelace", "Torvalds", "Liskov", "Dijkstra", "Knuth", "Hamilton", "Thompson",
+            "Ritchie", "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez",
+            "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore"
+    };
+
+    private TrigramIndex index;
+
+    @State(Scope.Benchmark)
+    public static class Query {
+        // A full name with a typo, a first name alone, a prefix being typed, and a school number prefix.
+        @Param({"mehmet yilmas", "zeynep", "torv", "00042"})
+        public String text;
+    }
+
+    @Setup
+    public void setUp() {
+        index = build();
+    }
+
+    static TrigramIndex build() {
+        Random random = new Random(42);
+        TrigramIndex index = new TrigramIndex();
+        for (int id = 1; id <= STUDENTS; id++) {
+            index.put(id, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                    LAST_NAMES[random.nextInt(LAST_NAMES.length)], String.format("%07d", id));
+        }
+        return index;
+    }
+
+    @Benchmark
+    public List<TrigramIndex.Match> suggest(Query query) {
+        return index.search(query.text, 10);
+    }
+
+    /**
+     * Time to index 1M students from memory, which is the floor for a startup rebuild.
+     */
+    @State(Scope.Benchmark)
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public static class Build {
+
+        @Benchmark
+        public TrigramIndex build() {
+            return TrigramIndexBenchmark.build();
+        }
+    }
+}
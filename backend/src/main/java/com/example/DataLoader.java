@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.entity.ERole;
 import com.example.entity.Role;
@@ -26,7 +27,9 @@ public class DataLoader implements CommandLineRunner {
   @Autowired
   PasswordEncoder encoder;
 
+  // One read-write transaction, so that the existence checks read the primary it writes to.
   @Override
+  @Transactional
   public void run(String... args) throws Exception {
     // Create roles if they don't exist
     if (roleRepository.findByName(ERole.ROLE_USER).isEmpty()) {
@@ -0,0 +1,53 @@
+package com.example.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.SessionEventSettings;
+import org.hibernate.cfg.StatisticsSettings;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.lang.NonNull;
+
+import javax.sql.DataSource;
+
+/**
+ * Persistence metrics on top of what Spring Boot publishes by itself (HTTP requests, Hikari pools,
+ * and Hibernate's statistics through {@code hibernate-micrometer} once they are generated): the
+ * statistics switched on, and the number of statements each request runs.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer statisticsHibernateProperties() {
+        return properties -> {
+            properties.putIfAbsent(StatisticsSettings.GENERATE_STATISTICS, "true");
+            // Statistics would otherwise also log a summary of every session at INFO.
+            properties.putIfAbsent(SessionEventSettings.LOG_SESSION_METRICS, "false");
+        };
+    }
+
+    // Wraps the application's data source, which with read replicas is the routing proxy in front of the pools.
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+                return bean instanceof DataSource dataSource && "dataSource".equals(beanName)
+                        ? new StatementCountingDataSource(dataSource) : bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestStatementsFilter> requestStatementsFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RequestStatementsFilter> registration =
+                new FilterRegistrationBean<>(new RequestStatementsFilter(meterRegistry));
+        // Ahead of Spring Security, so that the user lookup for a token is counted with the request.
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read replicas, enabled by listing them in {@code app.datasource.replica-urls}. The primary is
+ * still configured by {@code spring.datasource.*}; each replica gets a pool with the same Hikari
+ * settings, marked read-only. Without replicas Spring Boot's single data source is used as before.
+ */
+@Configuration
+@ConditionalOnProperty("app.datasource.replica-urls")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource, MeterRegistry meterRegistry,
+            @Value("${app.datasource.replica-urls}") List<String> replicaUrls,
+            @Value("${app.datasource.replica-username:${spring.datasource.username:}}") String username,
+            @Value("${app.datasource.replica-password:${spring.datasource.password:}}") String password,
+            @Value("${app.datasource.replica-health-interval:5s}") Duration healthInterval,
+            @Value("${app.datasource.primary-pin:5s}") Duration pinDuration) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : replicaUrls) {
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setPoolName("replica-" + (replicas.size() + 1));
+            config.setJdbcUrl(url.trim());
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setReadOnly(true);
+            // Start without a connection, so that a replica that is down does not stop the application.
+            config.setInitializationFailTimeout(-1);
+            config.setMetricRegistry(null);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.put(config.getPoolName(), new HikariDataSource(config));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, healthInterval, pinDuration, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hands out replica connections to read-only transactions and primary connections to everything
+ * else: read-write transactions, and work outside any transaction such as the in-memory indexes
+ * re-reading a committed change.
+ * <p>
+ * Replicas are used round robin. Each is checked every {@code healthInterval}, and one that fails
+ * the check or refuses a connection is skipped until it passes again. With no healthy replica,
+ * reads go to the primary. After a client's read-write transaction, its reads go to the primary
+ * for {@code pinDuration}, so that it reads its own writes despite replication lag. A client is
+ * the signed-in user, or the remote address for anonymous requests such as sign-up.
+ * <p>
+ * Must be used behind a {@link LazyConnectionDataSourceProxy}: a transaction is only marked
+ * read-only after the transaction manager has asked for its connection.
+ * <p>
+ * Healthy replicas are published as {@code datasource.replicas.healthy}.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Duration healthInterval;
+    // Null when pinning is off.
+    private final Cache<String, Boolean> pinnedClients;
+    private final AtomicInteger next = new AtomicInteger();
+    private ScheduledExecutorService healthChecks;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration healthInterval,
+                                    Duration pinDuration, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+        this.healthInterval = healthInterval;
+        this.pinnedClients = pinDuration.isZero() ? null : Caffeine.newBuilder()
+                .expireAfterWrite(pinDuration)
+                .maximumSize(100_000)
+                .build();
+        Gauge.builder("datasource.replicas.healthy", this, self -> self.healthyReplicas()).register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code read} against the primary even inside a read-only transaction. For loads whose
+     * result is cached until the next change, which a lagging replica could otherwise undo.
+     */
+    public static <T> T onPrimary(Supplier<T> read) {
+        Boolean previous = PRIMARY_REQUIRED.get();
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_REQUIRED.remove();
+            }
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        healthChecks = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = healthInterval.toMillis();
+        healthChecks.scheduleWithFixedDelay(this::checkReplicas, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && PRIMARY_REQUIRED.get() == null
+                && !isPinned()) {
+            for (int attempt = 0; attempt < replicas.size(); attempt++) {
+                Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+                if (!replica.healthy) {
+                    continue;
+                }
+                try {
+                    return replica.dataSource.getConnection();
+                } catch (SQLException e) {
+                    markDown(replica, e);
+                }
+            }
+        } else if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            pin();
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Validates a connection from every replica and updates which ones are used.
+     */
+    void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    if (!replica.healthy) {
+                        logger.info("Read replica {} is healthy again", replica.name);
+                    }
+                    replica.healthy = true;
+                } else {
+                    markDown(replica, null);
+                }
+            } catch (SQLException e) {
+                markDown(replica, e);
+            }
+        }
+    }
+
+    int healthyReplicas() {
+        return (int) replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    private void markDown(Replica replica, SQLException cause) {
+        if (replica.healthy) {
+            logger.warn("Read replica {} is unavailable, sending its reads elsewhere until it recovers: {}",
+                    replica.name, cause == null ? "connection not valid" : cause.getMessage());
+        }
+        replica.healthy = false;
+    }
+
+    private boolean isPinned() {
+        if (pinnedClients == null) {
+            return false;
+        }
+        String client = currentClient();
+        return client != null && pinnedClients.getIfPresent(client) != null;
+    }
+
+    private void pin() {
+        if (pinnedClients == null) {
+            return;
+        }
+        String client = currentClient();
+        if (client != null) {
+            pinnedClients.put(client, Boolean.TRUE);
+        }
+    }
+
+    private static String currentClient() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes request) {
+            return "address:" + request.getRequest().getRemoteAddr();
+        }
+        return null;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (healthChecks != null) {
+            healthChecks.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each request ran, through Hibernate or {@code JdbcTemplate}, as
+ * {@code http.server.requests.statements}, tagged with the same {@code method} and {@code uri} as
+ * {@code http.server.requests}, so that an endpoint drifting into N+1 queries shows up in its
+ * percentiles. Streamed responses finish on another thread and are not recorded.
+ */
+public class RequestStatementsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestStatementsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long before = StatementCountingDataSource.statements();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (!request.isAsyncStarted()) {
+                Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                DistributionSummary.builder("http.server.requests.statements")
+                        .description("SQL statements run for one request")
+                        .tag("method", request.getMethod())
+                        .tag("uri", uri != null ? uri.toString() : "UNKNOWN")
+                        .register(meterRegistry)
+                        .record(StatementCountingDataSource.statements() - before);
+            }
+        }
+    }
+}
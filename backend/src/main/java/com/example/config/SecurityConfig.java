@@ -1,6 +1,7 @@
 package com.example.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -18,6 +19,9 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
+import com.example.security.crypto.BoundedPasswordEncoder;
 import com.example.security.jwt.AuthEntryPointJwt;
 import com.example.security.jwt.AuthTokenFilter;
 import com.example.security.services.UserDetailsServiceImpl;
@@ -32,6 +36,18 @@ public class SecurityConfig {
   @Autowired
   private AuthEntryPointJwt unauthorizedHandler;
 
+  @Autowired(required = false)
+  private MeterRegistry meterRegistry;
+
+  @Value("${app.security.bcrypt.strength:10}")
+  private int bcryptStrength;
+
+  @Value("${app.security.bcrypt.threads:0}")
+  private int bcryptThreads;
+
+  @Value("${app.security.bcrypt.queue-capacity:64}")
+  private int bcryptQueueCapacity;
+
   @Bean
   public AuthTokenFilter authenticationJwtTokenFilter() {
     return new AuthTokenFilter();
@@ -52,9 +68,17 @@ public class SecurityConfig {
     return authConfig.getAuthenticationManager();
   }
 
+  // BCrypt runs on its own bounded pool: callers still wait for their hash, but at most threads +
+  // queue-capacity of them at a time, and the rest get a 503. 0 threads means one per processor.
   @Bean
   public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+    int threads = bcryptThreads > 0 ? bcryptThreads : Runtime.getRuntime().availableProcessors();
+    BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(
+        new BCryptPasswordEncoder(bcryptStrength), threads, bcryptQueueCapacity);
+    if (meterRegistry != null) {
+      encoder.bindTo(meterRegistry);
+    }
+    return encoder;
   }
 
   // CORS Configuration Bean
@@ -62,9 +86,9 @@ public class SecurityConfig {
   public CorsConfigurationSource corsConfigurationSource() {
       CorsConfiguration configuration = new CorsConfiguration();
       configuration.setAllowedOrigins(java.util.Arrays.asList("http://localhost:3000")); // Allow frontend origin
-      configuration.setAllowedMethods(java.util.Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+      configuration.setAllowedMethods(java.util.Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
       configuration.setAllowedHeaders(java.util.Arrays.asList("*"));
-      configuration.setExposedHeaders(java.util.Arrays.asList("Authorization")); // Expose Authorization header
+      configuration.setExposedHeaders(java.util.Arrays.asList("Authorization", "Link", "ETag", "Server-Timing")); // Expose Authorization, pagination Link, student ETag and Server-Timing headers
       configuration.setAllowCredentials(true); // Allow credentials (cookies, authorization headers)
       configuration.setMaxAge(3600L); // Cache preflight response for 1 hour
 
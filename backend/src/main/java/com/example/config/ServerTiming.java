@@ -0,0 +1,117 @@
+package com.example.config;
+
+import java.util.Locale;
+
+/**
+ * Per-request time breakdown for the {@code Server-Timing} response header. Exists only on the
+ * thread of a request that {@link ServerTimingFilter} sampled; everywhere else {@link #current()}
+ * is {@code null} and the measuring code skips its clock reads, so unsampled requests pay one
+ * thread-local lookup per phase.
+ * <p>
+ * The phases are JWT verification, user lookup, JDBC statements, the controller and services
+ * (excluding their statements), and writing the JSON body. Database time is the time spent in
+ * {@code execute} calls; reading rows that were not fetched with them is part of the phase that
+ * reads them.
+ */
+public final class ServerTiming {
+
+    public static final String HEADER = "Server-Timing";
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private final long start = System.nanoTime();
+    private long jwtNanos = -1;
+    private long userNanos = -1;
+    private long statementNanos;
+    private int statements;
+    private long handlerStart = -1;
+    private long statementNanosAtHandlerStart;
+    private long handlerNanos = -1;
+    private long handlerStatementNanos;
+    private long jsonNanos = -1;
+    private boolean written;
+
+    public static ServerTiming current() {
+        return CURRENT.get();
+    }
+
+    static ServerTiming begin() {
+        ServerTiming timing = new ServerTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    public void jwt(long nanos) {
+        jwtNanos = Math.max(jwtNanos, 0) + nanos;
+    }
+
+    public void user(long nanos) {
+        userNanos = Math.max(userNanos, 0) + nanos;
+    }
+
+    void statement(long nanos) {
+        statementNanos += nanos;
+        statements++;
+    }
+
+    void handlerStarted() {
+        handlerStart = System.nanoTime();
+        statementNanosAtHandlerStart = statementNanos;
+    }
+
+    /**
+     * Ends the controller phase. Called before the body is serialised and again after the handler
+     * completes; only the first call counts.
+     */
+    void handlerFinished() {
+        if (handlerStart >= 0 && handlerNanos < 0) {
+            handlerNanos = System.nanoTime() - handlerStart;
+            handlerStatementNanos = statementNanos - statementNanosAtHandlerStart;
+        }
+    }
+
+    void json(long nanos) {
+        jsonNanos = nanos;
+    }
+
+    /**
+     * Returns the header value up to now, or {@code null} if it was already taken: a response
+     * carries one breakdown, written just before its body or at the end of the request.
+     */
+    String takeHeader() {
+        if (written) {
+            return null;
+        }
+        written = true;
+        StringBuilder header = new StringBuilder(192);
+        if (jwtNanos >= 0) {
+            append(header, "jwt", jwtNanos, "JWT verification");
+        }
+        if (userNanos >= 0) {
+            append(header, "user", userNanos, "User lookup");
+        }
+        append(header, "db", statementNanos, statements == 1 ? "1 statement" : statements + " statements");
+        if (handlerNanos >= 0) {
+            append(header, "app", Math.max(handlerNanos - handlerStatementNanos, 0), "Service logic");
+        }
+        if (jsonNanos >= 0) {
+            append(header, "json", jsonNanos, "JSON serialisation");
+        }
+        append(header, "total", System.nanoTime() - start, null);
+        return header.toString();
+    }
+
+    private static void append(StringBuilder header, String name, long nanos, String description) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        header.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0));
+        if (description != null) {
+            header.append(";desc=\"").append(description).append('"');
+        }
+    }
+}
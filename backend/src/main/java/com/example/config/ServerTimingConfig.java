@@ -0,0 +1,63 @@
+package com.example.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * {@code Server-Timing} headers, enabled with {@code app.server-timing.enabled} for the
+ * {@code app.server-timing.sample-rate} fraction of requests (1.0 for all of them).
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.server-timing.enabled", havingValue = "true")
+public class ServerTimingConfig implements WebMvcConfigurer {
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(
+            @Value("${app.server-timing.sample-rate:1.0}") double sampleRate) {
+        FilterRegistrationBean<ServerTimingFilter> registration =
+                new FilterRegistrationBean<>(new ServerTimingFilter(sampleRate));
+        // Ahead of Spring Security, so that the JWT check and the user lookup are inside the timing.
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public ServerTimingJsonConverter serverTimingJsonConverter(ObjectMapper objectMapper) {
+        return new ServerTimingJsonConverter(objectMapper);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                     @NonNull Object handler) {
+                ServerTiming timing = ServerTiming.current();
+                if (timing != null) {
+                    timing.handlerStarted();
+                }
+                return true;
+            }
+
+            @Override
+            public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                        @NonNull Object handler, Exception ex) {
+                ServerTiming timing = ServerTiming.current();
+                if (timing != null) {
+                    timing.handlerFinished();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Starts a {@link ServerTiming} for a {@code sampleRate} fraction of requests. JSON responses get
+ * the header from {@link ServerTimingJsonConverter} just before their body; responses without a
+ * body get it here. Responses whose body is already on its way, such as streamed exports, go
+ * without.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private final double sampleRate;
+
+    public ServerTimingFilter(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ServerTiming timing = ServerTiming.begin();
+        try {
+            filterChain.doFilter(request, response);
+            timing.handlerFinished();
+            String header = timing.takeHeader();
+            if (header != null && !response.isCommitted()) {
+                response.setHeader(ServerTiming.HEADER, header);
+            }
+        } finally {
+            ServerTiming.end();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Jackson converter that, for a request being timed, serialises the body into memory first so that
+ * the {@code Server-Timing} header can still be sent with the serialisation time in it. Other
+ * requests are written straight to the response as before.
+ */
+public class ServerTimingJsonConverter extends MappingJackson2HttpMessageConverter {
+
+    public ServerTimingJsonConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        ServerTiming timing = ServerTiming.current();
+        if (timing == null) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+
+        timing.handlerFinished();
+        long start = System.nanoTime();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(8192);
+        super.writeInternal(object, type, new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return body;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return outputMessage.getHeaders();
+            }
+        });
+        timing.json(System.nanoTime() - start);
+
+        String header = timing.takeHeader();
+        if (header != null) {
+            outputMessage.getHeaders().set(ServerTiming.HEADER, header);
+        }
+        body.writeTo(outputMessage.getBody());
+    }
+}
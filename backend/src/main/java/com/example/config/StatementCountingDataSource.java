@@ -0,0 +1,107 @@
+package com.example.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Counts the JDBC {@code execute} calls made on the current thread, whether the statement comes
+ * from Hibernate or from a {@code JdbcTemplate}, so that a request can report how many it issued:
+ * read {@link #statements()} before and after. A batch counts once. Wrapped around the
+ * application's data source by {@link MetricsConfig}.
+ * <p>
+ * For a request being timed, the time spent in those calls is also added to the current
+ * {@link ServerTiming}.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    private static final ThreadLocal<long[]> STATEMENTS = ThreadLocal.withInitial(() -> new long[1]);
+
+    public StatementCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    /**
+     * Statements executed on this thread so far. Only differences between two calls mean anything.
+     */
+    public static long statements() {
+        return STATEMENTS.get()[0];
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private static Connection wrap(Connection connection) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof CallableStatement statement) {
+                return counted(CallableStatement.class, statement);
+            }
+            if (result instanceof PreparedStatement statement) {
+                return counted(PreparedStatement.class, statement);
+            }
+            if (result instanceof Statement statement) {
+                return counted(Statement.class, statement);
+            }
+            return result;
+        });
+    }
+
+    private static <T extends Statement> T counted(Class<T> type, T statement) {
+        return proxy(type, statement, (target, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(target, method, args);
+            }
+            STATEMENTS.get()[0]++;
+            ServerTiming timing = ServerTiming.current();
+            if (timing == null) {
+                return invoke(target, method, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return invoke(target, method, args);
+            } finally {
+                timing.statement(System.nanoTime() - start);
+            }
+        });
+    }
+
+    private interface Handler {
+        Object handle(Object target, Method method, Object[] args) throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Handler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> handler.handle(target, method, args);
+        };
+        return (T) Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(), new Class<?>[] {type},
+                invocationHandler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
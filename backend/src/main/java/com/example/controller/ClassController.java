@@ -0,0 +1,65 @@
+package com.example.controller;
+
+import com.example.entity.enums.Grade;
+import com.example.payload.response.BulkResult;
+import com.example.payload.response.ClassRanking;
+import com.example.payload.response.RankedStudent;
+import com.example.service.ClassRankings;
+import com.example.service.StudentBulkService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/classes")
+public class ClassController {
+
+    private final ClassRankings classRankings;
+    private final StudentBulkService studentBulkService;
+
+    public ClassController(ClassRankings classRankings, StudentBulkService studentBulkService) {
+        this.classRankings = classRankings;
+        this.studentBulkService = studentBulkService;
+    }
+
+    @GetMapping("/{studentClass}/ranking")
+    public ResponseEntity<ClassRanking> getRanking(
+            @PathVariable("studentClass") String studentClass,
+            @RequestParam(name = "top", defaultValue = "10") int top) {
+        return ResponseEntity.ok(classRankings.top(studentClass, top));
+    }
+
+    @GetMapping("/{studentClass}/ranking/{id}")
+    public ResponseEntity<RankedStudent> getStudentRank(@PathVariable("studentClass") String studentClass,
+                                                        @PathVariable("id") int id) {
+        return ResponseEntity.ok(classRankings.rankOf(studentClass, id));
+    }
+
+    /**
+     * Moves the whole class one year up, e.g. end-of-year 1A to 2A.
+     */
+    @PostMapping("/{studentClass}/promote")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkResult> promoteClass(@PathVariable("studentClass") String studentClass) {
+        return ResponseEntity.ok(studentBulkService.promoteClass(studentClass));
+    }
+
+    @PostMapping("/{studentClass}/move")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkResult> moveClass(@PathVariable("studentClass") String studentClass,
+                                                @RequestParam(name = "to") String to) {
+        return ResponseEntity.ok(studentBulkService.moveClass(studentClass, to));
+    }
+
+    /**
+     * Enters one course's grades for a class, keyed by student id.
+     */
+    @PutMapping("/{studentClass}/courses/{course}/grades")
+    public ResponseEntity<BulkResult> putGrades(@PathVariable("studentClass") String studentClass,
+                                                @PathVariable("course") String course,
+                                                @RequestBody Map<Integer, Grade> grades) {
+        return ResponseEntity.ok(studentBulkService.upsertGrades(studentClass, course, grades));
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.controller;
+
+import com.example.payload.response.GradeRollupCheck;
+import com.example.payload.response.GradeStats;
+import com.example.service.GradeRollups;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    private final GradeRollups gradeRollups;
+
+    public StatsController(GradeRollups gradeRollups) {
+        this.gradeRollups = gradeRollups;
+    }
+
+    @GetMapping("/grades")
+    public ResponseEntity<GradeStats> getGradeStats() {
+        return ResponseEntity.ok(gradeRollups.getStats());
+    }
+
+    /**
+     * Recounts grades from the database and reports where the rollups disagree. Scans every
+     * grade row, so it is restricted to administrators.
+     */
+    @PostMapping("/grades/verify")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<GradeRollupCheck> verifyGradeStats(
+            @RequestParam(name = "repair", defaultValue = "false") boolean repair) {
+        return ResponseEntity.ok(gradeRollups.verify(repair));
+    }
+}
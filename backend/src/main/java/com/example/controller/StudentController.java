@@ -1,15 +1,46 @@
 package com.example.controller;
 
 import com.example.entity.Student;
+import com.example.exception.PreconditionFailedException;
+import com.example.exception.ServiceUnavailableException;
+import com.example.payload.request.GradeRequest;
+import com.example.payload.response.BulkResult;
+import com.example.payload.response.CursorPage;
+import com.example.payload.response.ImportResult;
+import com.example.payload.response.StudentChanges;
+import com.example.payload.response.StudentFacets;
+import com.example.payload.response.StudentSuggestion;
+import com.example.payload.response.StudentView;
+import com.example.service.StudentBulkService;
+import com.example.service.StudentChangeLog;
+import com.example.service.StudentEventBroadcaster;
+import com.example.service.StudentExportFormat;
+import com.example.service.StudentExportService;
+import com.example.service.StudentFacetIndex;
+import com.example.service.StudentImportService;
+import com.example.service.StudentMergePatch;
+import com.example.service.StudentNameIndex;
+import com.example.service.StudentSearchCriteria;
 import com.example.service.StudentService;
+import com.example.service.StudentSort;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
-import java.util.Collection;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/students")
@@ -18,21 +49,107 @@ public class StudentController {
     private static final Logger logger = LoggerFactory.getLogger(StudentController.class);
 
     private final StudentService studentService;
+    private final StudentExportService studentExportService;
+    private final StudentImportService studentImportService;
+    private final StudentChangeLog studentChangeLog;
+    private final StudentEventBroadcaster studentEventBroadcaster;
+    private final StudentNameIndex studentNameIndex;
+    private final StudentFacetIndex studentFacetIndex;
+    private final StudentBulkService studentBulkService;
 
-    public StudentController(StudentService studentService) {
+    public StudentController(StudentService studentService, StudentExportService studentExportService,
+                             StudentImportService studentImportService, StudentChangeLog studentChangeLog,
+                             StudentEventBroadcaster studentEventBroadcaster, StudentNameIndex studentNameIndex,
+                             StudentFacetIndex studentFacetIndex, StudentBulkService studentBulkService) {
         this.studentService = studentService;
+        this.studentExportService = studentExportService;
+        this.studentImportService = studentImportService;
+        this.studentChangeLog = studentChangeLog;
+        this.studentEventBroadcaster = studentEventBroadcaster;
+        this.studentNameIndex = studentNameIndex;
+        this.studentFacetIndex = studentFacetIndex;
+        this.studentBulkService = studentBulkService;
     }
 
     @GetMapping
-    public Collection<Student> getAllStudents(){
-        return studentService.getAllStudents();
+    public ResponseEntity<List<StudentView>> getAllStudents(
+            @RequestParam(name = "size", defaultValue = "50") int size,
+            @RequestParam(name = "sort", defaultValue = "id") String sort,
+            @RequestParam(name = "cursor", required = false) String cursor){
+        CursorPage<StudentView> page = studentService.listStudents(StudentSort.fromParameter(sort), cursor, size);
+        return pageResponse(page);
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<List<StudentView>> searchStudents(
+            @RequestParam(name = "studentClass", required = false) String studentClass,
+            @RequestParam(name = "course", required = false) String course,
+            @RequestParam(name = "grade", required = false) String grade,
+            @RequestParam(name = "lastNamePrefix", required = false) String lastNamePrefix,
+            @RequestParam(name = "schoolNumber", required = false) String schoolNumber,
+            @RequestParam(name = "size", defaultValue = "50") int size,
+            @RequestParam(name = "sort", defaultValue = "lastName") String sort,
+            @RequestParam(name = "cursor", required = false) String cursor){
+        StudentSearchCriteria criteria = StudentSearchCriteria.fromParameters(studentClass, course, grade,
+                lastNamePrefix, schoolNumber);
+        return pageResponse(studentService.searchStudents(criteria, StudentSort.fromParameter(sort), cursor, size));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<StudentSuggestion>> suggestStudents(
+            @RequestParam(name = "q") String query,
+            @RequestParam(name = "limit", defaultValue = "10") int limit){
+        return ResponseEntity.ok(studentNameIndex.suggest(query, limit));
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<StudentFacets> getStudentFacets(
+            @RequestParam(name = "studentClass", required = false) String studentClass,
+            @RequestParam(name = "course", required = false) String course,
+            @RequestParam(name = "grade", required = false) String grade){
+        StudentSearchCriteria criteria = StudentSearchCriteria.fromParameters(studentClass, course, grade, null, null);
+        return ResponseEntity.ok(studentFacetIndex.facets(criteria));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportStudents(
+            @RequestParam(name = "format", defaultValue = "ndjson") String format){
+        StudentExportFormat exportFormat = StudentExportFormat.fromParameter(format);
+        StreamingResponseBody body = out -> studentExportService.export(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("students." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<StudentChanges> getChanges(
+            @RequestParam(name = "since", defaultValue = "0") long since,
+            @RequestParam(name = "limit", defaultValue = "500") int limit){
+        return ResponseEntity.ok(studentChangeLog.changesSince(since, limit));
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamStudentChanges(){
+        try {
+            return ResponseEntity.ok(studentEventBroadcaster.subscribe());
+        } catch (ServiceUnavailableException e) {
+            // An event stream cannot carry the JSON error body, so the status and Retry-After go alone.
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .build();
+        }
+    }
+
+    // Spring answers 304 Not Modified itself when If-None-Match matches the ETag set here.
     @GetMapping("/{id}")
-    public Student getStudentById(@PathVariable("id") int id){
-        Student student = studentService.getStudentById(id);
+    public ResponseEntity<StudentView> getStudentById(@PathVariable("id") int id){
+        StudentView student = studentService.getStudentById(id);
         logger.info("Student found: {}", student);
-        return student;
+        return ResponseEntity.ok().eTag(eTagOf(student.getVersion())).body(student);
     }
 
     @DeleteMapping("/{id}")
@@ -41,10 +158,44 @@ public class StudentController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Deletes every student matching the filters, which work as in search. At least one is required.
+     */
+    @DeleteMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkResult> deleteStudents(
+            @RequestParam(name = "studentClass", required = false) String studentClass,
+            @RequestParam(name = "course", required = false) String course,
+            @RequestParam(name = "grade", required = false) String grade,
+            @RequestParam(name = "lastNamePrefix", required = false) String lastNamePrefix,
+            @RequestParam(name = "schoolNumber", required = false) String schoolNumber){
+        StudentSearchCriteria criteria = StudentSearchCriteria.fromParameters(studentClass, course, grade,
+                lastNamePrefix, schoolNumber);
+        return ResponseEntity.ok(studentBulkService.deleteStudents(criteria));
+    }
+
     @PutMapping("/{id}")
-    public ResponseEntity<Student> updateStudent(@PathVariable("id") int id, @RequestBody Student student){
-        Student updatedStudent = studentService.updateStudent(id, student);
-        return ResponseEntity.ok(updatedStudent);
+    public ResponseEntity<Student> updateStudent(@PathVariable("id") int id, @RequestBody Student student,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        Student updatedStudent = studentService.updateStudent(id, student, expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(eTagOf(updatedStudent)).body(updatedStudent);
+    }
+
+    @PatchMapping(path = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Student> patchStudent(@PathVariable("id") int id, @RequestBody JsonNode patch,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        Student patchedStudent = studentService.patchStudent(id, StudentMergePatch.fromJson(patch),
+                expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(eTagOf(patchedStudent)).body(patchedStudent);
+    }
+
+    @PutMapping("/{id}/courses/{course}")
+    public ResponseEntity<Student> putGrade(@PathVariable("id") int id, @PathVariable("course") String course,
+            @RequestBody GradeRequest request,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        Student updatedStudent = studentService.patchStudent(id, StudentMergePatch.ofGrade(course, request.getGrade()),
+                expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(eTagOf(updatedStudent)).body(updatedStudent);
     }
 
     @PostMapping
@@ -56,4 +207,49 @@ public class StudentController {
                 .toUri();
         return ResponseEntity.created(location).body(createdStudent);
     }
+
+    private static ResponseEntity<List<StudentView>> pageResponse(CursorPage<StudentView> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.getNextCursor())
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.getItems());
+    }
+
+    private static String eTagOf(Student student) {
+        return eTagOf(student.getVersion());
+    }
+
+    private static String eTagOf(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Reads the version out of an If-Match header. Absent or {@code *} means "any version". Only
+     * a single strong ETag as returned by this controller can match; anything else fails with 412.
+     */
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.valueOf(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // fall through
+            }
+        }
+        throw new PreconditionFailedException("If-Match does not match the current version: " + ifMatch);
+    }
+
+    @PostMapping(path = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ImportResult> importStudents(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) throws IOException {
+        ImportResult result = studentImportService.importStudents(StudentExportFormat.fromContentType(contentType), body);
+        return ResponseEntity.ok(result);
+    }
 }
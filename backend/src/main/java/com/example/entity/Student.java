@@ -3,10 +3,12 @@ package com.example.entity;
 import com.example.entity.enums.Course;
 import com.example.entity.enums.Grade;
 import com.example.entity.enums.StudentClass;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -18,7 +20,9 @@ import java.util.Map;
 @AllArgsConstructor
 public class Student {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "student_id")
+    @TableGenerator(name = "student_id", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "next_val", pkColumnValue = "students", allocationSize = 100)
     private int id;
     private String firstName;
     private String lastName;
@@ -26,11 +30,18 @@ public class Student {
     private String birthDate;
     private StudentClass studentClass;
 
+    // Lists initialise the grades of up to 100 students per query instead of one query each.
     @ElementCollection
+    @BatchSize(size = 100)
     @CollectionTable(name = "student_courses", joinColumns = @JoinColumn(name = "student_id"))
     @MapKeyColumn(name = "course")
     @MapKeyEnumerated(EnumType.STRING)
     @Column(name = "grade")
     @Enumerated(EnumType.STRING)
     private Map<Course, Grade> courses = new HashMap<>();
+
+    // Also bumped when only the grades change. Sent as the ETag header rather than in the body.
+    @Version
+    @JsonIgnore
+    private Long version;
 }
\ No newline at end of file
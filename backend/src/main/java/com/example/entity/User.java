@@ -11,7 +11,10 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import com.example.entity.listener.UserEntityListener;
+
 @Entity
+@EntityListeners(UserEntityListener.class)
 @Table(name = "users", 
     uniqueConstraints = { 
       @UniqueConstraint(columnNames = "username"),
@@ -44,6 +47,11 @@ public class User {
              inverseJoinColumns = @JoinColumn(name = "role_id"))
   private Set<Role> roles = new HashSet<>();
 
+  // Also incremented when the roles collection changes, which lets claims-based
+  // authentication detect tokens issued before a role change.
+  @Version
+  private Long version;
+
   public User(String username, String email, String password) {
     this.username = username;
     this.email = email;
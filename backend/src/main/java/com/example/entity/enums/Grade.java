@@ -1,9 +1,20 @@
 package com.example.entity.enums;
 
 public enum Grade {
-    A,
-    B,
-    C,
-    D,
-    E
+    A(4),
+    B(3),
+    C(2),
+    D(1),
+    E(0);
+
+    // Grade points on the usual four-point scale, for averages such as GPA.
+    private final int points;
+
+    Grade(int points) {
+        this.points = points;
+    }
+
+    public int getPoints() {
+        return points;
+    }
 }
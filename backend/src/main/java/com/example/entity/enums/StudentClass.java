@@ -22,4 +22,17 @@ public enum StudentClass {
     public String getValue() {
         return value;
     }
+
+    /**
+     * The same section one year up, e.g. 2A for 1A, or {@code null} for the final year.
+     */
+    public StudentClass nextYear() {
+        String next = (char) (value.charAt(0) + 1) + value.substring(1);
+        for (StudentClass studentClass : values()) {
+            if (studentClass.value.equals(next)) {
+                return studentClass;
+            }
+        }
+        return null;
+    }
 }
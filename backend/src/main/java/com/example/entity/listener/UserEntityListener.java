@@ -0,0 +1,29 @@
+package com.example.entity.listener;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.example.entity.User;
+import com.example.event.UserChangedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Turns every write of a {@link User} into a {@link UserChangedEvent}. Role changes are covered
+ * too, because they bump the user's {@code @Version} and therefore update the row.
+ */
+@Component
+public class UserEntityListener {
+
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
+  @PostPersist
+  @PostUpdate
+  @PostRemove
+  void userChanged(User user) {
+    eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername()));
+  }
+}
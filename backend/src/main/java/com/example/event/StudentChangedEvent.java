@@ -0,0 +1,24 @@
+package com.example.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by {@link com.example.service.StudentService} for every student it inserts, updates
+ * or deletes. Listeners that keep derived state (caches, indexes) should use
+ * {@code @TransactionalEventListener} so they only react once the change is committed. Bulk
+ * writes publish one {@link StudentsChangedEvent} for all their students instead.
+ */
+@Getter
+@AllArgsConstructor
+public class StudentChangedEvent {
+
+  public enum Type {
+    INSERTED,
+    UPDATED,
+    DELETED
+  }
+
+  private final Type type;
+  private final int studentId;
+}
@@ -0,0 +1,43 @@
+package com.example.event;
+
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.entity.enums.StudentClass;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Published alongside {@link StudentChangedEvent} with a student's class and grades before and
+ * after the change, so that aggregates can apply the difference without re-reading anything.
+ * An inserted student has no previous grades and a deleted one no current grades.
+ */
+@Getter
+@AllArgsConstructor
+public class StudentGradesChangedEvent {
+  private final StudentClass previousClass;
+  private final Map<Course, Grade> previousGrades;
+  private final StudentClass studentClass;
+  private final Map<Course, Grade> grades;
+
+  public static StudentGradesChangedEvent inserted(StudentClass studentClass, Map<Course, Grade> grades) {
+    return new StudentGradesChangedEvent(null, Map.of(), studentClass, copy(grades));
+  }
+
+  public static StudentGradesChangedEvent updated(StudentClass previousClass, Map<Course, Grade> previousGrades,
+                                                  StudentClass studentClass, Map<Course, Grade> grades) {
+    return new StudentGradesChangedEvent(previousClass, copy(previousGrades), studentClass, copy(grades));
+  }
+
+  public static StudentGradesChangedEvent deleted(StudentClass studentClass, Map<Course, Grade> grades) {
+    return new StudentGradesChangedEvent(studentClass, copy(grades), null, Map.of());
+  }
+
+  // Entity maps are live Hibernate collections and may be replaced or cleared after publishing.
+  private static Map<Course, Grade> copy(Map<Course, Grade> grades) {
+    return grades == null ? Map.of() : Collections.unmodifiableMap(new HashMap<>(grades));
+  }
+}
@@ -0,0 +1,20 @@
+package com.example.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published by {@link com.example.service.StudentBulkService} once per operation, and by
+ * {@link com.example.service.StudentImportService} once per chunk, in place of a
+ * {@link StudentChangedEvent} for every student, so that listeners which re-read changed students
+ * can do so for all of them at once. Every listener of {@link StudentChangedEvent} must handle
+ * this event as well.
+ */
+@Getter
+@AllArgsConstructor
+public class StudentsChangedEvent {
+  private final StudentChangedEvent.Type type;
+  private final List<Integer> studentIds;
+}
@@ -0,0 +1,15 @@
+package com.example.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published whenever a {@link com.example.entity.User} row, or its roles, is inserted, updated or
+ * deleted, so that caches keyed by the user can drop their copy.
+ */
+@Getter
+@AllArgsConstructor
+public class UserChangedEvent {
+  private final Long userId;
+  private final String username;
+}
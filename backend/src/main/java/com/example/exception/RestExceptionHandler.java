@@ -1,7 +1,10 @@
 package com.example.exception;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
@@ -16,14 +19,58 @@ public class RestExceptionHandler {
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<Object> handleResourceNotFoundException(
             ResourceNotFoundException ex, WebRequest request) {
+        return buildResponse(HttpStatus.NOT_FOUND, "Not Found", ex, request);
+    }
+
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<Object> handleBadRequestException(
+            BadRequestException ex, WebRequest request) {
+        return buildResponse(HttpStatus.BAD_REQUEST, "Bad Request", ex, request);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Object> handlePreconditionFailedException(
+            PreconditionFailedException ex, WebRequest request) {
+        return buildResponse(HttpStatus.PRECONDITION_FAILED, "Precondition Failed", ex, request);
+    }
+
+    // A concurrent update committed between our version check and the flush.
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException ex, WebRequest request) {
+        return buildResponse(HttpStatus.PRECONDITION_FAILED, "Precondition Failed",
+                new PreconditionFailedException("The resource was modified concurrently, reload and retry"), request);
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<Object> handleServiceUnavailableException(
+            ServiceUnavailableException ex, WebRequest request) {
+        ResponseEntity<Object> response = buildResponse(HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable", ex, request);
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response.getBody());
+    }
+
+    // Spring Security wraps what the password encoder throws while checking an unknown user, so a
+    // saturated hashing pool would otherwise surface as a failed sign-in instead of a 503.
+    @ExceptionHandler(InternalAuthenticationServiceException.class)
+    public ResponseEntity<Object> handleInternalAuthenticationServiceException(
+            InternalAuthenticationServiceException ex, WebRequest request) {
+        if (ex.getCause() instanceof ServiceUnavailableException serviceUnavailable) {
+            return handleServiceUnavailableException(serviceUnavailable, request);
+        }
+        throw ex;
+    }
 
+    private ResponseEntity<Object> buildResponse(HttpStatus status, String error,
+                                                 RuntimeException ex, WebRequest request) {
         Map<String, Object> body = new LinkedHashMap<>();
         body.put("timestamp", LocalDateTime.now());
-        body.put("status", HttpStatus.NOT_FOUND.value());
-        body.put("error", "Not Found");
+        body.put("status", status.value());
+        body.put("error", error);
         body.put("message", ex.getMessage());
         body.put("path", request.getDescription(false).replace("uri=", ""));
 
-        return new ResponseEntity<>(body, HttpStatus.NOT_FOUND);
+        return new ResponseEntity<>(body, status);
     }
 }
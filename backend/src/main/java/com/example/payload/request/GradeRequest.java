@@ -0,0 +1,15 @@
+package com.example.payload.request;
+
+import com.example.entity.enums.Grade;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class GradeRequest {
+  private Grade grade;
+}
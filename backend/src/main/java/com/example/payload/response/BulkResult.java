@@ -0,0 +1,19 @@
+package com.example.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Rows written by a set-based operation. Counts that do not apply to the operation are 0.
+ */
+@Getter
+@AllArgsConstructor
+public class BulkResult {
+  // Students the operation selected, whether or not anything about them changed
+  private int matched;
+  private int studentsUpdated;
+  private int studentsDeleted;
+  private int gradesInserted;
+  private int gradesUpdated;
+  private int gradesDeleted;
+}
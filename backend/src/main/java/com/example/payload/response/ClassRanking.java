@@ -0,0 +1,15 @@
+package com.example.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ClassRanking {
+  private String studentClass;
+  // Students of the class with at least one grade, i.e. the lowest rank
+  private int ranked;
+  private List<RankedStudent> students;
+}
@@ -0,0 +1,14 @@
+package com.example.payload.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+  private List<T> items;
+  // Null when there are no further pages.
+  private String nextCursor;
+}
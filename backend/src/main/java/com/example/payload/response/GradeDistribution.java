@@ -0,0 +1,17 @@
+package com.example.payload.response;
+
+import com.example.entity.enums.Grade;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class GradeDistribution {
+  // Course grades counted, one per student and course.
+  private long total;
+  private Map<Grade, Long> grades;
+  // Mean grade points (A = 4 ... E = 0), or null when nothing was counted.
+  private Double averageGpa;
+}
@@ -0,0 +1,33 @@
+package com.example.payload.response;
+
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class GradeRollupCheck {
+  private boolean consistent;
+  // Writes committed while the database was being scanned; mismatches may then be spurious.
+  private boolean concurrentWrites;
+  // Whether the recomputed counts replaced the rollups.
+  private boolean repaired;
+  private long durationMs;
+  private List<Mismatch> mismatches;
+
+  @Getter
+  @AllArgsConstructor
+  public static class Mismatch {
+    // null for students without a class
+    private String studentClass;
+    private Course course;
+    private Grade grade;
+    // Count recomputed from the database
+    private long expected;
+    // Count held by the rollups
+    private long actual;
+  }
+}
@@ -0,0 +1,16 @@
+package com.example.payload.response;
+
+import com.example.entity.enums.Course;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class GradeStats {
+  // Keyed by the class as written in requests, e.g. "2B". Students without a class are left out.
+  private Map<String, GradeDistribution> studentClasses;
+  private Map<Course, GradeDistribution> courses;
+  private GradeDistribution overall;
+}
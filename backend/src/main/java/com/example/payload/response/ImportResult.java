@@ -0,0 +1,35 @@
+package com.example.payload.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+public class ImportResult {
+  // Only the first errors are reported so that a bad file cannot blow up the response.
+  public static final int MAX_REPORTED_ERRORS = 1000;
+
+  private long imported;
+  private long failed;
+  private List<RowError> errors = new ArrayList<>();
+
+  public void recordImported(int count) {
+    imported += count;
+  }
+
+  public void recordFailure(long line, String message) {
+    failed++;
+    if (errors.size() < MAX_REPORTED_ERRORS) {
+      errors.add(new RowError(line, message));
+    }
+  }
+
+  @Getter
+  @AllArgsConstructor
+  public static class RowError {
+    private long line;
+    private String message;
+  }
+}
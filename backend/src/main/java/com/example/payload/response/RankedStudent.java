@@ -0,0 +1,18 @@
+package com.example.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class RankedStudent {
+  // 1 for the best student of the class
+  private int rank;
+  private int id;
+  private String firstName;
+  private String lastName;
+  private String schoolNumber;
+  // Mean grade points over the graded courses (A = 4 ... E = 0)
+  private double gpa;
+  private int gradedCourses;
+}
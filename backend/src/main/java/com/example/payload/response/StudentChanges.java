@@ -0,0 +1,27 @@
+package com.example.payload.response;
+
+import java.util.List;
+
+import com.example.event.StudentChangedEvent;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class StudentChanges {
+  private List<Change> changes;
+  // Pass back as "since" to continue after the last change returned.
+  private long cursor;
+  // True when more changes were already available than fitted in this response.
+  private boolean hasMore;
+
+  @Getter
+  @AllArgsConstructor
+  public static class Change {
+    private int id;
+    private StudentChangedEvent.Type type;
+    // The student's current state, or null for a deletion.
+    private StudentView student;
+  }
+}
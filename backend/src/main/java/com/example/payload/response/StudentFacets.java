@@ -0,0 +1,19 @@
+package com.example.payload.response;
+
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class StudentFacets {
+  // Students matching the filters.
+  private int total;
+  // Matching students per class, keyed by the class as written in requests, e.g. "2B".
+  private Map<String, Integer> studentClasses;
+  // Matching students per course and grade they hold in it.
+  private Map<Course, Map<Grade, Integer>> grades;
+}
@@ -0,0 +1,15 @@
+package com.example.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class StudentSuggestion {
+  private int id;
+  private String firstName;
+  private String lastName;
+  private String schoolNumber;
+  // Trigram similarity to the query, from 0 (exclusive) to 1 for an exact match.
+  private double score;
+}
@@ -0,0 +1,33 @@
+package com.example.payload.response;
+
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.entity.enums.StudentClass;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Map;
+
+/**
+ * Read-only copy of a student, serialised exactly like the {@code Student} entity. Built from
+ * query columns rather than from a managed entity, so it carries no Hibernate state and can be
+ * shared between threads and cached as is.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class StudentView {
+  private final int id;
+  private final String firstName;
+  private final String lastName;
+  private final String schoolNumber;
+  private final String birthDate;
+  private final StudentClass studentClass;
+  // Unmodifiable
+  private final Map<Course, Grade> courses;
+  // Sent as the ETag header rather than in the body, as for the entity.
+  @JsonIgnore
+  private final Long version;
+}
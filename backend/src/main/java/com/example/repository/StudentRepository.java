@@ -1,9 +1,18 @@
 package com.example.repository;
 
 import com.example.entity.Student;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
-public interface StudentRepository extends JpaRepository<Student, Integer> {
-}
\ No newline at end of file
+public interface StudentRepository extends JpaRepository<Student, Integer>, JpaSpecificationExecutor<Student> {
+
+    // Single-student reads always need the grades, so fetch them in the same query.
+    @Override
+    @EntityGraph(attributePaths = "courses")
+    Optional<Student> findById(Integer id);
+}
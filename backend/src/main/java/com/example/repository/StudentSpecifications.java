@@ -0,0 +1,85 @@
+package com.example.repository;
+
+import com.example.entity.Student;
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.entity.enums.StudentClass;
+import jakarta.persistence.criteria.MapJoin;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class StudentSpecifications {
+
+    private StudentSpecifications() {
+    }
+
+    /**
+     * Restricts to rows that sort strictly after the given keyset position.
+     * <p>
+     * Rows are ordered by {@code (sortProperty, id)} ascending, or by {@code id} alone when
+     * {@code sortProperty} is {@code null}. MySQL sorts {@code NULL} keys first, so a
+     * {@code null} sort key means "the rest of the null block, then every non-null key".
+     */
+    public static Specification<Student> keysetAfter(String sortProperty, String sortKey, int id) {
+        return (root, query, cb) -> {
+            Path<Integer> idPath = root.get("id");
+            if (sortProperty == null) {
+                return cb.greaterThan(idPath, id);
+            }
+            Path<String> keyPath = root.get(sortProperty);
+            if (sortKey == null) {
+                return cb.or(
+                        cb.and(cb.isNull(keyPath), cb.greaterThan(idPath, id)),
+                        cb.isNotNull(keyPath));
+            }
+            return cb.or(
+                    cb.greaterThan(keyPath, sortKey),
+                    cb.and(cb.equal(keyPath, sortKey), cb.greaterThan(idPath, id)));
+        };
+    }
+
+    public static Specification<Student> inClass(StudentClass studentClass) {
+        return (root, query, cb) -> cb.equal(root.get("studentClass"), studentClass);
+    }
+
+    public static Specification<Student> hasSchoolNumber(String schoolNumber) {
+        return (root, query, cb) -> cb.equal(root.get("schoolNumber"), schoolNumber);
+    }
+
+    /**
+     * Matches last names starting with {@code prefix}, taken literally. A prefix match can use
+     * the index on {@code last_name}; any other {@code LIKE} pattern could not.
+     */
+    public static Specification<Student> lastNameStartsWith(String prefix) {
+        String escaped = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return (root, query, cb) -> cb.like(root.get("lastName"), escaped + "%", '\\');
+    }
+
+    /**
+     * Matches students with a grade row for {@code course} and/or {@code grade}; at least one
+     * must be given. An {@code EXISTS} rather than a join, so that a student with the grade in
+     * several courses is still returned once.
+     */
+    public static Specification<Student> hasGrade(Course course, Grade grade) {
+        return (root, query, cb) -> {
+            Subquery<Integer> graded = query.subquery(Integer.class);
+            Root<Student> student = graded.correlate(root);
+            MapJoin<Student, Course, Grade> courses = student.joinMap("courses");
+            List<Predicate> conditions = new ArrayList<>();
+            if (course != null) {
+                conditions.add(cb.equal(courses.key(), course));
+            }
+            if (grade != null) {
+                conditions.add(cb.equal(courses.value(), grade));
+            }
+            graded.select(cb.literal(1)).where(conditions.toArray(new Predicate[0]));
+            return cb.exists(graded);
+        };
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.repository;
+
+import com.example.entity.Student;
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.entity.enums.StudentClass;
+import com.example.payload.response.StudentView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Student reads as {@link StudentView}s, selected column by column instead of as entities.
+ * <p>
+ * Nothing is added to the persistence context: no entity instances, no snapshots for dirty
+ * checking, no collection wrappers, and nothing to flush. Everything runs in read-only
+ * transactions. A single student is one query joined with its grades. A list is one query for
+ * the students and one for all of their grades, since a row limit cannot be applied across the
+ * join. The grades are read with plain SQL: Hibernate re-translates a query for every distinct
+ * size of an {@code IN} list, which cost more than the rest of a 100-student page.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class StudentViewRepository {
+
+    private static final String FIND_BY_ID_JPQL = "select s.id, s.firstName, s.lastName, s.schoolNumber, "
+            + "s.birthDate, s.studentClass, s.version, key(c), value(c) "
+            + "from Student s left join s.courses c where s.id = :id";
+    private static final String FIND_GRADES_SQL = "SELECT student_id, course, grade FROM student_courses "
+            + "WHERE student_id IN ";
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+
+    public StudentViewRepository(EntityManager entityManager, JdbcTemplate jdbcTemplate) {
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<StudentView> findById(int id) {
+        List<Object[]> rows = entityManager.createQuery(FIND_BY_ID_JPQL, Object[].class)
+                .setParameter("id", id)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Map<Course, Grade> courses = new EnumMap<>(Course.class);
+        for (Object[] row : rows) {
+            if (row[7] != null) {
+                courses.put((Course) row[7], (Grade) row[8]);
+            }
+        }
+        Object[] first = rows.get(0);
+        return Optional.of(new StudentView((Integer) first[0], (String) first[1], (String) first[2],
+                (String) first[3], (String) first[4], (StudentClass) first[5], Collections.unmodifiableMap(courses),
+                (Long) first[6]));
+    }
+
+    /**
+     * Up to {@code limit} students matching {@code filter} ({@code null} for all) in
+     * {@code sort} order.
+     */
+    public List<StudentView> findAll(Specification<Student> filter, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Student> root = query.from(Student.class);
+        query.multiselect(root.get("id"), root.get("firstName"), root.get("lastName"), root.get("schoolNumber"),
+                root.get("birthDate"), root.get("studentClass"), root.get("version"));
+        Predicate predicate = filter == null ? null : filter.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        List<Tuple> rows = entityManager.createQuery(query).setMaxResults(limit).getResultList();
+        return withGrades(rows);
+    }
+
+    /**
+     * The students with the given ids that exist, in id order.
+     */
+    public List<StudentView> findAllById(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return findAll((root, query, cb) -> root.get("id").in(ids), Sort.by("id"), ids.size());
+    }
+
+    private List<StudentView> withGrades(List<Tuple> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        List<Integer> ids = new ArrayList<>(rows.size());
+        rows.forEach(row -> ids.add(row.get(0, Integer.class)));
+        Map<Integer, Map<Course, Grade>> grades = new HashMap<>();
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        jdbcTemplate.query(FIND_GRADES_SQL + "(" + placeholders + ")", rs -> {
+            String grade = rs.getString("grade");
+            grades.computeIfAbsent(rs.getInt("student_id"), id -> new EnumMap<>(Course.class))
+                    .put(Course.valueOf(rs.getString("course")), grade == null ? null : Grade.valueOf(grade));
+        }, ids.toArray());
+
+        List<StudentView> students = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Map<Course, Grade> courses = grades.get(row.get(0, Integer.class));
+            students.add(new StudentView(row.get(0, Integer.class), row.get(1, String.class), row.get(2, String.class),
+                    row.get(3, String.class), row.get(4, String.class), row.get(5, StudentClass.class),
+                    courses == null ? Map.of() : Collections.unmodifiableMap(courses), row.get(6, Long.class)));
+        }
+        return students;
+    }
+}
@@ -3,6 +3,8 @@ package com.example.repository;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.entity.User;
@@ -14,4 +16,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
   Boolean existsByUsername(String username);
 
   Boolean existsByEmail(String email);
+
+  @Query("SELECT u.version FROM User u WHERE u.id = :id")
+  Optional<Long> findVersionById(@Param("id") Long id);
 }
@@ -0,0 +1,92 @@
+package com.example.security.crypto;
+
+import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.example.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * Runs a slow {@link PasswordEncoder} (BCrypt) on a dedicated, fixed-size pool with a bounded
+ * queue. The calling request thread still waits for its hash; what the pool bounds is how many
+ * hashes run at once ({@code threads}) and how many callers wait for one ({@code queueCapacity}),
+ * so a burst of sign-ins cannot take more than that many request threads and CPU cores. Callers
+ * beyond that fail straight away with a {@link ServiceUnavailableException}, answered with 503 and
+ * {@code Retry-After}, instead of waiting.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+  // How long clients are asked to wait before retrying a rejected sign-in or sign-up.
+  private static final long RETRY_AFTER_SECONDS = 1;
+
+  private final PasswordEncoder delegate;
+  private final ThreadPoolExecutor executor;
+
+  public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity) {
+    this.delegate = delegate;
+    AtomicInteger threadNumber = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        runnable -> {
+          Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  /**
+   * Publishes pool size, queue depth and completed/rejected task counts as {@code executor.*}
+   * metrics tagged {@code name=passwordHashing}.
+   */
+  public BoundedPasswordEncoder bindTo(MeterRegistry meterRegistry) {
+    new ExecutorServiceMetrics(executor, "passwordHashing", Collections.emptyList()).bindTo(meterRegistry);
+    return this;
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return run(() -> delegate.encode(rawPassword));
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return run(() -> delegate.matches(rawPassword, encodedPassword));
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    return delegate.upgradeEncoding(encodedPassword);
+  }
+
+  private <T> T run(Callable<T> task) {
+    try {
+      return executor.submit(task).get();
+    } catch (RejectedExecutionException e) {
+      throw new ServiceUnavailableException("Too many sign-in requests, please retry shortly", RETRY_AFTER_SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ServiceUnavailableException("Password check was interrupted", RETRY_AFTER_SECONDS);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdown();
+  }
+}
@@ -11,6 +11,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -18,14 +19,24 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.example.security.services.UserDetailsServiceImpl;
+import com.example.config.ServerTiming;
+import com.example.security.services.CachingUserDetailsService;
+import com.example.security.services.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
 
 public class AuthTokenFilter extends OncePerRequestFilter {
   @Autowired
   private JwtUtils jwtUtils;
 
   @Autowired
-  private UserDetailsServiceImpl userDetailsService;
+  private CachingUserDetailsService userDetailsService;
+
+  @Autowired
+  private TokenVersionCache tokenVersionCache;
+
+  // When set, the principal is rebuilt from the token's claims instead of loaded from the database.
+  @Value("${app.jwt.claims-auth.enabled:false}")
+  private boolean claimsAuthEnabled;
 
   private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
@@ -34,30 +45,43 @@ public class AuthTokenFilter extends OncePerRequestFilter {
       throws ServletException, IOException {
     try {
       String jwt = parseJwt(request);
-      logger.info("Request URL: {}", request.getRequestURL()); // Log the request URL
-      logger.info("JWT Token: {}", jwt); // Log the extracted JWT token
+      logger.debug("Request URL: {}", request.getRequestURL());
 
-      boolean isValid = false;
+      // Verify the signature and read the claims in one pass; repeat tokens are served from cache.
+      ServerTiming timing = ServerTiming.current();
+      Claims claims = null;
       if (jwt != null) {
-          isValid = jwtUtils.validateJwtToken(jwt);
-          logger.info("JWT Token validation result: {}", isValid); // Log validation result
+          long start = timing != null ? System.nanoTime() : 0;
+          claims = jwtUtils.parseValidatedClaims(jwt);
+          if (timing != null) {
+            timing.jwt(System.nanoTime() - start);
+          }
+          logger.debug("JWT Token validation result: {}", claims != null);
       } else {
-          logger.info("No JWT token found in the request.");
+          logger.debug("No JWT token found in the request.");
       }
 
-      if (isValid) {
-        String username = jwtUtils.getUserNameFromJwtToken(jwt);
-        logger.info("Username from JWT: {}", username); // Log the username
+      if (claims != null) {
+        String username = claims.getSubject();
+        logger.debug("Username from JWT: {}", username);
 
-        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-        UsernamePasswordAuthenticationToken authentication =
-            new UsernamePasswordAuthenticationToken(
-                userDetails,
-                null,
-                userDetails.getAuthorities());
-        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        long start = timing != null ? System.nanoTime() : 0;
+        UserDetails userDetails = resolveUser(claims);
+        if (timing != null) {
+          timing.user(System.nanoTime() - start);
+        }
+        if (userDetails != null) {
+          UsernamePasswordAuthenticationToken authentication =
+              new UsernamePasswordAuthenticationToken(
+                  userDetails,
+                  null,
+                  userDetails.getAuthorities());
+          authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-        SecurityContextHolder.getContext().setAuthentication(authentication);
+          SecurityContextHolder.getContext().setAuthentication(authentication);
+        } else {
+          logger.debug("JWT for {} was issued before the user's last change; ignoring it", username);
+        }
       }
     } catch (Exception e) {
       logger.error("Cannot set user authentication: {}", e.getMessage(), e); // Added exception and message for better logging
@@ -66,6 +90,17 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     filterChain.doFilter(request, response);
   }
 
+  private UserDetails resolveUser(Claims claims) {
+    if (claimsAuthEnabled) {
+      UserDetailsImpl fromClaims = jwtUtils.getUserDetailsFromClaims(claims);
+      if (fromClaims != null) {
+        return tokenVersionCache.isCurrent(fromClaims.getId(), fromClaims.getVersion()) ? fromClaims : null;
+      }
+      // Tokens issued before the identity claims existed fall back to the database.
+    }
+    return userDetailsService.loadUserByUsername(claims.getSubject());
+  }
+
   private String parseJwt(@NonNull HttpServletRequest request) {
     String headerAuth = request.getHeader("Authorization");
     // Removed verbose info log for raw header
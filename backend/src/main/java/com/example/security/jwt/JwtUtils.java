@@ -1,55 +1,192 @@
 package com.example.security.jwt;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import com.example.security.services.UserDetailsImpl;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 
 @Component
 public class JwtUtils {
 
+  static final String CLAIM_USER_ID = "id";
+  static final String CLAIM_EMAIL = "email";
+  static final String CLAIM_ROLES = "roles";
+  static final String CLAIM_VERSION = "ver";
+
   @Value("${app.jwtSecret}")
   private String jwtSecret;
 
   @Value("${app.jwtExpirationMs}")
   private int jwtExpirationMs;
 
+  @Value("${app.jwt.verified-cache-size:10000}")
+  private int verifiedCacheSize;
+
+  // Built once: decoding the secret and building a parser on every call was pure overhead.
+  private Key key;
+  private JwtParser parser;
+
+  // Claims of tokens whose signature has already been verified, keyed by a hash of the token and
+  // evicted when the token expires, so repeat requests skip the HMAC check and JSON parsing.
+  private Cache<String, Claims> verifiedTokens;
+
+  @Autowired(required = false)
+  private MeterRegistry meterRegistry;
+
+  // security.jwt.validation, by whether the token came from the cache, was verified or was rejected
+  private Timer cachedTimer;
+  private Timer verifiedTimer;
+  private Timer rejectedTimer;
+
+  @PostConstruct
+  void init() {
+    MeterRegistry registry = meterRegistry != null ? meterRegistry : Metrics.globalRegistry;
+    cachedTimer = validationTimer(registry, "cached");
+    verifiedTimer = validationTimer(registry, "verified");
+    rejectedTimer = validationTimer(registry, "rejected");
+    key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    parser = Jwts.parserBuilder().setSigningKey(key).build();
+    verifiedTokens = Caffeine.newBuilder()
+        .maximumSize(verifiedCacheSize)
+        .expireAfter(new Expiry<String, Claims>() {
+          @Override
+          public long expireAfterCreate(String tokenHash, Claims claims, long currentTime) {
+            long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMs, 0));
+          }
+
+          @Override
+          public long expireAfterUpdate(String tokenHash, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+
+          @Override
+          public long expireAfterRead(String tokenHash, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+        })
+        .build();
+  }
+
   public String generateJwtToken(Authentication authentication) {
 
     UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
 
+    List<String> roles = userPrincipal.getAuthorities().stream()
+        .map(GrantedAuthority::getAuthority)
+        .toList();
+
+    // The identity claims let AuthTokenFilter build the principal without a database lookup
+    // when app.jwt.claims-auth.enabled is set.
     return Jwts.builder()
         .setSubject((userPrincipal.getUsername()))
+        .claim(CLAIM_USER_ID, userPrincipal.getId())
+        .claim(CLAIM_EMAIL, userPrincipal.getEmail())
+        .claim(CLAIM_ROLES, roles)
+        .claim(CLAIM_VERSION, userPrincipal.getVersion())
         .setIssuedAt(new Date())
         .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-        .signWith(key(), SignatureAlgorithm.HS256)
+        .signWith(key, SignatureAlgorithm.HS256)
         .compact();
   }
-  
-  private Key key() {
-    return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+
+  /**
+   * Verifies the token and returns its claims in a single pass, or {@code null} if the token is
+   * malformed, badly signed or expired.
+   */
+  public Claims parseValidatedClaims(String token) {
+    long start = System.nanoTime();
+    String tokenHash = hash(token);
+    Claims cached = verifiedTokens.getIfPresent(tokenHash);
+    if (cached != null) {
+      cachedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      return cached;
+    }
+
+    Claims claims = verify(token);
+    if (claims != null && claims.getExpiration() != null) {
+      verifiedTokens.put(tokenHash, claims);
+    }
+    (claims != null ? verifiedTimer : rejectedTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    return claims;
+  }
+
+  // The uncached signature check, kept separate so the JMH benchmarks can measure it.
+  Claims verify(String token) {
+    try {
+      return parser.parseClaimsJws(token).getBody();
+    } catch (JwtException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Rebuilds the principal from the identity claims of a verified token, or returns {@code null}
+   * if the token predates those claims. The result carries no password.
+   */
+  public UserDetailsImpl getUserDetailsFromClaims(Claims claims) {
+    Long id = claims.get(CLAIM_USER_ID, Long.class);
+    Long version = claims.get(CLAIM_VERSION, Long.class);
+    List<?> roles = claims.get(CLAIM_ROLES, List.class);
+    if (id == null || version == null || roles == null) {
+      return null;
+    }
+
+    List<GrantedAuthority> authorities = roles.stream()
+        .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role.toString()))
+        .toList();
+    return new UserDetailsImpl(id, claims.getSubject(), claims.get(CLAIM_EMAIL, String.class), null,
+        authorities, version);
   }
 
   public String getUserNameFromJwtToken(String token) {
-    return Jwts.parserBuilder().setSigningKey(key()).build()
-               .parseClaimsJws(token).getBody().getSubject();
+    Claims claims = parseValidatedClaims(token);
+    if (claims == null) {
+      throw new MalformedJwtException("Invalid JWT token");
+    }
+    return claims.getSubject();
   }
 
   public boolean validateJwtToken(String authToken) {
+    return parseValidatedClaims(authToken) != null;
+  }
+
+  private static Timer validationTimer(MeterRegistry registry, String result) {
+    return Timer.builder("security.jwt.validation")
+        .description("Time to validate a JWT and return its claims")
+        .tag("result", result)
+        .register(registry);
+  }
+
+  private static String hash(String token) {
     try {
-      Jwts.parserBuilder().setSigningKey(key()).build().parse(authToken);
-      return true;
-    } catch (JwtException e) { // Catching JwtException for broader error handling
-      // Removed specific logger messages for each exception type
-      // If detailed logging is needed, it can be added back here.
-      return false;
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().encodeToString(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
     }
   }
 }
@@ -0,0 +1,54 @@
+package com.example.security.jwt;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.config.ReplicaRoutingDataSource;
+import com.example.event.UserChangedEvent;
+import com.example.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+/**
+ * Short-lived cache of each user's current {@code version}, used by claims-based authentication
+ * to refuse tokens issued before a change to the user or their roles.
+ * <p>
+ * Each user costs at most one query per {@code app.jwt.claims-auth.version-ttl}, which is
+ * therefore also the longest a revoked role can stay usable.
+ */
+@Component
+public class TokenVersionCache {
+
+  // Stored for users that no longer exist; Caffeine does not cache null values.
+  private static final long MISSING = -1L;
+
+  private final LoadingCache<Long, Long> versions;
+
+  public TokenVersionCache(UserRepository userRepository,
+      @Value("${app.jwt.claims-auth.version-ttl:30s}") Duration ttl,
+      @Value("${app.jwt.claims-auth.version-cache-size:10000}") long maxSize) {
+    this.versions = Caffeine.newBuilder()
+        .expireAfterWrite(ttl)
+        .maximumSize(maxSize)
+        // From the primary, so that a lagging replica cannot hand back a version just revoked.
+        .build(userId -> ReplicaRoutingDataSource.onPrimary(() -> userRepository.findVersionById(userId))
+            .orElse(MISSING));
+  }
+
+  /**
+   * Returns whether {@code tokenVersion} is still the user's current version.
+   */
+  public boolean isCurrent(Long userId, Long tokenVersion) {
+    Long current = versions.get(userId);
+    return current != MISSING && current.equals(tokenVersion);
+  }
+
+  // Changes made through this instance take effect immediately rather than after the TTL.
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserChanged(UserChangedEvent event) {
+    versions.invalidate(event.getUserId());
+  }
+}
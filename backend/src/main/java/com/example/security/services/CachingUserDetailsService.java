@@ -0,0 +1,57 @@
+package com.example.security.services;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.config.ReplicaRoutingDataSource;
+import com.example.event.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Size- and time-bounded cache in front of {@link UserDetailsServiceImpl}, used by
+ * {@link com.example.security.jwt.AuthTokenFilter} so that repeated requests from the same user
+ * do not reload the user and their roles each time.
+ * <p>
+ * Entries are evicted as soon as a {@link UserChangedEvent} commits. Password checks at sign-in
+ * keep going to {@link UserDetailsServiceImpl} directly. Hit, miss and eviction counts are
+ * published as the {@code cache.*} metrics tagged {@code cache=userDetails}.
+ */
+@Service
+public class CachingUserDetailsService implements UserDetailsService {
+
+  private final UserDetailsServiceImpl delegate;
+  private final Cache<String, UserDetails> users;
+
+  public CachingUserDetailsService(UserDetailsServiceImpl delegate, MeterRegistry meterRegistry,
+      @Value("${app.security.user-cache.ttl:5m}") Duration ttl,
+      @Value("${app.security.user-cache.max-size:10000}") long maxSize) {
+    this.delegate = delegate;
+    this.users = Caffeine.newBuilder()
+        .expireAfterWrite(ttl)
+        .maximumSize(maxSize)
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, users, "userDetails");
+  }
+
+  @Override
+  public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+    // Unknown users throw from the loader and are therefore never cached. Loaded from the primary,
+    // so that a lagging replica cannot bring back what a change just evicted.
+    return users.get(username, key -> ReplicaRoutingDataSource.onPrimary(() -> delegate.loadUserByUsername(key)));
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserChanged(UserChangedEvent event) {
+    users.invalidate(event.getUsername());
+  }
+}
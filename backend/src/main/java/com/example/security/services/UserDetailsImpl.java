@@ -26,13 +26,21 @@ public class UserDetailsImpl implements UserDetails {
 
   private Collection<? extends GrantedAuthority> authorities;
 
+  private Long version;
+
   public UserDetailsImpl(Long id, String username, String email, String password,
       Collection<? extends GrantedAuthority> authorities) {
+    this(id, username, email, password, authorities, null);
+  }
+
+  public UserDetailsImpl(Long id, String username, String email, String password,
+      Collection<? extends GrantedAuthority> authorities, Long version) {
     this.id = id;
     this.username = username;
     this.email = email;
     this.password = password;
     this.authorities = authorities;
+    this.version = version;
   }
 
   public static UserDetailsImpl build(User user) {
@@ -45,7 +53,8 @@ public class UserDetailsImpl implements UserDetails {
         user.getUsername(), 
         user.getEmail(),
         user.getPassword(), 
-        authorities);
+        authorities,
+        user.getVersion());
   }
 
   @Override
@@ -61,6 +70,10 @@ public class UserDetailsImpl implements UserDetails {
     return email;
   }
 
+  public Long getVersion() {
+    return version;
+  }
+
   @Override
   public String getPassword() {
     return password;
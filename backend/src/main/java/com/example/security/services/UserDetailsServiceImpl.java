@@ -1,6 +1,8 @@
 package com.example.security.services;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.lang.Nullable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -9,19 +11,45 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.example.entity.User;
 import com.example.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
-  @Autowired
-  UserRepository userRepository;
+  private final UserRepository userRepository;
+
+  // Timed as security.user.lookup, one timer per result.
+  private final Timer foundTimer;
+  private final Timer notFoundTimer;
+
+  public UserDetailsServiceImpl(UserRepository userRepository, @Nullable MeterRegistry meterRegistry) {
+    this.userRepository = userRepository;
+    MeterRegistry registry = meterRegistry != null ? meterRegistry : Metrics.globalRegistry;
+    this.foundTimer = lookupTimer(registry, "found");
+    this.notFoundTimer = lookupTimer(registry, "not_found");
+  }
 
   @Override
-  @Transactional
+  @Transactional(readOnly = true)
   public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-    User user = userRepository.findByUsername(username)
-        .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + username));
+    long start = System.nanoTime();
+    User user = userRepository.findByUsername(username).orElse(null);
+    if (user == null) {
+      notFoundTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      throw new UsernameNotFoundException("User Not Found with username: " + username);
+    }
+
+    UserDetails userDetails = UserDetailsImpl.build(user);
+    foundTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    return userDetails;
+  }
 
-    return UserDetailsImpl.build(user);
+  private static Timer lookupTimer(MeterRegistry registry, String result) {
+    return Timer.builder("security.user.lookup")
+        .description("Time to load a user and their roles from the database")
+        .tag("result", result)
+        .register(registry);
   }
 
 }
@@ -0,0 +1,302 @@
+package com.example.service;
+
+import com.example.entity.converter.StudentClassConverter;
+import com.example.entity.enums.Grade;
+import com.example.entity.enums.StudentClass;
+import com.example.event.StudentChangedEvent;
+import com.example.event.StudentsChangedEvent;
+import com.example.exception.BadRequestException;
+import com.example.exception.ResourceNotFoundException;
+import com.example.payload.response.ClassRanking;
+import com.example.payload.response.RankedStudent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Students of each class ranked by GPA, kept in one {@link RankingTree} per class so that the
+ * top of a class or the rank of one student never needs the whole roster.
+ * <p>
+ * Like {@link StudentNameIndex}, the rankings are built from the database once all beans exist
+ * and then follow committed {@link StudentChangedEvent}s and {@link StudentsChangedEvent}s,
+ * re-reading the changed students. Each change moves one student in O(log n). Students without a
+ * class or without any grade are not ranked. Writes made outside this application instance are
+ * not seen until the next restart.
+ * <p>
+ * Ranked students and build time are published as {@code students.ranking.students} and
+ * {@code students.ranking.build}.
+ */
+@Component
+public class ClassRankings implements SmartInitializingSingleton {
+
+    public static final int MAX_TOP = 100;
+
+    private static final Logger logger = LoggerFactory.getLogger(ClassRankings.class);
+
+    private static final int LOCK_STRIPES = 64;
+
+    private static final StudentClassConverter STUDENT_CLASS_CONVERTER = new StudentClassConverter();
+
+    // Grade points as SQL, from the same mapping the Java side uses.
+    private static final String POINTS_SQL = Arrays.stream(Grade.values())
+            .map(grade -> "WHEN '" + grade.name() + "' THEN " + grade.getPoints())
+            .collect(Collectors.joining(" ", "CASE c.grade ", " END"));
+    private static final String SCORE_COLUMNS = "s.student_class, COUNT(c.grade) AS graded, "
+            + "SUM(" + POINTS_SQL + ") AS points";
+    private static final String LOAD_ALL_SQL = "SELECT s.id, " + SCORE_COLUMNS + " FROM students s "
+            + "JOIN student_courses c ON c.student_id = s.id "
+            + "WHERE s.student_class IS NOT NULL AND c.grade IS NOT NULL "
+            + "GROUP BY s.id, s.student_class";
+    // One statement, so that the class and the grades come from the same snapshot.
+    private static final String LOAD_SOME_SQL = "SELECT s.id, " + SCORE_COLUMNS + " FROM students s "
+            + "LEFT JOIN student_courses c ON c.student_id = s.id WHERE s.id IN %s GROUP BY s.id, s.student_class";
+    private static final String LOAD_NAMES_SQL =
+            "SELECT id, first_name, last_name, school_number FROM students WHERE id IN ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+    private final Timer buildTimer;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final StripedLocks studentLocks = new StripedLocks(LOCK_STRIPES);
+    private Rankings rankings = new Rankings();
+
+    private record Placement(StudentClass studentClass, RankingTree.Entry entry) {
+    }
+
+    private record Score(StudentClass studentClass, int points, int graded) {
+    }
+
+    private static final class Rankings {
+        private final Map<StudentClass, RankingTree> trees = new EnumMap<>(StudentClass.class);
+        private final Map<Integer, Placement> placements = new HashMap<>();
+
+        Rankings() {
+            for (StudentClass studentClass : StudentClass.values()) {
+                trees.put(studentClass, new RankingTree());
+            }
+        }
+
+        void put(int id, StudentClass studentClass, int points, int graded) {
+            remove(id);
+            if (studentClass == null || graded == 0) {
+                return;
+            }
+            RankingTree.Entry entry = new RankingTree.Entry(id, points, graded);
+            trees.get(studentClass).insert(entry);
+            placements.put(id, new Placement(studentClass, entry));
+        }
+
+        void remove(int id) {
+            Placement previous = placements.remove(id);
+            if (previous != null) {
+                trees.get(previous.studentClass()).remove(previous.entry());
+            }
+        }
+    }
+
+    public ClassRankings(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                         @Value("${app.students.index.fetch-size}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+        this.buildTimer = Timer.builder("students.ranking.build").register(meterRegistry);
+        Gauge.builder("students.ranking.students", this, self -> self.rankedCount()).register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Replaces the rankings with ones freshly built from the database. The GPA inputs are
+     * aggregated by the database and streamed through a forward-only cursor like the export.
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        Rankings fresh = new Rankings();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(LOAD_ALL_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, rs -> {
+            StudentClass studentClass = STUDENT_CLASS_CONVERTER.convertToEntityAttribute(rs.getString("student_class"));
+            fresh.put(rs.getInt("id"), studentClass, rs.getInt("points"), rs.getInt("graded"));
+        });
+        lock.writeLock().lock();
+        try {
+            rankings = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        buildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        logger.info("Class rankings built in {} ms: {} students ranked",
+                TimeUnit.NANOSECONDS.toMillis(elapsed), fresh.placements.size());
+    }
+
+    /**
+     * The best {@code top} students of the class, best first.
+     */
+    public ClassRanking top(String studentClass, int top) {
+        StudentClass parsed = parseStudentClass(studentClass);
+        if (top < 1 || top > MAX_TOP) {
+            throw new BadRequestException("top must be between 1 and " + MAX_TOP);
+        }
+        List<RankingTree.Entry> entries;
+        int ranked;
+        lock.readLock().lock();
+        try {
+            RankingTree tree = rankings.trees.get(parsed);
+            entries = tree.top(top);
+            ranked = tree.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<Integer, String[]> names = loadNames(entries);
+        List<RankedStudent> students = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            RankingTree.Entry entry = entries.get(i);
+            String[] name = names.get(entry.id());
+            // Deleted since the ranking was read; its removal is on its way.
+            if (name != null) {
+                students.add(rankedStudent(i + 1, entry, name));
+            }
+        }
+        return new ClassRanking(parsed.getValue(), ranked, students);
+    }
+
+    /**
+     * The rank of one student within the class.
+     *
+     * @throws ResourceNotFoundException if the student is not ranked in that class
+     */
+    public RankedStudent rankOf(String studentClass, int id) {
+        StudentClass parsed = parseStudentClass(studentClass);
+        RankingTree.Entry entry;
+        int rank;
+        lock.readLock().lock();
+        try {
+            Placement placement = rankings.placements.get(id);
+            if (placement == null || placement.studentClass() != parsed) {
+                throw new ResourceNotFoundException(
+                        "Student " + id + " is not ranked in class " + parsed.getValue());
+            }
+            entry = placement.entry();
+            rank = rankings.trees.get(parsed).rank(entry);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        String[] name = loadNames(List.of(entry)).get(id);
+        if (name == null) {
+            throw new ResourceNotFoundException("Student not found with id: " + id);
+        }
+        return rankedStudent(rank, entry, name);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        int id = event.getStudentId();
+        studentLocks.run(id, () -> apply(event.getType(), List.of(id)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentsChanged(StudentsChangedEvent event) {
+        studentLocks.run(event.getStudentIds(), () -> apply(event.getType(), event.getStudentIds()));
+    }
+
+    // Re-reads the committed rows under the students' locks, like StudentNameIndex. The rankings lock is only
+    // taken to apply them.
+    private void apply(StudentChangedEvent.Type type, List<Integer> ids) {
+        if (type == StudentChangedEvent.Type.DELETED) {
+            update(rankings -> ids.forEach(rankings::remove));
+            return;
+        }
+        Map<Integer, Score> scores = new HashMap<>();
+        for (List<Integer> chunk : InLists.chunks(ids)) {
+            jdbcTemplate.query(InLists.format(LOAD_SOME_SQL, chunk), rs -> {
+                scores.put(rs.getInt("id"), new Score(
+                        STUDENT_CLASS_CONVERTER.convertToEntityAttribute(rs.getString("student_class")),
+                        rs.getInt("points"), rs.getInt("graded")));
+            }, chunk.toArray());
+        }
+        update(rankings -> {
+            for (Integer id : ids) {
+                Score score = scores.get(id);
+                if (score == null) {
+                    rankings.remove(id);
+                } else {
+                    rankings.put(id, score.studentClass(), score.points(), score.graded());
+                }
+            }
+        });
+    }
+
+    private void update(Consumer<Rankings> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(rankings);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int rankedCount() {
+        lock.readLock().lock();
+        try {
+            return rankings.placements.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Integer, String[]> loadNames(List<RankingTree.Entry> entries) {
+        if (entries.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        String placeholders = entries.stream().map(entry -> "?").collect(Collectors.joining(",", "(", ")"));
+        Map<Integer, String[]> names = new HashMap<>();
+        jdbcTemplate.query(LOAD_NAMES_SQL + placeholders, rs -> {
+            names.put(rs.getInt("id"), new String[]{
+                    rs.getString("first_name"), rs.getString("last_name"), rs.getString("school_number")});
+        }, entries.stream().map(RankingTree.Entry::id).toArray());
+        return names;
+    }
+
+    private static RankedStudent rankedStudent(int rank, RankingTree.Entry entry, String[] name) {
+        return new RankedStudent(rank, entry.id(), name[0], name[1], name[2], entry.gpa(), entry.graded());
+    }
+
+    private static StudentClass parseStudentClass(String value) {
+        StudentClass studentClass = STUDENT_CLASS_CONVERTER.convertToEntityAttribute(value);
+        if (studentClass == null) {
+            throw new BadRequestException("Unknown student class: " + value);
+        }
+        return studentClass;
+    }
+}
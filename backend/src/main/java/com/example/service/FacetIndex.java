@@ -0,0 +1,205 @@
+package com.example.service;
+
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.entity.enums.StudentClass;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One {@link IdBitmap} of student ids per class, per course and per course and grade, for
+ * counting students by any combination of those without a database query.
+ * <p>
+ * The dimensions are small fixed enums, so there are only 8 + 10 + 5 + 50 bitmaps and a facet
+ * count is a few dozen bitmap intersections. Nothing per student is kept besides the bits: to
+ * replace a student the id is cleared from every bitmap.
+ * <p>
+ * Safe for concurrent use: counts share a read lock, updates take the write lock.
+ */
+final class FacetIndex {
+
+    private static final Course[] COURSES = Course.values();
+    private static final Grade[] GRADES = Grade.values();
+
+    private final IdBitmap all = new IdBitmap();
+    private final Map<StudentClass, IdBitmap> byClass = new EnumMap<>(StudentClass.class);
+    private final Map<Course, IdBitmap> byCourse = new EnumMap<>(Course.class);
+    // Students with the grade in any course, so that a grade filter alone needs no union.
+    private final Map<Grade, IdBitmap> byGrade = new EnumMap<>(Grade.class);
+    // Indexed by Course and Grade ordinal.
+    private final IdBitmap[][] byCourseAndGrade = new IdBitmap[COURSES.length][GRADES.length];
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    record Counts(int total, Map<StudentClass, Integer> byClass, Map<Course, Map<Grade, Integer>> byCourseAndGrade) {
+    }
+
+    FacetIndex() {
+        for (StudentClass studentClass : StudentClass.values()) {
+            byClass.put(studentClass, new IdBitmap());
+        }
+        for (Grade grade : GRADES) {
+            byGrade.put(grade, new IdBitmap());
+        }
+        for (Course course : COURSES) {
+            byCourse.put(course, new IdBitmap());
+            for (Grade grade : GRADES) {
+                byCourseAndGrade[course.ordinal()][grade.ordinal()] = new IdBitmap();
+            }
+        }
+    }
+
+    /**
+     * Indexes the student, replacing whatever was indexed for the same id before. A
+     * {@code null} class only counts towards the total.
+     */
+    void put(int id, StudentClass studentClass, Map<Course, Grade> grades) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            all.add(id);
+            if (studentClass != null) {
+                byClass.get(studentClass).add(id);
+            }
+            grades.forEach((course, grade) -> addGradeLocked(id, course, grade));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds one grade to a student already {@link #put}, for loading grades separately from
+     * the students.
+     */
+    void addGrade(int id, Course course, Grade grade) {
+        lock.writeLock().lock();
+        try {
+            addGradeLocked(id, course, grade);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addGradeLocked(int id, Course course, Grade grade) {
+        if (course == null) {
+            return;
+        }
+        byCourse.get(course).add(id);
+        if (grade != null) {
+            byGrade.get(grade).add(id);
+            byCourseAndGrade[course.ordinal()][grade.ordinal()].add(id);
+        }
+    }
+
+    private void removeLocked(int id) {
+        if (!all.contains(id)) {
+            return;
+        }
+        all.remove(id);
+        byClass.values().forEach(bitmap -> bitmap.remove(id));
+        byCourse.values().forEach(bitmap -> bitmap.remove(id));
+        byGrade.values().forEach(bitmap -> bitmap.remove(id));
+        for (IdBitmap[] grades : byCourseAndGrade) {
+            for (IdBitmap bitmap : grades) {
+                bitmap.remove(id);
+            }
+        }
+    }
+
+    /**
+     * Counts the students matching every given filter, broken down by class and by course and
+     * grade. Any filter may be {@code null}. {@code course} and {@code grade} apply to the same
+     * grade, as in {@link StudentSearchCriteria}.
+     */
+    Counts count(StudentClass studentClass, Course course, Grade grade) {
+        lock.readLock().lock();
+        try {
+            IdBitmap filtered = matching(studentClass, course, grade);
+            IdBitmap matching = filtered == all ? all : filtered.toBitsets();
+
+            Map<StudentClass, Integer> classCounts = new EnumMap<>(StudentClass.class);
+            byClass.forEach((value, bitmap) -> classCounts.put(value, countWithin(matching, bitmap)));
+            Map<Course, Map<Grade, Integer>> gradeCounts = new EnumMap<>(Course.class);
+            for (Course value : COURSES) {
+                IdBitmap[] courseGrades = byCourseAndGrade[value.ordinal()];
+                Map<Grade, Integer> counts = new EnumMap<>(Grade.class);
+                for (Grade gradeValue : GRADES) {
+                    counts.put(gradeValue, countWithin(matching, courseGrades[gradeValue.ordinal()]));
+                }
+                gradeCounts.put(value, counts);
+            }
+            return new Counts(matching.cardinality(), classCounts, gradeCounts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // An index bitmap itself when at most one filter is given, so it must not be modified.
+    private IdBitmap matching(StudentClass studentClass, Course course, Grade grade) {
+        IdBitmap gradeFilter = null;
+        if (course != null && grade != null) {
+            gradeFilter = byCourseAndGrade[course.ordinal()][grade.ordinal()];
+        } else if (course != null) {
+            gradeFilter = byCourse.get(course);
+        } else if (grade != null) {
+            gradeFilter = byGrade.get(grade);
+        }
+        if (studentClass == null) {
+            return gradeFilter != null ? gradeFilter : all;
+        }
+        IdBitmap classFilter = byClass.get(studentClass);
+        return gradeFilter != null ? classFilter.and(gradeFilter) : classFilter;
+    }
+
+    private int countWithin(IdBitmap matching, IdBitmap facet) {
+        // Every indexed student is in all, so the intersection is the facet itself.
+        return matching == all ? facet.cardinality() : matching.andCardinality(facet);
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return all.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rough heap footprint of all bitmaps in bytes, assuming compressed object pointers.
+     */
+    long estimatedMemoryBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = all.estimatedMemoryBytes();
+            for (IdBitmap bitmap : byClass.values()) {
+                bytes += bitmap.estimatedMemoryBytes();
+            }
+            for (IdBitmap bitmap : byCourse.values()) {
+                bytes += bitmap.estimatedMemoryBytes();
+            }
+            for (IdBitmap bitmap : byGrade.values()) {
+                bytes += bitmap.estimatedMemoryBytes();
+            }
+            for (IdBitmap[] grades : byCourseAndGrade) {
+                for (IdBitmap bitmap : grades) {
+                    bytes += bitmap.estimatedMemoryBytes();
+                }
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
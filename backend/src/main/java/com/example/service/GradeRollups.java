@@ -0,0 +1,304 @@
+package com.example.service;
+
+import com.example.entity.converter.StudentClassConverter;
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.entity.enums.StudentClass;
+import com.example.event.StudentGradesChangedEvent;
+import com.example.payload.response.GradeDistribution;
+import com.example.payload.response.GradeRollupCheck;
+import com.example.payload.response.GradeStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Grade counts per class, course and grade, kept in memory so that grade statistics never
+ * aggregate {@code student_courses}.
+ * <p>
+ * The counters start from a recount of the database once all beans exist and are then adjusted
+ * by the difference each committed {@link StudentGradesChangedEvent} describes. Reading them
+ * costs the same however many students there are. {@link #verify} recounts the database again,
+ * in parallel slices of the id range, and compares. Writes made outside this application
+ * instance are not seen until the next restart or repair.
+ * <p>
+ * Recounts are timed as {@code stats.grades.recompute}.
+ */
+@Component
+public class GradeRollups implements SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(GradeRollups.class);
+
+    private static final StudentClassConverter STUDENT_CLASS_CONVERTER = new StudentClassConverter();
+    private static final StudentClass[] CLASSES = StudentClass.values();
+    private static final Course[] COURSES = Course.values();
+    private static final Grade[] GRADES = Grade.values();
+    // Row for students without a class.
+    private static final int NO_CLASS = CLASSES.length;
+
+    private static final String ID_RANGE_SQL = "SELECT MIN(id), MAX(id) FROM students";
+    private static final String COUNT_SLICE_SQL = "SELECT s.student_class, c.course, c.grade, COUNT(*) AS grades "
+            + "FROM student_courses c JOIN students s ON s.id = c.student_id "
+            + "WHERE c.student_id BETWEEN ? AND ? AND c.grade IS NOT NULL "
+            + "GROUP BY s.student_class, c.course, c.grade";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int sliceSize;
+    private final ExecutorService recomputePool;
+    private final Timer recomputeTimer;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Indexed by class ordinal (or NO_CLASS), course ordinal and grade ordinal.
+    private long[][][] counts = newCounts();
+    // Bumped by every applied change, to tell whether a recount overlapped with writes.
+    private long changeCount;
+
+    public GradeRollups(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                        @Value("${app.stats.grades.recompute-threads:4}") int recomputeThreads,
+                        @Value("${app.stats.grades.recompute-slice-size:50000}") int sliceSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sliceSize = sliceSize;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.recomputePool = Executors.newFixedThreadPool(recomputeThreads, runnable -> {
+            Thread thread = new Thread(runnable, "grade-rollups-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.recomputeTimer = Timer.builder("stats.grades.recompute").register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        long[][][] recounted = recompute();
+        lock.writeLock().lock();
+        try {
+            counts = recounted;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Grade rollups computed in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGradesChanged(StudentGradesChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            add(event.getPreviousClass(), event.getPreviousGrades(), -1);
+            add(event.getStudentClass(), event.getGrades(), 1);
+            changeCount++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(StudentClass studentClass, Map<Course, Grade> grades, int delta) {
+        long[][] row = counts[rowOf(studentClass)];
+        grades.forEach((course, grade) -> {
+            if (course != null && grade != null) {
+                row[course.ordinal()][grade.ordinal()] += delta;
+            }
+        });
+    }
+
+    /**
+     * Grade distributions and average grade points per class, per course and overall.
+     */
+    public GradeStats getStats() {
+        long[][][] snapshot;
+        lock.readLock().lock();
+        try {
+            snapshot = copy(counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<String, GradeDistribution> studentClasses = new LinkedHashMap<>();
+        for (StudentClass studentClass : CLASSES) {
+            long[] perGrade = new long[GRADES.length];
+            for (long[] courseCounts : snapshot[studentClass.ordinal()]) {
+                addTo(perGrade, courseCounts);
+            }
+            studentClasses.put(studentClass.getValue(), distribution(perGrade));
+        }
+        Map<Course, GradeDistribution> courses = new EnumMap<>(Course.class);
+        long[] overall = new long[GRADES.length];
+        for (Course course : COURSES) {
+            long[] perGrade = new long[GRADES.length];
+            for (long[][] classCounts : snapshot) {
+                addTo(perGrade, classCounts[course.ordinal()]);
+            }
+            courses.put(course, distribution(perGrade));
+            addTo(overall, perGrade);
+        }
+        return new GradeStats(studentClasses, courses, distribution(overall));
+    }
+
+    /**
+     * Recounts the database and compares the result with the rollups. With {@code repair}, a
+     * differing recount replaces the rollups, unless writes were applied while it ran: the
+     * recount may then have missed them, and the check should be repeated.
+     */
+    public GradeRollupCheck verify(boolean repair) {
+        long start = System.nanoTime();
+        long changesBefore = changeCount();
+        long[][][] recounted = recompute();
+
+        List<GradeRollupCheck.Mismatch> mismatches = new ArrayList<>();
+        boolean concurrentWrites;
+        boolean repaired = false;
+        lock.writeLock().lock();
+        try {
+            concurrentWrites = changeCount != changesBefore;
+            for (int row = 0; row < recounted.length; row++) {
+                for (Course course : COURSES) {
+                    for (Grade grade : GRADES) {
+                        long expected = recounted[row][course.ordinal()][grade.ordinal()];
+                        long actual = counts[row][course.ordinal()][grade.ordinal()];
+                        if (expected != actual) {
+                            String studentClass = row == NO_CLASS ? null : CLASSES[row].getValue();
+                            mismatches.add(new GradeRollupCheck.Mismatch(studentClass, course, grade,
+                                    expected, actual));
+                        }
+                    }
+                }
+            }
+            if (repair && !mismatches.isEmpty() && !concurrentWrites) {
+                counts = recounted;
+                repaired = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (!mismatches.isEmpty()) {
+            logger.warn("Grade rollups differ from the database in {} cells (concurrent writes: {}, repaired: {})",
+                    mismatches.size(), concurrentWrites, repaired);
+        }
+        return new GradeRollupCheck(mismatches.isEmpty(), concurrentWrites, repaired,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), mismatches);
+    }
+
+    private long changeCount() {
+        lock.readLock().lock();
+        try {
+            return changeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts grades straight from the database. The id range is cut into slices that are
+     * aggregated concurrently, each as a range scan of the student_courses primary key.
+     */
+    long[][][] recompute() {
+        return recomputeTimer.record(() -> {
+            long[] range = jdbcTemplate.queryForObject(ID_RANGE_SQL,
+                    (rs, rowNum) -> rs.getObject(1) == null ? null : new long[]{rs.getLong(1), rs.getLong(2)});
+            long[][][] total = newCounts();
+            if (range == null) {
+                return total;
+            }
+            List<CompletableFuture<long[][][]>> slices = new ArrayList<>();
+            for (long from = range[0]; from <= range[1]; from += sliceSize) {
+                long first = from;
+                long last = Math.min(range[1], from + sliceSize - 1);
+                slices.add(CompletableFuture.supplyAsync(() -> countSlice(first, last), recomputePool));
+            }
+            for (CompletableFuture<long[][][]> slice : slices) {
+                long[][][] sliceCounts = join(slice);
+                for (int row = 0; row < total.length; row++) {
+                    for (int course = 0; course < COURSES.length; course++) {
+                        addTo(total[row][course], sliceCounts[row][course]);
+                    }
+                }
+            }
+            return total;
+        });
+    }
+
+    private static long[][][] join(CompletableFuture<long[][][]> slice) {
+        try {
+            return slice.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private long[][][] countSlice(long first, long last) {
+        long[][][] sliceCounts = newCounts();
+        jdbcTemplate.query(COUNT_SLICE_SQL, rs -> {
+            StudentClass studentClass = STUDENT_CLASS_CONVERTER.convertToEntityAttribute(rs.getString("student_class"));
+            Course course = Course.valueOf(rs.getString("course"));
+            Grade grade = Grade.valueOf(rs.getString("grade"));
+            sliceCounts[rowOf(studentClass)][course.ordinal()][grade.ordinal()] += rs.getLong("grades");
+        }, first, last);
+        return sliceCounts;
+    }
+
+    @Override
+    public void destroy() {
+        recomputePool.shutdownNow();
+    }
+
+    private static GradeDistribution distribution(long[] perGrade) {
+        Map<Grade, Long> grades = new EnumMap<>(Grade.class);
+        long total = 0;
+        long points = 0;
+        for (Grade grade : GRADES) {
+            long count = perGrade[grade.ordinal()];
+            grades.put(grade, count);
+            total += count;
+            points += count * grade.getPoints();
+        }
+        return new GradeDistribution(total, grades, total == 0 ? null : (double) points / total);
+    }
+
+    private static int rowOf(StudentClass studentClass) {
+        return studentClass == null ? NO_CLASS : studentClass.ordinal();
+    }
+
+    private static long[][][] newCounts() {
+        return new long[CLASSES.length + 1][COURSES.length][GRADES.length];
+    }
+
+    private static long[][][] copy(long[][][] source) {
+        long[][][] copy = newCounts();
+        for (int row = 0; row < source.length; row++) {
+            for (int course = 0; course < COURSES.length; course++) {
+                System.arraycopy(source[row][course], 0, copy[row][course], 0, GRADES.length);
+            }
+        }
+        return copy;
+    }
+
+    private static void addTo(long[] target, long[] source) {
+        for (int i = 0; i < source.length; i++) {
+            target[i] += source[i];
+        }
+    }
+}
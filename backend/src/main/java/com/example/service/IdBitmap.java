@@ -0,0 +1,388 @@
+package com.example.service;
+
+import java.util.Arrays;
+
+/**
+ * A compressed set of non-negative ids, laid out like a Roaring bitmap.
+ * <p>
+ * Ids are split by their upper 16 bits into chunks of 65536. A chunk holding up to 4096 ids
+ * stores them as a sorted {@code char[]}; a fuller one switches to a 1024-word bitset, which is
+ * never larger. Dense id ranges, as generated keys are, cost about one bit per id and sparse
+ * ones two bytes. Intersections and their counts work chunk by chunk and skip chunks that only
+ * one side has.
+ * <p>
+ * Not thread-safe.
+ */
+final class IdBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITSET_WORDS = 1024;
+
+    private char[] keys;
+    private Chunk[] chunks;
+    private int chunkCount;
+
+    IdBitmap() {
+        this(new char[4], new Chunk[4], 0);
+    }
+
+    private IdBitmap(char[] keys, Chunk[] chunks, int chunkCount) {
+        this.keys = keys;
+        this.chunks = chunks;
+        this.chunkCount = chunkCount;
+    }
+
+    void add(int id) {
+        char key = highBits(id);
+        int index = chunkIndex(key);
+        if (index >= 0) {
+            chunks[index] = chunks[index].add(lowBits(id));
+            return;
+        }
+        index = -index - 1;
+        if (chunkCount == keys.length) {
+            keys = Arrays.copyOf(keys, chunkCount * 2);
+            chunks = Arrays.copyOf(chunks, chunkCount * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, chunkCount - index);
+        System.arraycopy(chunks, index, chunks, index + 1, chunkCount - index);
+        keys[index] = key;
+        chunks[index] = new ArrayChunk().add(lowBits(id));
+        chunkCount++;
+    }
+
+    void remove(int id) {
+        int index = chunkIndex(highBits(id));
+        if (index < 0) {
+            return;
+        }
+        Chunk chunk = chunks[index].remove(lowBits(id));
+        if (chunk.cardinality > 0) {
+            chunks[index] = chunk;
+            return;
+        }
+        System.arraycopy(keys, index + 1, keys, index, chunkCount - index - 1);
+        System.arraycopy(chunks, index + 1, chunks, index, chunkCount - index - 1);
+        chunks[--chunkCount] = null;
+    }
+
+    boolean contains(int id) {
+        int index = chunkIndex(highBits(id));
+        return index >= 0 && chunks[index].contains(lowBits(id));
+    }
+
+    int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < chunkCount; i++) {
+            cardinality += chunks[i].cardinality;
+        }
+        return cardinality;
+    }
+
+    /**
+     * Counts the ids in both bitmaps without building the intersection.
+     */
+    int andCardinality(IdBitmap other) {
+        int cardinality = 0;
+        int i = 0;
+        int j = 0;
+        while (i < chunkCount && j < other.chunkCount) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                cardinality += chunks[i++].andCardinality(other.chunks[j++]);
+            }
+        }
+        return cardinality;
+    }
+
+    IdBitmap and(IdBitmap other) {
+        IdBitmap result = new IdBitmap(new char[Math.max(1, Math.min(chunkCount, other.chunkCount))],
+                new Chunk[Math.max(1, Math.min(chunkCount, other.chunkCount))], 0);
+        int i = 0;
+        int j = 0;
+        while (i < chunkCount && j < other.chunkCount) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Chunk chunk = chunks[i].and(other.chunks[j]);
+                if (chunk.cardinality > 0) {
+                    result.keys[result.chunkCount] = keys[i];
+                    result.chunks[result.chunkCount++] = chunk;
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A copy with every chunk stored as a bitset, for counting its intersection with many other
+     * bitmaps: probing a bitset does not branch, while merging two sorted arrays mispredicts
+     * about every other comparison.
+     */
+    IdBitmap toBitsets() {
+        IdBitmap copy = new IdBitmap(Arrays.copyOf(keys, Math.max(1, chunkCount)),
+                new Chunk[Math.max(1, chunkCount)], chunkCount);
+        for (int i = 0; i < chunkCount; i++) {
+            copy.chunks[i] = chunks[i] instanceof ArrayChunk array
+                    ? array.toBitset()
+                    : ((BitsetChunk) chunks[i]).copy();
+        }
+        return copy;
+    }
+
+    /**
+     * Rough heap footprint in bytes, assuming compressed object pointers.
+     */
+    long estimatedMemoryBytes() {
+        long bytes = 16 + 16 + 2L * keys.length + 16 + 4L * chunks.length;
+        for (int i = 0; i < chunkCount; i++) {
+            bytes += chunks[i].memoryBytes();
+        }
+        return bytes;
+    }
+
+    private int chunkIndex(char key) {
+        return Arrays.binarySearch(keys, 0, chunkCount, key);
+    }
+
+    private static char highBits(int id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Negative id: " + id);
+        }
+        return (char) (id >>> 16);
+    }
+
+    private static char lowBits(int id) {
+        return (char) id;
+    }
+
+    /**
+     * The ids sharing one value of the upper 16 bits. Mutators return the chunk to keep, which
+     * is a different representation once the cardinality crosses {@link #ARRAY_MAX}.
+     */
+    private abstract static sealed class Chunk permits ArrayChunk, BitsetChunk {
+        int cardinality;
+
+        abstract boolean contains(char value);
+
+        abstract Chunk add(char value);
+
+        abstract Chunk remove(char value);
+
+        abstract int andCardinality(Chunk other);
+
+        abstract Chunk and(Chunk other);
+
+        abstract long memoryBytes();
+    }
+
+    private static final class ArrayChunk extends Chunk {
+        private char[] values;
+
+        ArrayChunk() {
+            this(new char[4], 0);
+        }
+
+        ArrayChunk(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        Chunk add(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_MAX) {
+                return toBitset().add(value);
+            }
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, cardinality * 2)));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Chunk remove(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        int andCardinality(Chunk other) {
+            if (other instanceof BitsetChunk bitset) {
+                int count = 0;
+                for (int i = 0; i < cardinality; i++) {
+                    count += (int) ((bitset.words[values[i] >>> 6] >>> values[i]) & 1);
+                }
+                return count;
+            }
+            ArrayChunk array = (ArrayChunk) other;
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality && j < array.cardinality) {
+                if (values[i] < array.values[j]) {
+                    i++;
+                } else if (values[i] > array.values[j]) {
+                    j++;
+                } else {
+                    count++;
+                    i++;
+                    j++;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        Chunk and(Chunk other) {
+            char[] result = new char[Math.min(cardinality, other.cardinality)];
+            int count = 0;
+            if (other instanceof BitsetChunk bitset) {
+                for (int i = 0; i < cardinality; i++) {
+                    if (bitset.contains(values[i])) {
+                        result[count++] = values[i];
+                    }
+                }
+                return new ArrayChunk(result, count);
+            }
+            ArrayChunk array = (ArrayChunk) other;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality && j < array.cardinality) {
+                if (values[i] < array.values[j]) {
+                    i++;
+                } else if (values[i] > array.values[j]) {
+                    j++;
+                } else {
+                    result[count++] = values[i];
+                    i++;
+                    j++;
+                }
+            }
+            return new ArrayChunk(result, count);
+        }
+
+        @Override
+        long memoryBytes() {
+            return 24 + 16 + 2L * values.length;
+        }
+
+        private BitsetChunk toBitset() {
+            BitsetChunk bitset = new BitsetChunk();
+            for (int i = 0; i < cardinality; i++) {
+                bitset.words[values[i] >>> 6] |= 1L << values[i];
+            }
+            bitset.cardinality = cardinality;
+            return bitset;
+        }
+    }
+
+    private static final class BitsetChunk extends Chunk {
+        private final long[] words = new long[BITSET_WORDS];
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        Chunk add(char value) {
+            long before = words[value >>> 6];
+            long after = before | (1L << value);
+            if (after != before) {
+                words[value >>> 6] = after;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Chunk remove(char value) {
+            long before = words[value >>> 6];
+            long after = before & ~(1L << value);
+            if (after == before) {
+                return this;
+            }
+            words[value >>> 6] = after;
+            cardinality--;
+            return cardinality <= ARRAY_MAX ? toArray() : this;
+        }
+
+        @Override
+        int andCardinality(Chunk other) {
+            if (other instanceof ArrayChunk) {
+                return other.andCardinality(this);
+            }
+            long[] otherWords = ((BitsetChunk) other).words;
+            int count = 0;
+            for (int i = 0; i < BITSET_WORDS; i++) {
+                count += Long.bitCount(words[i] & otherWords[i]);
+            }
+            return count;
+        }
+
+        @Override
+        Chunk and(Chunk other) {
+            if (other instanceof ArrayChunk) {
+                return other.and(this);
+            }
+            long[] otherWords = ((BitsetChunk) other).words;
+            BitsetChunk result = new BitsetChunk();
+            int count = 0;
+            for (int i = 0; i < BITSET_WORDS; i++) {
+                result.words[i] = words[i] & otherWords[i];
+                count += Long.bitCount(result.words[i]);
+            }
+            result.cardinality = count;
+            return count <= ARRAY_MAX ? result.toArray() : result;
+        }
+
+        @Override
+        long memoryBytes() {
+            return 24 + 16 + 8L * BITSET_WORDS;
+        }
+
+        private BitsetChunk copy() {
+            BitsetChunk copy = new BitsetChunk();
+            System.arraycopy(words, 0, copy.words, 0, BITSET_WORDS);
+            copy.cardinality = cardinality;
+            return copy;
+        }
+
+        private ArrayChunk toArray() {
+            char[] values = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < BITSET_WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    values[count++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayChunk(values, count);
+        }
+    }
+}
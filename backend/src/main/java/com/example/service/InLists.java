@@ -0,0 +1,34 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Splits id lists for {@code IN (...)} queries and fills in their placeholders.
+ */
+final class InLists {
+
+    // Keeps IN lists well below any driver or database parameter limit.
+    static final int SIZE = 1000;
+
+    private InLists() {
+    }
+
+    static List<List<Integer>> chunks(List<Integer> ids) {
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += SIZE) {
+            chunks.add(ids.subList(from, Math.min(ids.size(), from + SIZE)));
+        }
+        return chunks;
+    }
+
+    /**
+     * {@code sql} with its {@code %s} replaced by a parenthesised placeholder for each id of {@code chunk}.
+     */
+    static String format(String sql, List<Integer> chunk) {
+        return String.format(sql, Collections.nCopies(chunk.size(), "?").stream()
+                .collect(Collectors.joining(",", "(", ")")));
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Students of one class in ranking order, as a treap whose nodes also count their subtree.
+ * Inserting, removing and finding the rank of a student take O(log n) expected time, and the
+ * top {@code k} take O(log n + k).
+ * <p>
+ * Students are ordered by GPA, highest first, then by the number of graded courses, most first,
+ * then by id. The GPA is compared as the exact fraction {@code points / graded}, so students
+ * with the same grades always tie and the order is the same on every instance.
+ * <p>
+ * Not thread-safe.
+ */
+final class RankingTree {
+
+    record Entry(int id, int points, int graded) {
+
+        double gpa() {
+            return (double) points / graded;
+        }
+    }
+
+    private static final class Node {
+        private final Entry entry;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private Node left;
+        private Node right;
+        private int size = 1;
+
+        Node(Entry entry) {
+            this.entry = entry;
+        }
+    }
+
+    private Node root;
+
+    static int compare(Entry a, Entry b) {
+        // a ranks first when its GPA is higher: a.points / a.graded > b.points / b.graded.
+        int byGpa = Long.compare((long) b.points() * a.graded(), (long) a.points() * b.graded());
+        if (byGpa != 0) {
+            return byGpa;
+        }
+        int byGraded = Integer.compare(b.graded(), a.graded());
+        return byGraded != 0 ? byGraded : Integer.compare(a.id(), b.id());
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    void insert(Entry entry) {
+        Node[] parts = split(root, entry);
+        root = merge(merge(parts[0], new Node(entry)), parts[1]);
+    }
+
+    /**
+     * Removes the entry, returning whether it was present.
+     */
+    boolean remove(Entry entry) {
+        Node[] parts = split(root, entry);
+        Node rest = parts[1];
+        boolean found = false;
+        if (rest != null && compare(leftmost(rest).entry, entry) == 0) {
+            rest = removeLeftmost(rest);
+            found = true;
+        }
+        root = merge(parts[0], rest);
+        return found;
+    }
+
+    /**
+     * The 1-based rank of the entry, or 0 if it is not in the tree.
+     */
+    int rank(Entry entry) {
+        int before = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(entry, node.entry);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                before += size(node.left) + 1;
+                node = node.right;
+            } else {
+                return before + size(node.left) + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * The first {@code limit} entries in ranking order.
+     */
+    List<Entry> top(int limit) {
+        List<Entry> result = new ArrayList<>(Math.min(limit, size()));
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        while (result.size() < limit && (node != null || !path.isEmpty())) {
+            while (node != null) {
+                path.push(node);
+                node = node.left;
+            }
+            node = path.pop();
+            result.add(node.entry);
+            node = node.right;
+        }
+        return result;
+    }
+
+    // Splits into the nodes ordered before entry and those equal to or after it.
+    private static Node[] split(Node node, Entry entry) {
+        if (node == null) {
+            return new Node[2];
+        }
+        if (compare(node.entry, entry) < 0) {
+            Node[] parts = split(node.right, entry);
+            node.right = parts[0];
+            update(node);
+            parts[0] = node;
+            return parts;
+        }
+        Node[] parts = split(node.left, entry);
+        node.left = parts[1];
+        update(node);
+        parts[1] = node;
+        return parts;
+    }
+
+    // Joins two treaps where every entry of the first is ordered before every entry of the second.
+    private static Node merge(Node first, Node second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        if (first.priority > second.priority) {
+            first.right = merge(first.right, second);
+            update(first);
+            return first;
+        }
+        second.left = merge(first, second.left);
+        update(second);
+        return second;
+    }
+
+    private static Node leftmost(Node node) {
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node;
+    }
+
+    private static Node removeLeftmost(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeLeftmost(node.left);
+        update(node);
+        return node;
+    }
+
+    private static void update(Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+}
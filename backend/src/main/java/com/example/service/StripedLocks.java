@@ -0,0 +1,61 @@
+package com.example.service;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed number of locks shared out by student id.
+ * <p>
+ * The in-process indexes re-read a changed student and then apply what they read. Two threads
+ * doing that for the same student must not interleave, or the older read can be applied last;
+ * holding the student's lock across both steps means whoever reads last applies last. Different
+ * students mostly map to different locks and proceed in parallel.
+ */
+final class StripedLocks {
+
+    private final ReentrantLock[] locks;
+
+    StripedLocks(int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("stripes must be positive");
+        }
+        locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    void run(int id, Runnable action) {
+        ReentrantLock lock = locks[stripe(id)];
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs {@code action} holding the locks of all {@code ids}, taken in stripe order so that two
+     * callers with overlapping ids cannot deadlock.
+     */
+    void run(Collection<Integer> ids, Runnable action) {
+        int[] stripes = ids.stream().mapToInt(this::stripe).distinct().sorted().toArray();
+        int locked = 0;
+        try {
+            for (int stripe : stripes) {
+                locks[stripe].lock();
+                locked++;
+            }
+            action.run();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                locks[stripes[i]].unlock();
+            }
+        }
+    }
+
+    int stripe(int id) {
+        return Math.floorMod(id, locks.length);
+    }
+}
@@ -0,0 +1,285 @@
+package com.example.service;
+
+import com.example.entity.Student;
+import com.example.entity.converter.StudentClassConverter;
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.entity.enums.StudentClass;
+import com.example.event.StudentChangedEvent;
+import com.example.event.StudentGradesChangedEvent;
+import com.example.event.StudentsChangedEvent;
+import com.example.exception.BadRequestException;
+import com.example.payload.response.BulkResult;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Set-based writes to many students at once: moving a class, deleting by filter and entering
+ * one course's grades for a class.
+ * <p>
+ * Each operation is one transaction of a few statements per {@value InLists#SIZE} students,
+ * instead of a load, save and collection rewrite per student. The affected students are locked
+ * first, in id order, and their class and grades read once, so that a
+ * {@link StudentGradesChangedEvent} can still be published for every student and the grade
+ * rollups stay exact. The change log, caches and indexes get one {@link StudentsChangedEvent}
+ * with every affected id, which the indexes catch up on with a query per {@value InLists#SIZE}
+ * students rather than one per student.
+ */
+@Service
+public class StudentBulkService {
+
+    private static final StudentClassConverter STUDENT_CLASS_CONVERTER = new StudentClassConverter();
+
+    private static final String LOCK_CLASS_SQL =
+            "SELECT id FROM students WHERE student_class = ? ORDER BY id FOR UPDATE";
+    private static final String LOCK_IN_CLASS_SQL = "SELECT id FROM students WHERE student_class = ? AND id IN %s "
+            + "ORDER BY id FOR UPDATE";
+    private static final String LOAD_SQL = "SELECT s.id, s.student_class, c.course, c.grade FROM students s "
+            + "LEFT JOIN student_courses c ON c.student_id = s.id WHERE s.id IN %s";
+    private static final String MOVE_SQL =
+            "UPDATE students SET student_class = ?, version = version + 1 WHERE id IN %s";
+    private static final String BUMP_VERSION_SQL = "UPDATE students SET version = version + 1 WHERE id IN %s";
+    private static final String DELETE_GRADES_SQL = "DELETE FROM student_courses WHERE student_id IN %s";
+    private static final String DELETE_STUDENTS_SQL = "DELETE FROM students WHERE id IN %s";
+    private static final String INSERT_GRADE_SQL =
+            "INSERT INTO student_courses (student_id, course, grade) VALUES (?, ?, ?)";
+    private static final String UPDATE_GRADE_SQL =
+            "UPDATE student_courses SET grade = ? WHERE student_id = ? AND course = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private record Snapshot(StudentClass studentClass, Map<Course, Grade> grades) {
+    }
+
+    public StudentBulkService(JdbcTemplate jdbcTemplate, EntityManager entityManager,
+                              ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Moves every student of {@code studentClass} one year up, e.g. 1A to 2A.
+     */
+    @Transactional
+    public BulkResult promoteClass(String studentClassValue) {
+        StudentClass studentClass = parseStudentClass(studentClassValue);
+        StudentClass next = studentClass.nextYear();
+        if (next == null) {
+            throw new BadRequestException(
+                    studentClass.getValue() + " is the final year; move or delete its students instead");
+        }
+        return moveClass(studentClass, next);
+    }
+
+    /**
+     * Moves every student of {@code from} to {@code to}. Grades are not touched.
+     */
+    @Transactional
+    public BulkResult moveClass(String from, String to) {
+        return moveClass(parseStudentClass(from), parseStudentClass(to));
+    }
+
+    private BulkResult moveClass(StudentClass from, StudentClass to) {
+        if (from == to) {
+            throw new BadRequestException("Students are already in class " + to.getValue());
+        }
+        List<Integer> ids = jdbcTemplate.queryForList(LOCK_CLASS_SQL, Integer.class, column(from));
+        Map<Integer, Snapshot> students = load(ids);
+
+        int updated = 0;
+        for (List<Integer> chunk : InLists.chunks(ids)) {
+            updated += jdbcTemplate.update(InLists.format(MOVE_SQL, chunk), arguments(column(to), chunk));
+        }
+
+        students.values().forEach(student -> publishGradesUpdated(student, to, student.grades()));
+        publishChanged(StudentChangedEvent.Type.UPDATED, ids);
+        return new BulkResult(ids.size(), updated, 0, 0, 0, 0);
+    }
+
+    /**
+     * Deletes every student matching {@code criteria}, with their grades. At least one filter is
+     * required, so that an empty query string cannot wipe the roster.
+     */
+    @Transactional
+    public BulkResult deleteStudents(StudentSearchCriteria criteria) {
+        if (criteria.isEmpty()) {
+            throw new BadRequestException("At least one filter is required to delete students");
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Integer> query = cb.createQuery(Integer.class);
+        Root<Student> root = query.from(Student.class);
+        query.select(root.get("id"))
+                .where(criteria.toSpecification().toPredicate(root, query, cb))
+                .orderBy(cb.asc(root.get("id")));
+        List<Integer> ids = entityManager.createQuery(query)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+        Map<Integer, Snapshot> students = load(ids);
+
+        int gradesDeleted = 0;
+        int studentsDeleted = 0;
+        for (List<Integer> chunk : InLists.chunks(ids)) {
+            gradesDeleted += jdbcTemplate.update(InLists.format(DELETE_GRADES_SQL, chunk), chunk.toArray());
+            studentsDeleted += jdbcTemplate.update(InLists.format(DELETE_STUDENTS_SQL, chunk), chunk.toArray());
+        }
+
+        students.values().forEach(student -> eventPublisher.publishEvent(
+                StudentGradesChangedEvent.deleted(student.studentClass(), student.grades())));
+        publishChanged(StudentChangedEvent.Type.DELETED, ids);
+        return new BulkResult(ids.size(), 0, studentsDeleted, 0, 0, gradesDeleted);
+    }
+
+    /**
+     * Sets the {@code course} grade of each given student of {@code studentClass}, adding the
+     * course where it is missing. Grades that already have the given value are left alone. If
+     * any id is not a student of the class nothing is written.
+     */
+    @Transactional
+    public BulkResult upsertGrades(String studentClassValue, String courseValue, Map<Integer, Grade> grades) {
+        StudentClass studentClass = parseStudentClass(studentClassValue);
+        Course course = parseCourse(courseValue);
+        if (grades.values().stream().anyMatch(Objects::isNull)) {
+            throw new BadRequestException("Every student needs a grade");
+        }
+        List<Integer> ids = new ArrayList<>(new TreeSet<>(grades.keySet()));
+        Set<Integer> inClass = new HashSet<>();
+        for (List<Integer> chunk : InLists.chunks(ids)) {
+            inClass.addAll(jdbcTemplate.queryForList(InLists.format(LOCK_IN_CLASS_SQL, chunk), Integer.class,
+                    arguments(column(studentClass), chunk)));
+        }
+        if (inClass.size() < ids.size()) {
+            List<Integer> missing = ids.stream().filter(id -> !inClass.contains(id)).toList();
+            throw new BadRequestException("Not students of class " + studentClass.getValue() + ": " + missing);
+        }
+        Map<Integer, Snapshot> students = load(ids);
+
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<Integer> changed = new ArrayList<>();
+        for (Integer id : ids) {
+            Map<Course, Grade> current = students.get(id).grades();
+            Grade grade = grades.get(id);
+            if (!current.containsKey(course)) {
+                inserts.add(new Object[]{id, course.name(), grade.name()});
+            } else if (current.get(course) != grade) {
+                updates.add(new Object[]{grade.name(), id, course.name()});
+            } else {
+                continue;
+            }
+            changed.add(id);
+        }
+
+        int gradesInserted = affected(jdbcTemplate.batchUpdate(INSERT_GRADE_SQL, inserts));
+        int gradesUpdated = affected(jdbcTemplate.batchUpdate(UPDATE_GRADE_SQL, updates));
+        int studentsUpdated = 0;
+        for (List<Integer> chunk : InLists.chunks(changed)) {
+            studentsUpdated += jdbcTemplate.update(InLists.format(BUMP_VERSION_SQL, chunk), chunk.toArray());
+        }
+
+        for (Integer id : changed) {
+            Snapshot student = students.get(id);
+            Map<Course, Grade> after = new EnumMap<>(Course.class);
+            after.putAll(student.grades());
+            after.put(course, grades.get(id));
+            publishGradesUpdated(student, studentClass, after);
+        }
+        publishChanged(StudentChangedEvent.Type.UPDATED, changed);
+        return new BulkResult(ids.size(), studentsUpdated, 0, gradesInserted, gradesUpdated, 0);
+    }
+
+    private void publishGradesUpdated(Snapshot before, StudentClass studentClass, Map<Course, Grade> grades) {
+        eventPublisher.publishEvent(StudentGradesChangedEvent.updated(before.studentClass(), before.grades(),
+                studentClass, grades));
+    }
+
+    private void publishChanged(StudentChangedEvent.Type type, List<Integer> ids) {
+        if (!ids.isEmpty()) {
+            eventPublisher.publishEvent(new StudentsChangedEvent(type, List.copyOf(ids)));
+        }
+    }
+
+    // The class and grades of each student, in id order. Callers hold the students' row locks.
+    private Map<Integer, Snapshot> load(List<Integer> ids) {
+        Map<Integer, Snapshot> students = new LinkedHashMap<>();
+        for (List<Integer> chunk : InLists.chunks(ids)) {
+            jdbcTemplate.query(InLists.format(LOAD_SQL, chunk), rs -> {
+                int id = rs.getInt("id");
+                Snapshot student = students.get(id);
+                if (student == null) {
+                    StudentClass studentClass =
+                            STUDENT_CLASS_CONVERTER.convertToEntityAttribute(rs.getString("student_class"));
+                    student = new Snapshot(studentClass, new EnumMap<>(Course.class));
+                    students.put(id, student);
+                }
+                String course = rs.getString("course");
+                if (course != null) {
+                    String grade = rs.getString("grade");
+                    student.grades().put(Course.valueOf(course), grade == null ? null : Grade.valueOf(grade));
+                }
+            }, chunk.toArray());
+        }
+        Map<Integer, Snapshot> ordered = new LinkedHashMap<>();
+        ids.forEach(id -> ordered.put(id, students.get(id)));
+        return ordered;
+    }
+
+    private static StudentClass parseStudentClass(String value) {
+        StudentClass studentClass = STUDENT_CLASS_CONVERTER.convertToEntityAttribute(value.trim());
+        if (studentClass == null) {
+            throw new BadRequestException("Unknown student class: " + value);
+        }
+        return studentClass;
+    }
+
+    private static Course parseCourse(String value) {
+        try {
+            return Course.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown course: " + value);
+        }
+    }
+
+    private static String column(StudentClass studentClass) {
+        return STUDENT_CLASS_CONVERTER.convertToDatabaseColumn(studentClass);
+    }
+
+    private static Object[] arguments(Object first, List<Integer> chunk) {
+        Object[] arguments = new Object[chunk.size() + 1];
+        arguments[0] = first;
+        for (int i = 0; i < chunk.size(); i++) {
+            arguments[i + 1] = chunk.get(i);
+        }
+        return arguments;
+    }
+
+    // Drivers that rewrite batches into multi-row statements report SUCCESS_NO_INFO per row.
+    private static int affected(int[] counts) {
+        int affected = 0;
+        for (int count : counts) {
+            affected += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+        }
+        return affected;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.service;
+
+import com.example.event.StudentChangedEvent;
+import com.example.event.StudentsChangedEvent;
+import com.example.payload.response.StudentView;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.function.IntFunction;
+
+/**
+ * Bounded read-through cache of single students, keyed by id.
+ * <p>
+ * Entries are dropped once a {@link StudentChangedEvent} for that id commits. A load that is
+ * still running when the invalidation arrives cannot leave a stale entry behind: Caffeine makes
+ * {@link #invalidate} wait for the in-flight load of the same key and then removes its result.
+ * This only holds while loads read in their own transaction, so {@link #get} must not be called
+ * from inside a longer-running transaction. The TTL bounds staleness from writes made outside
+ * this application instance.
+ * <p>
+ * Hit/miss counts, evictions and load time are published as {@code cache.*} metrics tagged
+ * {@code cache=students}.
+ */
+@Component
+public class StudentCache {
+
+    private final Cache<Integer, StudentView> students;
+
+    public StudentCache(MeterRegistry meterRegistry,
+                        @Value("${app.students.cache.ttl:10m}") Duration ttl,
+                        @Value("${app.students.cache.max-size:10000}") long maxSize) {
+        this.students = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, students, "students");
+    }
+
+    /**
+     * Returns the cached student, loading it with {@code loader} on a miss. Views are immutable,
+     * so every caller shares the cached instance. Exceptions from the loader (such as not found)
+     * propagate and nothing is cached.
+     */
+    public StudentView get(int id, IntFunction<StudentView> loader) {
+        return students.get(id, loader::apply);
+    }
+
+    public void invalidate(int id) {
+        students.invalidate(id);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        invalidate(event.getStudentId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentsChanged(StudentsChangedEvent event) {
+        students.invalidateAll(event.getStudentIds());
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.service;
+
+import com.example.config.ReplicaRoutingDataSource;
+import com.example.event.StudentChangedEvent;
+import com.example.event.StudentsChangedEvent;
+import com.example.exception.BadRequestException;
+import com.example.payload.response.StudentChanges;
+import com.example.payload.response.StudentView;
+import com.example.repository.StudentViewRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Persistent log of student inserts, updates and deletes, and the "changed since" feed built on it.
+ * <p>
+ * Entries are written in the same transaction as the change itself, batched into one JDBC batch
+ * just before commit, so a rolled-back write never appears in the feed. Because sequence numbers
+ * are assigned before commit, a transaction can commit after one with a higher number; the feed
+ * therefore only serves entries older than {@code app.students.changes.settle-time}, so that a
+ * client's cursor never skips past a change that was still in flight.
+ */
+@Service
+public class StudentChangeLog {
+
+    public static final int MAX_LIMIT = 1000;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO student_changes (student_id, change_type, recorded_at) VALUES (?, ?, ?)";
+    private static final String SELECT_SQL =
+            "SELECT seq, student_id, change_type FROM student_changes "
+                    + "WHERE seq > ? AND recorded_at <= ? ORDER BY seq LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StudentViewRepository studentViewRepository;
+    private final Duration settleTime;
+    private final Clock clock;
+
+    @Autowired
+    public StudentChangeLog(JdbcTemplate jdbcTemplate, StudentViewRepository studentViewRepository,
+                            @Value("${app.students.changes.settle-time:5s}") Duration settleTime) {
+        this(jdbcTemplate, studentViewRepository, settleTime, Clock.systemUTC());
+    }
+
+    StudentChangeLog(JdbcTemplate jdbcTemplate, StudentViewRepository studentViewRepository, Duration settleTime,
+                     Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.studentViewRepository = studentViewRepository;
+        this.settleTime = settleTime;
+        this.clock = clock;
+    }
+
+    // Plain listeners on purpose: they must run inside the writing transaction, not after it.
+    @EventListener
+    public void onStudentChanged(StudentChangedEvent event) {
+        record(List.of(event));
+    }
+
+    @EventListener
+    public void onStudentsChanged(StudentsChangedEvent event) {
+        record(event.getStudentIds().stream()
+                .map(id -> new StudentChangedEvent(event.getType(), id))
+                .toList());
+    }
+
+    private void record(List<StudentChangedEvent> events) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(events);
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.events.addAll(events);
+    }
+
+    /**
+     * Returns up to {@code limit} changes recorded after {@code since}, one per student with its
+     * latest type and current state, in the order of each student's most recent change.
+     * <p>
+     * Read from the primary even with read replicas: the settle time only holds back transactions
+     * still committing there, not replication lag, and a cursor moved past an entry a replica has
+     * not received yet would skip it for good.
+     */
+    @Transactional(readOnly = true)
+    public StudentChanges changesSince(long since, int limit) {
+        if (since < 0) {
+            throw new BadRequestException("since must not be negative");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return ReplicaRoutingDataSource.onPrimary(() -> readChanges(since, limit));
+    }
+
+    private StudentChanges readChanges(long since, int limit) {
+        // One row more than asked for tells us whether there is more without a second query.
+        Timestamp settled = Timestamp.from(clock.instant().minus(settleTime));
+        List<LogEntry> entries = jdbcTemplate.query(SELECT_SQL,
+                (rs, rowNum) -> new LogEntry(rs.getLong("seq"), rs.getInt("student_id"),
+                        StudentChangedEvent.Type.valueOf(rs.getString("change_type"))),
+                since, settled, limit + 1);
+        boolean hasMore = entries.size() > limit;
+        if (hasMore) {
+            entries = entries.subList(0, limit);
+        }
+
+        Map<Integer, StudentChangedEvent.Type> latest = new LinkedHashMap<>();
+        long cursor = since;
+        for (LogEntry entry : entries) {
+            // Re-insert so the map is ordered by each student's last change.
+            latest.remove(entry.studentId());
+            latest.put(entry.studentId(), entry.type());
+            cursor = entry.seq();
+        }
+        return toChanges(latest, cursor, hasMore);
+    }
+
+    private StudentChanges toChanges(Map<Integer, StudentChangedEvent.Type> latest, long cursor, boolean hasMore) {
+        List<Integer> liveIds = latest.entrySet().stream()
+                .filter(entry -> entry.getValue() != StudentChangedEvent.Type.DELETED)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        Map<Integer, StudentView> students = studentViewRepository.findAllById(liveIds).stream()
+                .collect(Collectors.toMap(StudentView::getId, Function.identity()));
+
+        List<StudentChanges.Change> changes = new ArrayList<>(latest.size());
+        latest.forEach((id, type) -> {
+            StudentView student = students.get(id);
+            // Gone since it was logged: its delete is further along the log, report it now.
+            StudentChangedEvent.Type reported = student == null ? StudentChangedEvent.Type.DELETED : type;
+            changes.add(new StudentChanges.Change(id, reported, student));
+        });
+        return new StudentChanges(changes, cursor, hasMore);
+    }
+
+    private void write(List<StudentChangedEvent> events) {
+        Timestamp now = Timestamp.from(clock.instant());
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (statement, event) -> {
+            statement.setInt(1, event.getStudentId());
+            statement.setString(2, event.getType().name());
+            statement.setTimestamp(3, now);
+        });
+    }
+
+    private record LogEntry(long seq, int studentId, StudentChangedEvent.Type type) {
+    }
+
+    /**
+     * Changes made by the current transaction, written together just before it commits.
+     */
+    private final class PendingChanges implements TransactionSynchronization {
+        private final List<StudentChangedEvent> events = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!events.isEmpty()) {
+                write(events);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(StudentChangeLog.this);
+        }
+    }
+}
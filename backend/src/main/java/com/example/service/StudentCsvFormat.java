@@ -0,0 +1,56 @@
+package com.example.service;
+
+import com.example.entity.Student;
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Flat CSV layout for students: the scalar fields followed by one grade column per {@link Course}.
+ * Values are quoted per RFC 4180 only when they need to be.
+ */
+public final class StudentCsvFormat {
+
+    private static final String[] FIXED_COLUMNS =
+            {"id", "firstName", "lastName", "schoolNumber", "birthDate", "studentClass"};
+
+    private StudentCsvFormat() {
+    }
+
+    public static String header() {
+        List<String> columns = new ArrayList<>(List.of(FIXED_COLUMNS));
+        for (Course course : Course.values()) {
+            columns.add(course.name());
+        }
+        return String.join(",", columns);
+    }
+
+    public static String format(Student student) {
+        StringBuilder line = new StringBuilder(128);
+        line.append(student.getId());
+        appendField(line, student.getFirstName());
+        appendField(line, student.getLastName());
+        appendField(line, student.getSchoolNumber());
+        appendField(line, student.getBirthDate());
+        appendField(line, student.getStudentClass() == null ? null : student.getStudentClass().getValue());
+        for (Course course : Course.values()) {
+            Grade grade = student.getCourses() == null ? null : student.getCourses().get(course);
+            appendField(line, grade == null ? null : grade.name());
+        }
+        return line.toString();
+    }
+
+    private static void appendField(StringBuilder line, String value) {
+        line.append(',');
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            line.append(value);
+            return;
+        }
+        line.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.service;
+
+import com.example.entity.Student;
+import com.example.entity.converter.StudentClassConverter;
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.entity.enums.StudentClass;
+import com.example.exception.BadRequestException;
+
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streaming reader for the {@link StudentCsvFormat} layout. Columns are matched by header name,
+ * so files may omit or reorder them; the {@code id} column is ignored because imports always
+ * create new students.
+ */
+class StudentCsvReader {
+
+    private final PushbackReader reader;
+    private final String[] columns;
+    private final StudentClassConverter studentClassConverter = new StudentClassConverter();
+    private long line = 1;
+    private long recordLine;
+
+    StudentCsvReader(Reader reader) throws IOException {
+        this.reader = new PushbackReader(reader);
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new BadRequestException("CSV input is empty");
+        }
+        this.columns = header.stream().map(String::trim).toArray(String[]::new);
+        if (columns[0].startsWith("\uFEFF")) {
+            // Spreadsheet exports often start with a UTF-8 byte order mark.
+            columns[0] = columns[0].substring(1);
+        }
+        for (String column : columns) {
+            if (!isKnownColumn(column)) {
+                throw new BadRequestException("Unknown CSV column: " + column);
+            }
+        }
+    }
+
+    /**
+     * Line on which the record most recently returned by {@link #readRecord()} started.
+     */
+    long getRecordLine() {
+        return recordLine;
+    }
+
+    /**
+     * Reads the next non-empty record, or returns {@code null} at end of input.
+     */
+    List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        boolean empty = true;
+        recordLine = line;
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (inQuotes) {
+                if (c == '"') {
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                        continue;
+                    }
+                    if (next != -1) {
+                        reader.unread(next);
+                    }
+                    inQuotes = false;
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+                continue;
+            }
+            if (c == '"') {
+                inQuotes = true;
+                empty = false;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                empty = false;
+            } else if (c == '\n') {
+                line++;
+                if (!empty || field.length() > 0) {
+                    fields.add(field.toString());
+                    return fields;
+                }
+                recordLine = line;
+            } else if (c != '\r') {
+                field.append((char) c);
+                empty = false;
+            }
+        }
+        if (empty && field.length() == 0) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Maps one record onto a new, unsaved {@link Student}.
+     *
+     * @throws IllegalArgumentException when a value cannot be converted
+     */
+    Student toStudent(List<String> fields) {
+        if (fields.size() != columns.length) {
+            throw new IllegalArgumentException("Expected " + columns.length + " fields but found " + fields.size());
+        }
+        Student student = new Student();
+        Map<Course, Grade> courses = new HashMap<>();
+        for (int i = 0; i < columns.length; i++) {
+            String value = fields.get(i).isEmpty() ? null : fields.get(i);
+            switch (columns[i]) {
+                case "id":
+                    break;
+                case "firstName":
+                    student.setFirstName(value);
+                    break;
+                case "lastName":
+                    student.setLastName(value);
+                    break;
+                case "schoolNumber":
+                    student.setSchoolNumber(value);
+                    break;
+                case "birthDate":
+                    student.setBirthDate(value);
+                    break;
+                case "studentClass":
+                    student.setStudentClass(parseStudentClass(value));
+                    break;
+                default:
+                    if (value != null) {
+                        courses.put(Course.valueOf(columns[i]), parseGrade(columns[i], value));
+                    }
+            }
+        }
+        student.setCourses(courses);
+        return student;
+    }
+
+    private StudentClass parseStudentClass(String value) {
+        if (value == null) {
+            return null;
+        }
+        StudentClass studentClass = studentClassConverter.convertToEntityAttribute(value);
+        if (studentClass == null) {
+            throw new IllegalArgumentException("Unknown student class: " + value);
+        }
+        return studentClass;
+    }
+
+    private static Grade parseGrade(String course, String value) {
+        try {
+            return Grade.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown grade for " + course + ": " + value);
+        }
+    }
+
+    private static boolean isKnownColumn(String column) {
+        switch (column) {
+            case "id":
+            case "firstName":
+            case "lastName":
+            case "schoolNumber":
+            case "birthDate":
+            case "studentClass":
+                return true;
+            default:
+                for (Course course : Course.values()) {
+                    if (course.name().equals(column)) {
+                        return true;
+                    }
+                }
+                return false;
+        }
+    }
+}
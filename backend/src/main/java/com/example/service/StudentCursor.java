@@ -0,0 +1,74 @@
+package com.example.service;
+
+import com.example.exception.BadRequestException;
+import com.example.payload.response.StudentView;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset pagination: the sort order plus the sort key and id
+ * of the last row handed out. Clients must treat the encoded form as an opaque string.
+ */
+public final class StudentCursor {
+
+    private static final String SEPARATOR = ":";
+
+    private final StudentSort sort;
+    private final int id;
+    private final String key;
+
+    private StudentCursor(StudentSort sort, int id, String key) {
+        this.sort = sort;
+        this.id = id;
+        this.key = key;
+    }
+
+    public static StudentCursor after(StudentSort sort, StudentView student) {
+        return new StudentCursor(sort, student.getId(), sort.keyOf(student));
+    }
+
+    public StudentSort getSort() {
+        return sort;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String encode() {
+        String raw = sort.name() + SEPARATOR + id + (key == null ? "" : SEPARATOR + key);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static StudentCursor decode(String token, StudentSort expectedSort) {
+        String[] parts;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            parts = raw.split(SEPARATOR, 3);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Malformed cursor");
+        }
+        if (parts.length < 2) {
+            throw new BadRequestException("Malformed cursor");
+        }
+
+        StudentSort sort;
+        int id;
+        try {
+            sort = StudentSort.valueOf(parts[0]);
+            id = Integer.parseInt(parts[1]);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Malformed cursor");
+        }
+        if (sort != expectedSort) {
+            throw new BadRequestException("Cursor was issued for sort '" + sort.getParameter()
+                    + "' but sort '" + expectedSort.getParameter() + "' was requested");
+        }
+        return new StudentCursor(sort, id, parts.length == 3 ? parts[2] : null);
+    }
+}
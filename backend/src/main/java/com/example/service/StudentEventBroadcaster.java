@@ -0,0 +1,238 @@
+package com.example.service;
+
+import com.example.event.StudentChangedEvent;
+import com.example.event.StudentsChangedEvent;
+import com.example.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Pushes committed student changes to Server-Sent Events subscribers.
+ * <p>
+ * The committing thread only offers each event to every subscriber's bounded buffer and never
+ * touches a socket. A small sender pool drains the buffers. A subscriber whose buffer is full is
+ * too slow to keep up and is disconnected rather than allowed to hold back the writer or other
+ * subscribers; browsers reconnect on their own and can catch up through the change feed.
+ * Heartbeat comments keep idle connections open through proxies and detect dead clients.
+ * <p>
+ * Open subscriptions and disconnected slow consumers are published as
+ * {@code students.stream.subscribers} and {@code students.stream.dropped}.
+ */
+@Component
+public class StudentEventBroadcaster implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentEventBroadcaster.class);
+
+    // How long clients are asked to wait before retrying when the subscriber limit is reached.
+    private static final long RETRY_AFTER_SECONDS = 5;
+
+    private static final Supplier<SseEmitter.SseEventBuilder> CONNECTED = () -> SseEmitter.event().comment("connected");
+    private static final Supplier<SseEmitter.SseEventBuilder> HEARTBEAT = () -> SseEmitter.event().comment("heartbeat");
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Slots are reserved before a subscriber is added, so concurrent subscribes cannot overshoot the limit.
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final ExecutorService sender;
+    private final ScheduledExecutorService heartbeat;
+    private final Counter dropped;
+
+    public StudentEventBroadcaster(MeterRegistry meterRegistry,
+                                   @Value("${app.students.stream.buffer-size:256}") int bufferSize,
+                                   @Value("${app.students.stream.max-subscribers:500}") int maxSubscribers,
+                                   @Value("${app.students.stream.sender-threads:4}") int senderThreads,
+                                   @Value("${app.students.stream.heartbeat-interval:15s}") Duration heartbeatInterval) {
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "student-stream-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "student-stream-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMs = heartbeatInterval.toMillis();
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeat, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("students.stream.subscribers", subscriberCount, AtomicInteger::get).register(meterRegistry);
+        this.dropped = Counter.builder("students.stream.dropped").register(meterRegistry);
+    }
+
+    /**
+     * Opens a new subscription. The returned emitter never times out; it ends when the client
+     * disconnects, falls behind or the application shuts down.
+     */
+    public SseEmitter subscribe() {
+        return register(new SseEmitter(0L));
+    }
+
+    SseEmitter register(SseEmitter emitter) {
+        if (!reserveSlot()) {
+            throw new ServiceUnavailableException("Too many open student streams, please retry later",
+                    RETRY_AFTER_SECONDS);
+        }
+        Subscriber subscriber = new Subscriber(emitter);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        // Sent straight away so that proxies flush the response headers to the client.
+        subscriber.offer(CONNECTED);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        // A builder is consumed by sending it, so every subscriber gets its own.
+        Supplier<SseEmitter.SseEventBuilder> frame = () -> SseEmitter.event()
+                .name(event.getType().name())
+                .data(event, MediaType.APPLICATION_JSON);
+        subscribers.forEach(subscriber -> subscriber.offer(frame));
+    }
+
+    /**
+     * Sends a bulk write as one event listing every id. One event per student would fill each
+     * subscriber's buffer from the committing thread before any sender could drain it, and a class
+     * or import chunk larger than the buffer would disconnect every subscriber.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentsChanged(StudentsChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Supplier<SseEmitter.SseEventBuilder> frame = () -> SseEmitter.event()
+                .name(event.getType().name())
+                .data(event, MediaType.APPLICATION_JSON);
+        subscribers.forEach(subscriber -> subscriber.offer(frame));
+    }
+
+    int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private boolean reserveSlot() {
+        int count;
+        do {
+            count = subscriberCount.get();
+            if (count >= maxSubscribers) {
+                return false;
+            }
+        } while (!subscriberCount.compareAndSet(count, count + 1));
+        return true;
+    }
+
+    // Completion, timeout, error and a drop can all report the same subscriber; only the first frees its slot.
+    private void remove(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    private void sendHeartbeat() {
+        subscribers.forEach(subscriber -> subscriber.offer(HEARTBEAT));
+    }
+
+    @Override
+    public void destroy() {
+        heartbeat.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.close(false));
+        sender.shutdown();
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Supplier<SseEmitter.SseEventBuilder>> buffer = new ArrayBlockingQueue<>(bufferSize);
+        // Set while a drain task is queued or running, so at most one thread writes to the emitter.
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Supplier<SseEmitter.SseEventBuilder> frame) {
+            if (closed.get()) {
+                return;
+            }
+            if (!buffer.offer(frame)) {
+                dropped.increment();
+                logger.info("Disconnecting student stream subscriber that fell {} events behind", bufferSize);
+                close(false);
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Supplier<SseEmitter.SseEventBuilder> frame;
+                while (!closed.get() && (frame = buffer.poll()) != null) {
+                    emitter.send(frame.get());
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client has gone away; the container reports it through onError as well.
+                close(true);
+            } finally {
+                draining.set(false);
+            }
+            // An offer may have arrived between the last poll and clearing the flag.
+            if (!closed.get() && !buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        /**
+         * Removes the subscriber. Completing the emitter can block behind a send in progress, so
+         * unless this already runs on a sender thread it is handed to the pool.
+         */
+        void close(boolean onSenderThread) {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            remove(this);
+            buffer.clear();
+            if (onSenderThread || sender.isShutdown()) {
+                emitter.complete();
+            } else {
+                sender.execute(emitter::complete);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.service;
+
+import com.example.exception.BadRequestException;
+import org.springframework.http.MediaType;
+
+public enum StudentExportFormat {
+    NDJSON("ndjson", "application/x-ndjson"),
+    CSV("csv", "text/csv");
+
+    private final String extension;
+    private final String contentType;
+
+    StudentExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public static StudentExportFormat fromParameter(String parameter) {
+        for (StudentExportFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(parameter)) {
+                return format;
+            }
+        }
+        throw new BadRequestException("Unsupported format: " + parameter);
+    }
+
+    public static StudentExportFormat fromContentType(String contentType) {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        for (StudentExportFormat format : values()) {
+            if (mediaType.equalsTypeAndSubtype(MediaType.parseMediaType(format.contentType))) {
+                return format;
+            }
+        }
+        throw new BadRequestException("Unsupported content type: " + contentType);
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.service;
+
+import com.example.entity.Student;
+import com.example.entity.converter.StudentClassConverter;
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Streams every student with their course grades in constant memory.
+ * <p>
+ * Rows are read through a single forward-only, read-only JDBC cursor ordered by student id, so
+ * no persistence context is involved and each student is written out and dropped as soon as its
+ * last course row has been seen.
+ */
+@Service
+public class StudentExportService {
+
+    private static final String EXPORT_SQL =
+            "SELECT s.id, s.first_name, s.last_name, s.school_number, s.birth_date, s.student_class, "
+                    + "c.course, c.grade "
+                    + "FROM students s LEFT JOIN student_courses c ON c.student_id = s.id "
+                    + "ORDER BY s.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter studentWriter;
+    private final int fetchSize;
+    private final StudentClassConverter studentClassConverter = new StudentClassConverter();
+
+    public StudentExportService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                                @Value("${app.students.export.fetch-size}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        // Let the servlet response buffer decide when to flush instead of flushing per student.
+        this.studentWriter = objectMapper.writerFor(Student.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.fetchSize = fetchSize;
+    }
+
+    public void export(StudentExportFormat format, OutputStream out) throws IOException {
+        StudentSink sink = format == StudentExportFormat.CSV ? new CsvSink(out) : new NdjsonSink(out);
+        GroupingHandler handler = new GroupingHandler(sink);
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(EXPORT_SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                return statement;
+            }, handler);
+            handler.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        sink.close();
+    }
+
+    private interface StudentSink {
+        void write(Student student) throws IOException;
+
+        void close() throws IOException;
+    }
+
+    /**
+     * Folds the consecutive join rows of one student into a single {@link Student}.
+     */
+    private final class GroupingHandler implements RowCallbackHandler {
+        private final StudentSink sink;
+        private Student current;
+
+        private GroupingHandler(StudentSink sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            int id = rs.getInt("id");
+            if (current == null || current.getId() != id) {
+                finish();
+                current = new Student();
+                current.setId(id);
+                current.setFirstName(rs.getString("first_name"));
+                current.setLastName(rs.getString("last_name"));
+                current.setSchoolNumber(rs.getString("school_number"));
+                current.setBirthDate(rs.getString("birth_date"));
+                current.setStudentClass(studentClassConverter.convertToEntityAttribute(rs.getString("student_class")));
+            }
+            String course = rs.getString("course");
+            String grade = rs.getString("grade");
+            if (course != null && grade != null) {
+                current.getCourses().put(Course.valueOf(course), Grade.valueOf(grade));
+            }
+        }
+
+        private void finish() {
+            if (current == null) {
+                return;
+            }
+            try {
+                sink.write(current);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            current = null;
+        }
+    }
+
+    private final class NdjsonSink implements StudentSink {
+        private final JsonGenerator generator;
+
+        private NdjsonSink(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void write(Student student) throws IOException {
+            studentWriter.writeValue(generator, student);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static final class CsvSink implements StudentSink {
+        private final Writer writer;
+
+        private CsvSink(OutputStream out) throws IOException {
+            this.writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            this.writer.write(StudentCsvFormat.header());
+            this.writer.write("\r\n");
+        }
+
+        @Override
+        public void write(Student student) throws IOException {
+            writer.write(StudentCsvFormat.format(student));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+}
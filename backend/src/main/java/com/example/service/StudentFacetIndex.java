@@ -0,0 +1,161 @@
+package com.example.service;
+
+import com.example.entity.converter.StudentClassConverter;
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.entity.enums.StudentClass;
+import com.example.event.StudentChangedEvent;
+import com.example.event.StudentsChangedEvent;
+import com.example.payload.response.StudentFacets;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Student counts by class, course and grade, answered from an in-process {@link FacetIndex}
+ * instead of {@code GROUP BY} queries.
+ * <p>
+ * Like {@link StudentNameIndex}, the index is built from the database once all beans exist and
+ * then follows committed {@link StudentChangedEvent}s and {@link StudentsChangedEvent}s. Writes
+ * made outside this application instance are not seen until the next restart.
+ * <p>
+ * Size and build time are published as {@code students.facet_index.students},
+ * {@code students.facet_index.memory} (estimated bytes) and {@code students.facet_index.build}.
+ */
+@Component
+public class StudentFacetIndex implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentFacetIndex.class);
+
+    private static final StudentClassConverter STUDENT_CLASS_CONVERTER = new StudentClassConverter();
+
+    private static final int LOCK_STRIPES = 64;
+
+    private static final String LOAD_STUDENTS_SQL = "SELECT id, student_class FROM students";
+    private static final String LOAD_GRADES_SQL = "SELECT student_id, course, grade FROM student_courses";
+    // One statement, so that the class and the grades come from the same snapshot.
+    private static final String LOAD_SOME_SQL = "SELECT s.id, s.student_class, c.course, c.grade FROM students s "
+            + "LEFT JOIN student_courses c ON c.student_id = s.id WHERE s.id IN %s";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+    private final Timer buildTimer;
+    private final StripedLocks locks = new StripedLocks(LOCK_STRIPES);
+    private volatile FacetIndex index = new FacetIndex();
+
+    public StudentFacetIndex(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                             @Value("${app.students.index.fetch-size}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+        this.buildTimer = Timer.builder("students.facet_index.build").register(meterRegistry);
+        Gauge.builder("students.facet_index.students", this, self -> self.index.size()).register(meterRegistry);
+        Gauge.builder("students.facet_index.memory", this, self -> self.index.estimatedMemoryBytes())
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Replaces the index with one freshly built from the students and grades tables, each
+     * streamed through a forward-only cursor like the export.
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        FacetIndex fresh = new FacetIndex();
+        stream(LOAD_STUDENTS_SQL, rs -> fresh.put(rs.getInt("id"),
+                STUDENT_CLASS_CONVERTER.convertToEntityAttribute(rs.getString("student_class")), Map.of()));
+        stream(LOAD_GRADES_SQL, rs -> fresh.addGrade(rs.getInt("student_id"),
+                parse(Course.class, rs.getString("course")), parse(Grade.class, rs.getString("grade"))));
+        index = fresh;
+
+        long elapsed = System.nanoTime() - start;
+        buildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        logger.info("Student facet index built in {} ms: {} students, ~{} KB",
+                TimeUnit.NANOSECONDS.toMillis(elapsed), fresh.size(), fresh.estimatedMemoryBytes() / 1024);
+    }
+
+    private void stream(String sql, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, handler);
+    }
+
+    /**
+     * Counts the students matching the class, course and grade filters of {@code criteria},
+     * per class and per course and grade. Other filters are ignored.
+     */
+    public StudentFacets facets(StudentSearchCriteria criteria) {
+        FacetIndex.Counts counts = index.count(criteria.getStudentClass(), criteria.getCourse(), criteria.getGrade());
+        Map<String, Integer> studentClasses = new LinkedHashMap<>();
+        counts.byClass().forEach((studentClass, count) -> studentClasses.put(studentClass.getValue(), count));
+        return new StudentFacets(counts.total(), studentClasses, counts.byCourseAndGrade());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        int id = event.getStudentId();
+        locks.run(id, () -> apply(event.getType(), List.of(id)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentsChanged(StudentsChangedEvent event) {
+        locks.run(event.getStudentIds(), () -> apply(event.getType(), event.getStudentIds()));
+    }
+
+    // Re-reads the committed rows under the students' locks, like StudentNameIndex.
+    private void apply(StudentChangedEvent.Type type, List<Integer> ids) {
+        if (type == StudentChangedEvent.Type.DELETED) {
+            ids.forEach(index::remove);
+            return;
+        }
+        Map<Integer, StudentClass> classes = new HashMap<>();
+        Map<Integer, Map<Course, Grade>> grades = new HashMap<>();
+        for (List<Integer> chunk : InLists.chunks(ids)) {
+            jdbcTemplate.query(InLists.format(LOAD_SOME_SQL, chunk), rs -> {
+                int id = rs.getInt("id");
+                classes.put(id, STUDENT_CLASS_CONVERTER.convertToEntityAttribute(rs.getString("student_class")));
+                Map<Course, Grade> studentGrades = grades.computeIfAbsent(id, key -> new EnumMap<>(Course.class));
+                Course course = parse(Course.class, rs.getString("course"));
+                if (course != null) {
+                    studentGrades.put(course, parse(Grade.class, rs.getString("grade")));
+                }
+            }, chunk.toArray());
+        }
+        for (Integer id : ids) {
+            if (classes.containsKey(id)) {
+                index.put(id, classes.get(id), grades.get(id));
+            } else {
+                index.remove(id);
+            }
+        }
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String value) {
+        return value == null ? null : Enum.valueOf(type, value);
+    }
+}
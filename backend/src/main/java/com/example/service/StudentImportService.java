@@ -0,0 +1,173 @@
+package com.example.service;
+
+import com.example.entity.Student;
+import com.example.event.StudentChangedEvent;
+import com.example.event.StudentGradesChangedEvent;
+import com.example.event.StudentsChangedEvent;
+import com.example.payload.response.ImportResult;
+import com.example.repository.StudentRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk-loads students from CSV or NDJSON.
+ * <p>
+ * Input is parsed as a stream and written in chunks of {@code app.students.import.batch-size}
+ * rows, one transaction per chunk, with the same size used for the JDBC batch. Rows that fail to
+ * parse are reported and skipped. If a chunk is rejected by the database it is retried row by
+ * row so that only the offending rows are reported.
+ */
+@Service
+public class StudentImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentImportService.class);
+
+    private final StudentRepository studentRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectReader studentReader;
+    private final int batchSize;
+
+    public StudentImportService(StudentRepository studentRepository, EntityManager entityManager,
+                                PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${app.students.import.batch-size:500}") int batchSize) {
+        this.studentRepository = studentRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.studentReader = objectMapper.readerFor(Student.class);
+        this.batchSize = batchSize;
+    }
+
+    public ImportResult importStudents(StudentExportFormat format, InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        ImportResult result = new ImportResult();
+        Chunk chunk = new Chunk();
+
+        if (format == StudentExportFormat.CSV) {
+            StudentCsvReader csv = new StudentCsvReader(reader);
+            List<String> fields;
+            while ((fields = csv.readRecord()) != null) {
+                try {
+                    chunk.add(csv.getRecordLine(), csv.toStudent(fields));
+                } catch (IllegalArgumentException e) {
+                    result.recordFailure(csv.getRecordLine(), e.getMessage());
+                }
+                flushIfFull(chunk, result);
+            }
+        } else {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    Student student = studentReader.readValue(line);
+                    // Imports always create new students; ids come from the generator.
+                    student.setId(0);
+                    student.setVersion(null);
+                    chunk.add(lineNumber, student);
+                } catch (JsonProcessingException e) {
+                    result.recordFailure(lineNumber, e.getOriginalMessage());
+                }
+                flushIfFull(chunk, result);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            write(chunk, result);
+        }
+
+        logger.info("Student import finished: {} imported, {} failed", result.getImported(), result.getFailed());
+        return result;
+    }
+
+    private void flushIfFull(Chunk chunk, ImportResult result) {
+        if (chunk.size() >= batchSize) {
+            write(chunk, result);
+        }
+    }
+
+    private void write(Chunk chunk, ImportResult result) {
+        try {
+            persist(chunk.students);
+            result.recordImported(chunk.size());
+        } catch (RuntimeException e) {
+            logger.warn("Import chunk of {} rows rejected, retrying row by row: {}", chunk.size(), e.getMessage());
+            for (int i = 0; i < chunk.size(); i++) {
+                Student student = chunk.students.get(i);
+                try {
+                    student.setId(0);
+                    student.setVersion(null);
+                    persist(List.of(student));
+                    result.recordImported(1);
+                } catch (RuntimeException rowFailure) {
+                    result.recordFailure(chunk.lines.get(i),
+                            NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage());
+                }
+            }
+        }
+        chunk.clear();
+    }
+
+    private void persist(List<Student> students) {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            studentRepository.saveAll(students);
+            entityManager.flush();
+            // Ids are assigned by now; the change log writes these in the chunk's own transaction.
+            // One event for the whole chunk lets the indexes re-read it in a few queries, not one per row.
+            students.forEach(student -> eventPublisher.publishEvent(
+                    StudentGradesChangedEvent.inserted(student.getStudentClass(), student.getCourses())));
+            eventPublisher.publishEvent(new StudentsChangedEvent(StudentChangedEvent.Type.INSERTED,
+                    students.stream().map(Student::getId).toList()));
+            // Detach everything so the persistence context never holds more than one chunk.
+            entityManager.clear();
+        });
+    }
+
+    private static final class Chunk {
+        private final List<Student> students = new ArrayList<>();
+        private final List<Long> lines = new ArrayList<>();
+
+        void add(long line, Student student) {
+            lines.add(line);
+            students.add(student);
+        }
+
+        int size() {
+            return students.size();
+        }
+
+        boolean isEmpty() {
+            return students.isEmpty();
+        }
+
+        void clear() {
+            students.clear();
+            lines.clear();
+        }
+    }
+}
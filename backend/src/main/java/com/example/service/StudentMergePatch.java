@@ -0,0 +1,173 @@
+package com.example.service;
+
+import com.example.entity.Student;
+import com.example.entity.converter.StudentClassConverter;
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.entity.enums.StudentClass;
+import com.example.exception.BadRequestException;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A JSON Merge Patch (RFC 7396) of a student. Members present in the patch are set, {@code null}
+ * clears them, and {@code courses} is merged per course: a grade sets it, {@code null} drops the
+ * course. Members that are absent are left alone.
+ * <p>
+ * Grades are applied to the student's existing course map, never by swapping in a new one, so
+ * Hibernate writes only the {@code student_courses} rows that actually changed.
+ */
+public final class StudentMergePatch {
+
+    private static final StudentClassConverter STUDENT_CLASS_CONVERTER = new StudentClassConverter();
+    private static final Set<String> DETAILS = Set.of("firstName", "lastName", "schoolNumber", "birthDate");
+
+    // Present members only; a null value clears the field.
+    private final Map<String, String> details;
+    private final boolean setsStudentClass;
+    private final StudentClass studentClass;
+    private final boolean clearsCourses;
+    // A null grade drops the course.
+    private final Map<Course, Grade> grades;
+
+    private StudentMergePatch(Map<String, String> details, boolean setsStudentClass, StudentClass studentClass,
+                              boolean clearsCourses, Map<Course, Grade> grades) {
+        this.details = details;
+        this.setsStudentClass = setsStudentClass;
+        this.studentClass = studentClass;
+        this.clearsCourses = clearsCourses;
+        this.grades = grades;
+    }
+
+    /**
+     * Parses a merge patch document. Unknown members, classes, courses and grades are rejected
+     * rather than ignored, so that a typo cannot look like a successful update.
+     */
+    public static StudentMergePatch fromJson(JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new BadRequestException("A merge patch must be a JSON object");
+        }
+        Map<String, String> details = new LinkedHashMap<>();
+        boolean setsStudentClass = false;
+        StudentClass studentClass = null;
+        boolean clearsCourses = false;
+        Map<Course, Grade> grades = new EnumMap<>(Course.class);
+
+        Iterator<Map.Entry<String, JsonNode>> members = patch.fields();
+        while (members.hasNext()) {
+            Map.Entry<String, JsonNode> member = members.next();
+            String name = member.getKey();
+            JsonNode value = member.getValue();
+            if (DETAILS.contains(name)) {
+                details.put(name, text(name, value));
+            } else if (name.equals("studentClass")) {
+                setsStudentClass = true;
+                studentClass = parseStudentClass(text(name, value));
+            } else if (name.equals("courses")) {
+                if (value.isNull()) {
+                    clearsCourses = true;
+                } else if (value.isObject()) {
+                    value.fields().forEachRemaining(course -> grades.put(
+                            parseEnum(Course.class, "course", course.getKey()),
+                            parseEnum(Grade.class, "grade", text(course.getKey(), course.getValue()))));
+                } else {
+                    throw new BadRequestException("courses must be an object or null");
+                }
+            } else {
+                throw new BadRequestException("Unknown or read-only student field: " + name);
+            }
+        }
+        return new StudentMergePatch(details, setsStudentClass, studentClass, clearsCourses, grades);
+    }
+
+    /**
+     * A patch that sets one grade, adding the course if the student does not take it yet.
+     */
+    public static StudentMergePatch ofGrade(String course, Grade grade) {
+        if (grade == null) {
+            throw new BadRequestException("grade is required");
+        }
+        Map<Course, Grade> grades = new EnumMap<>(Course.class);
+        grades.put(parseEnum(Course.class, "course", course), grade);
+        return new StudentMergePatch(Map.of(), false, null, false, grades);
+    }
+
+    void applyTo(Student student) {
+        details.forEach((name, value) -> {
+            switch (name) {
+                case "firstName" -> student.setFirstName(value);
+                case "lastName" -> student.setLastName(value);
+                case "schoolNumber" -> student.setSchoolNumber(value);
+                default -> student.setBirthDate(value);
+            }
+        });
+        if (setsStudentClass) {
+            student.setStudentClass(studentClass);
+        }
+        Map<Course, Grade> courses = student.getCourses();
+        if (clearsCourses) {
+            courses.clear();
+        }
+        grades.forEach((course, grade) -> {
+            if (grade == null) {
+                courses.remove(course);
+            } else if (!courses.containsKey(course) || courses.get(course) != grade) {
+                courses.put(course, grade);
+            }
+        });
+    }
+
+    /**
+     * Makes {@code courses} equal to {@code replacement} in place, touching only the entries
+     * that differ. A {@code null} replacement empties it.
+     */
+    static void replaceGrades(Map<Course, Grade> courses, Map<Course, Grade> replacement) {
+        Map<Course, Grade> target = replacement == null ? Map.of() : new HashMap<>(replacement);
+        courses.keySet().retainAll(target.keySet());
+        target.forEach((course, grade) -> {
+            if (!courses.containsKey(course) || !Objects.equals(courses.get(course), grade)) {
+                courses.put(course, grade);
+            }
+        });
+    }
+
+    private static String text(String name, JsonNode value) {
+        if (value.isNull()) {
+            return null;
+        }
+        if (!value.isTextual()) {
+            throw new BadRequestException(name + " must be a string or null");
+        }
+        return value.asText();
+    }
+
+    private static StudentClass parseStudentClass(String value) {
+        if (value == null) {
+            return null;
+        }
+        StudentClass parsed = STUDENT_CLASS_CONVERTER.convertToEntityAttribute(value.trim());
+        if (parsed == null) {
+            throw new BadRequestException("Unknown student class: " + value);
+        }
+        return parsed;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String name, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown " + name + ": " + value);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.service;
+
+import com.example.event.StudentChangedEvent;
+import com.example.event.StudentsChangedEvent;
+import com.example.exception.BadRequestException;
+import com.example.payload.response.StudentSuggestion;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fuzzy name and school-number lookup over every student, answered from an in-process
+ * {@link TrigramIndex} instead of {@code LIKE '%...%'} scans.
+ * <p>
+ * The index is built from the database once all beans exist, before the web server starts
+ * taking requests, and then follows committed {@link StudentChangedEvent}s and
+ * {@link StudentsChangedEvent}s. Writes made outside this application instance are not seen
+ * until the next restart.
+ * <p>
+ * Size and build time are published as {@code students.name_index.students},
+ * {@code students.name_index.terms}, {@code students.name_index.memory} (estimated bytes)
+ * and {@code students.name_index.build}.
+ */
+@Component
+public class StudentNameIndex implements SmartInitializingSingleton {
+
+    public static final int MAX_LIMIT = 50;
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentNameIndex.class);
+
+    // Longer queries only add trigrams that slow the search down without changing the ranking much.
+    private static final int MAX_QUERY_LENGTH = 100;
+
+    private static final int LOCK_STRIPES = 64;
+
+    private static final String LOAD_ALL_SQL = "SELECT id, first_name, last_name, school_number FROM students";
+    private static final String LOAD_SOME_SQL =
+            "SELECT id, first_name, last_name, school_number FROM students WHERE id IN %s";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+    private final Timer buildTimer;
+    private final StripedLocks locks = new StripedLocks(LOCK_STRIPES);
+    private volatile TrigramIndex index = new TrigramIndex();
+
+    public StudentNameIndex(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                            @Value("${app.students.index.fetch-size}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+        this.buildTimer = Timer.builder("students.name_index.build").register(meterRegistry);
+        Gauge.builder("students.name_index.students", this, self -> self.index.size()).register(meterRegistry);
+        Gauge.builder("students.name_index.terms", this, self -> self.index.termCount()).register(meterRegistry);
+        Gauge.builder("students.name_index.memory", this, self -> self.index.estimatedMemoryBytes())
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Replaces the index with one freshly built from the students table, streamed through a
+     * forward-only cursor like the export.
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        TrigramIndex fresh = new TrigramIndex();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(LOAD_ALL_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, rs -> {
+            fresh.put(rs.getInt("id"), rs.getString("first_name"), rs.getString("last_name"),
+                    rs.getString("school_number"));
+        });
+        index = fresh;
+
+        long elapsed = System.nanoTime() - start;
+        buildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        logger.info("Student name index built in {} ms: {} students, {} terms, {} postings, ~{} MB",
+                TimeUnit.NANOSECONDS.toMillis(elapsed), fresh.size(), fresh.termCount(), fresh.postingCount(),
+                fresh.estimatedMemoryBytes() / (1024 * 1024));
+    }
+
+    public List<StudentSuggestion> suggest(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("q must not be blank");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        String text = query.length() > MAX_QUERY_LENGTH ? query.substring(0, MAX_QUERY_LENGTH) : query;
+        return index.search(text, limit).stream()
+                .map(match -> new StudentSuggestion(match.id(), match.document().firstName(),
+                        match.document().lastName(), match.document().schoolNumber(), match.score()))
+                .toList();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        int id = event.getStudentId();
+        locks.run(id, () -> apply(event.getType(), List.of(id)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentsChanged(StudentsChangedEvent event) {
+        locks.run(event.getStudentIds(), () -> apply(event.getType(), event.getStudentIds()));
+    }
+
+    /**
+     * Re-reads the committed rows rather than trusting the event's order relative to other
+     * writers. Callers hold the students' locks, so that a slower, older read cannot land last.
+     */
+    private void apply(StudentChangedEvent.Type type, List<Integer> ids) {
+        if (type == StudentChangedEvent.Type.DELETED) {
+            ids.forEach(index::remove);
+            return;
+        }
+        Set<Integer> missing = new HashSet<>(ids);
+        for (List<Integer> chunk : InLists.chunks(ids)) {
+            jdbcTemplate.query(InLists.format(LOAD_SOME_SQL, chunk), rs -> {
+                int id = rs.getInt("id");
+                index.put(id, rs.getString("first_name"), rs.getString("last_name"), rs.getString("school_number"));
+                missing.remove(id);
+            }, chunk.toArray());
+        }
+        missing.forEach(index::remove);
+    }
+}
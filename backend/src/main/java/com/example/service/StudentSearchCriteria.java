@@ -0,0 +1,110 @@
+package com.example.service;
+
+import com.example.entity.Student;
+import com.example.entity.converter.StudentClassConverter;
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.entity.enums.StudentClass;
+import com.example.exception.BadRequestException;
+import com.example.repository.StudentSpecifications;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Locale;
+
+/**
+ * Filters accepted by the student search. Every filter is optional and they are combined with
+ * {@code AND}; {@code course} and {@code grade} apply to the same grade row.
+ */
+public final class StudentSearchCriteria {
+
+    private static final StudentClassConverter STUDENT_CLASS_CONVERTER = new StudentClassConverter();
+
+    private final StudentClass studentClass;
+    private final Course course;
+    private final Grade grade;
+    private final String lastNamePrefix;
+    private final String schoolNumber;
+
+    public StudentSearchCriteria(StudentClass studentClass, Course course, Grade grade,
+                                 String lastNamePrefix, String schoolNumber) {
+        this.studentClass = studentClass;
+        this.course = course;
+        this.grade = grade;
+        this.lastNamePrefix = lastNamePrefix;
+        this.schoolNumber = schoolNumber;
+    }
+
+    /**
+     * Parses request parameters, treating blank values as absent. Unknown classes, courses or
+     * grades are rejected rather than silently matching nothing.
+     */
+    public static StudentSearchCriteria fromParameters(String studentClass, String course, String grade,
+                                                       String lastNamePrefix, String schoolNumber) {
+        return new StudentSearchCriteria(
+                parseStudentClass(studentClass),
+                parseEnum(Course.class, "course", course),
+                parseEnum(Grade.class, "grade", grade),
+                blankToNull(lastNamePrefix),
+                blankToNull(schoolNumber));
+    }
+
+    public StudentClass getStudentClass() {
+        return studentClass;
+    }
+
+    public Course getCourse() {
+        return course;
+    }
+
+    public Grade getGrade() {
+        return grade;
+    }
+
+    public boolean isEmpty() {
+        return studentClass == null && course == null && grade == null && lastNamePrefix == null
+                && schoolNumber == null;
+    }
+
+    public Specification<Student> toSpecification() {
+        Specification<Student> spec = Specification.where(null);
+        if (studentClass != null) {
+            spec = spec.and(StudentSpecifications.inClass(studentClass));
+        }
+        if (course != null || grade != null) {
+            spec = spec.and(StudentSpecifications.hasGrade(course, grade));
+        }
+        if (lastNamePrefix != null) {
+            spec = spec.and(StudentSpecifications.lastNameStartsWith(lastNamePrefix));
+        }
+        if (schoolNumber != null) {
+            spec = spec.and(StudentSpecifications.hasSchoolNumber(schoolNumber));
+        }
+        return spec;
+    }
+
+    private static StudentClass parseStudentClass(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        StudentClass studentClass = STUDENT_CLASS_CONVERTER.convertToEntityAttribute(value.trim());
+        if (studentClass == null) {
+            throw new BadRequestException("Unknown student class: " + value);
+        }
+        return studentClass;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String name, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown " + name + ": " + value);
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
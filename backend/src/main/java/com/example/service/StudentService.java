@@ -1,51 +1,165 @@
 package com.example.service;
 
+import com.example.config.ReplicaRoutingDataSource;
 import com.example.entity.Student;
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.entity.enums.StudentClass;
+import com.example.event.StudentChangedEvent;
+import com.example.event.StudentGradesChangedEvent;
+import com.example.exception.BadRequestException;
+import com.example.exception.PreconditionFailedException;
 import com.example.exception.ResourceNotFoundException;
+import com.example.payload.response.CursorPage;
+import com.example.payload.response.StudentView;
 import com.example.repository.StudentRepository;
+import com.example.repository.StudentSpecifications;
+import com.example.repository.StudentViewRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 @Service
 public class StudentService {
 
+    public static final int MAX_PAGE_SIZE = 500;
+
     private final StudentRepository studentRepository;
+    private final StudentViewRepository studentViewRepository;
+    private final StudentCache studentCache;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public StudentService(StudentRepository studentRepository) {
+    public StudentService(StudentRepository studentRepository, StudentViewRepository studentViewRepository,
+                          StudentCache studentCache, ApplicationEventPublisher eventPublisher) {
         this.studentRepository = studentRepository;
+        this.studentViewRepository = studentViewRepository;
+        this.studentCache = studentCache;
+        this.eventPublisher = eventPublisher;
     }
 
-    public Collection<Student> getAllStudents(){
-        return this.studentRepository.findAll();
+    /**
+     * Returns one keyset page of students. Each page is a bounded index range scan that
+     * starts after {@code cursor}, so cost does not grow with how deep the client has paged.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<StudentView> listStudents(StudentSort sort, String cursor, int size) {
+        return findPage(null, sort, cursor, size);
     }
 
-    public Student getStudentById(int id){
-        return this.studentRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
+    /**
+     * Returns one keyset page of the students matching {@code criteria}. Filters, order and
+     * page limit are compiled into a single query; grades follow in one more query.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<StudentView> searchStudents(StudentSearchCriteria criteria, StudentSort sort, String cursor,
+                                                  int size) {
+        return findPage(criteria.toSpecification(), sort, cursor, size);
+    }
+
+    private CursorPage<StudentView> findPage(Specification<Student> filter, StudentSort sort, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Specification<Student> spec = Specification.where(filter);
+        if (cursor != null) {
+            StudentCursor position = StudentCursor.decode(cursor, sort);
+            spec = spec.and(StudentSpecifications.keysetAfter(sort.getProperty(), position.getKey(), position.getId()));
+        }
+
+        // Fetch one extra row to learn whether another page exists without a count query.
+        List<StudentView> rows = this.studentViewRepository.findAll(spec, sort.toSort(), size + 1);
+
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<StudentView> page = rows.subList(0, size);
+        return new CursorPage<>(page, StudentCursor.after(sort, page.get(size - 1)).encode());
+    }
+
+    // Loaded from the primary: a lagging replica could hand back the version a write just evicted.
+    public StudentView getStudentById(int id){
+        return this.studentCache.get(id, key -> ReplicaRoutingDataSource.onPrimary(
+                () -> this.studentViewRepository.findById(key))
+                .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + key)));
     }
 
+    @Transactional
     public void removeStudentById(int id) {
         Student student = this.studentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
+        this.eventPublisher.publishEvent(
+                StudentGradesChangedEvent.deleted(student.getStudentClass(), student.getCourses()));
         this.studentRepository.delete(student);
+        this.eventPublisher.publishEvent(new StudentChangedEvent(StudentChangedEvent.Type.DELETED, id));
     }
 
     public Student updateStudent(int id, Student studentDetails){
+        return updateStudent(id, studentDetails, null);
+    }
+
+    /**
+     * Replaces the student's details, provided the stored version still equals
+     * {@code expectedVersion} ({@code null} skips the check). A concurrent update that commits
+     * between this check and the flush is caught by the version column instead.
+     * <p>
+     * Grades are replaced entry by entry, so only the rows that differ are written.
+     */
+    @Transactional
+    public Student updateStudent(int id, Student studentDetails, Long expectedVersion){
+        return modifyStudent(id, expectedVersion, student -> {
+            student.setFirstName(studentDetails.getFirstName());
+            student.setLastName(studentDetails.getLastName());
+            student.setSchoolNumber(studentDetails.getSchoolNumber());
+            student.setBirthDate(studentDetails.getBirthDate());
+            student.setStudentClass(studentDetails.getStudentClass());
+            StudentMergePatch.replaceGrades(student.getCourses(), studentDetails.getCourses());
+        });
+    }
+
+    /**
+     * Applies a merge patch with the same version check as {@link #updateStudent}. Only the
+     * student row and the grade rows the patch changes are written.
+     */
+    @Transactional
+    public Student patchStudent(int id, StudentMergePatch patch, Long expectedVersion){
+        return modifyStudent(id, expectedVersion, patch::applyTo);
+    }
+
+    private Student modifyStudent(int id, Long expectedVersion, Consumer<Student> change) {
         Student student = this.studentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
+        if (expectedVersion != null && !expectedVersion.equals(student.getVersion())) {
+            throw new PreconditionFailedException("Student " + id + " has been modified since version " + expectedVersion);
+        }
+
+        StudentClass previousClass = student.getStudentClass();
+        Map<Course, Grade> previousGrades = new HashMap<>(student.getCourses());
 
-        student.setFirstName(studentDetails.getFirstName());
-        student.setLastName(studentDetails.getLastName());
-        student.setSchoolNumber(studentDetails.getSchoolNumber());
-        student.setBirthDate(studentDetails.getBirthDate());
-        student.setStudentClass(studentDetails.getStudentClass());
-        student.setCourses(studentDetails.getCourses());
+        change.accept(student);
 
-        return this.studentRepository.save(student);
+        Student saved = this.studentRepository.save(student);
+        this.eventPublisher.publishEvent(StudentGradesChangedEvent.updated(previousClass, previousGrades,
+                saved.getStudentClass(), saved.getCourses()));
+        this.eventPublisher.publishEvent(new StudentChangedEvent(StudentChangedEvent.Type.UPDATED, id));
+        return saved;
     }
 
+    @Transactional
     public Student insertStudent(Student student) {
-        return this.studentRepository.save(student);
+        // Always create: ignore any id or version the client sent.
+        student.setId(0);
+        student.setVersion(null);
+        Student saved = this.studentRepository.save(student);
+        this.eventPublisher.publishEvent(
+                StudentGradesChangedEvent.inserted(saved.getStudentClass(), saved.getCourses()));
+        this.eventPublisher.publishEvent(new StudentChangedEvent(StudentChangedEvent.Type.INSERTED, saved.getId()));
+        return saved;
     }
 }
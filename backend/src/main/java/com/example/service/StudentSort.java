@@ -0,0 +1,58 @@
+package com.example.service;
+
+import com.example.payload.response.StudentView;
+import com.example.exception.BadRequestException;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Stable orderings offered by the student listing. Every ordering ends with {@code id}
+ * so that keyset positions are unique.
+ */
+public enum StudentSort {
+    ID("id", null),
+    LAST_NAME("lastName", "lastName"),
+    SCHOOL_NUMBER("schoolNumber", "schoolNumber");
+
+    private final String parameter;
+    private final String property;
+
+    StudentSort(String parameter, String property) {
+        this.parameter = parameter;
+        this.property = property;
+    }
+
+    public String getParameter() {
+        return parameter;
+    }
+
+    /**
+     * Entity property sorted before {@code id}, or {@code null} when sorting by id alone.
+     */
+    public String getProperty() {
+        return property;
+    }
+
+    public Sort toSort() {
+        return property == null ? Sort.by("id") : Sort.by(property, "id");
+    }
+
+    public String keyOf(StudentView student) {
+        switch (this) {
+            case LAST_NAME:
+                return student.getLastName();
+            case SCHOOL_NUMBER:
+                return student.getSchoolNumber();
+            default:
+                return null;
+        }
+    }
+
+    public static StudentSort fromParameter(String parameter) {
+        for (StudentSort sort : values()) {
+            if (sort.parameter.equalsIgnoreCase(parameter)) {
+                return sort;
+            }
+        }
+        throw new BadRequestException("Unsupported sort: " + parameter);
+    }
+}
@@ -0,0 +1,487 @@
+package com.example.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Typo-tolerant and prefix lookup of students by the words of their name and their school
+ * number.
+ * <p>
+ * Text is lower-cased, stripped of accents and split into words ("terms"). Each term keeps a
+ * sorted list of the students that contain it. Name terms are also indexed by their character
+ * trigrams, padded the way PostgreSQL's pg_trgm does ({@code "  ada "}), so a misspelt query
+ * word finds similar terms. School numbers and other all-digit terms only match exactly or by
+ * prefix.
+ * <p>
+ * Matching happens against the vocabulary rather than against every student. Even a large
+ * roster has only tens of thousands of distinct name words. For each query word the best few
+ * terms are kept. Term combinations are then visited best first, and the posting lists of each
+ * combination are intersected until enough students are found. A student's score is the mean
+ * similarity of each query word to its best-matching term, where an exact term scores 1. Ties
+ * are broken by id.
+ * <p>
+ * Safe for concurrent use: searches share a read lock, updates take the write lock.
+ */
+final class TrigramIndex {
+
+    // Lowest trigram similarity for a term to count as matching a query word.
+    private static final double MIN_SIMILARITY = 0.3;
+    private static final int MAX_TERMS_PER_WORD = 8;
+    // Prefix candidates looked at per query word; a one-letter prefix can match thousands of terms.
+    private static final int MAX_PREFIX_TERMS = 64;
+    private static final int MAX_QUERY_WORDS = 4;
+    // Bounds the work for queries whose best combinations match few students.
+    private static final int MAX_COMBINATIONS = 64;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final NavigableMap<String, Term> terms = new TreeMap<>();
+    private final Map<Long, List<Term>> termsByTrigram = new HashMap<>();
+    private final Map<Integer, Document> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long postingCount;
+    // Kept up to date on every change so that estimatedMemoryBytes() never walks the index.
+    private long documentBytes;
+    private long termBytes;
+
+    record Document(String firstName, String lastName, String schoolNumber) {
+    }
+
+    record Match(int id, Document document, double score) {
+    }
+
+    /**
+     * Indexes the student, replacing whatever was indexed for the same id before.
+     */
+    void put(int id, String firstName, String lastName, String schoolNumber) {
+        Set<String> words = words(firstName, lastName, schoolNumber);
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            Document document = new Document(firstName, lastName, schoolNumber);
+            documents.put(id, document);
+            documentBytes += documentBytes(document);
+            for (String word : words) {
+                Term term = terms.get(word);
+                if (term == null) {
+                    term = new Term(word);
+                    terms.put(word, term);
+                    termBytes += termBytes(term);
+                    for (long trigram : term.trigrams) {
+                        termsByTrigram.computeIfAbsent(trigram, key -> new ArrayList<>()).add(term);
+                    }
+                }
+                term.students.add(id);
+                postingCount++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(int id) {
+        Document previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        documentBytes -= documentBytes(previous);
+        for (String word : words(previous.firstName(), previous.lastName(), previous.schoolNumber())) {
+            Term term = terms.get(word);
+            term.students.remove(id);
+            postingCount--;
+            if (term.students.size == 0) {
+                terms.remove(word);
+                termBytes -= termBytes(term);
+                for (long trigram : term.trigrams) {
+                    List<Term> sharing = termsByTrigram.get(trigram);
+                    sharing.remove(term);
+                    if (sharing.isEmpty()) {
+                        termsByTrigram.remove(trigram);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} students best matching {@code query}, best first.
+     */
+    List<Match> search(String query, int limit) {
+        List<String> words = new ArrayList<>(words(query));
+        if (words.size() > MAX_QUERY_WORDS) {
+            words = words.subList(0, MAX_QUERY_WORDS);
+        }
+        if (words.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<List<TermMatch>> options = new ArrayList<>(words.size());
+            for (String word : words) {
+                options.add(matchingTerms(word));
+            }
+            return bestStudents(options, words.size(), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private record TermMatch(Term term, double similarity) {
+    }
+
+    // The best terms for one query word, most similar first.
+    private List<TermMatch> matchingTerms(String word) {
+        Map<Term, Double> similarities = new HashMap<>();
+
+        int prefixTerms = 0;
+        for (Term term : terms.subMap(word, true, word + Character.MAX_VALUE, false).values()) {
+            // Exact is 1; a prefix scores by how much of the term it covers.
+            similarities.put(term, 0.5 + 0.5 * word.length() / term.text.length());
+            if (++prefixTerms == MAX_PREFIX_TERMS) {
+                break;
+            }
+        }
+
+        if (!isNumeric(word)) {
+            long[] wordTrigrams = trigrams(word);
+            // A term sharing fewer trigrams cannot reach MIN_SIMILARITY, and one sharing that many
+            // must occur in at least one of the k - minShared + 1 least common trigram lists.
+            int minShared = Math.max(1, (int) Math.ceil(wordTrigrams.length * MIN_SIMILARITY));
+            List<List<Term>> lists = new ArrayList<>(wordTrigrams.length);
+            for (long trigram : wordTrigrams) {
+                lists.add(termsByTrigram.getOrDefault(trigram, List.of()));
+            }
+            lists.sort(Comparator.comparingInt(List::size));
+            for (List<Term> list : lists.subList(0, wordTrigrams.length - minShared + 1)) {
+                for (Term term : list) {
+                    if (!similarities.containsKey(term)) {
+                        double similarity = jaccard(wordTrigrams, term.trigrams);
+                        similarities.put(term, similarity >= MIN_SIMILARITY ? similarity : 0);
+                    }
+                }
+            }
+        }
+
+        List<TermMatch> matches = new ArrayList<>();
+        similarities.forEach((term, similarity) -> {
+            if (similarity > 0) {
+                matches.add(new TermMatch(term, similarity));
+            }
+        });
+        matches.sort(Comparator.comparingDouble(TermMatch::similarity).reversed()
+                .thenComparing(match -> match.term().text));
+        return matches.size() > MAX_TERMS_PER_WORD ? matches.subList(0, MAX_TERMS_PER_WORD) : matches;
+    }
+
+    /**
+     * One choice of term per query word: {@code choices[i]} indexes {@code options.get(i)}, and
+     * an index past the end means the word is left unmatched.
+     */
+    private record Combination(int[] choices, double score) {
+    }
+
+    private List<Match> bestStudents(List<List<TermMatch>> options, int wordCount, int limit) {
+        PriorityQueue<Combination> queue = new PriorityQueue<>(
+                Comparator.comparingDouble(Combination::score).reversed());
+        Set<List<Integer>> queued = new HashSet<>();
+        int[] first = new int[options.size()];
+        queue.add(new Combination(first, score(options, first)));
+        queued.add(key(first));
+
+        Map<Integer, Match> found = new LinkedHashMap<>();
+        int visited = 0;
+        while (!queue.isEmpty() && found.size() < limit && visited++ < MAX_COMBINATIONS) {
+            Combination combination = queue.poll();
+            if (combination.score() == 0) {
+                break;
+            }
+            collect(options, combination, wordCount, limit, found);
+
+            for (int i = 0; i < first.length; i++) {
+                if (combination.choices()[i] < options.get(i).size()) {
+                    int[] next = combination.choices().clone();
+                    next[i]++;
+                    if (queued.add(key(next))) {
+                        queue.add(new Combination(next, score(options, next)));
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(found.values());
+    }
+
+    // Adds students holding every chosen term, in id order, until limit students are known.
+    private void collect(List<List<TermMatch>> options, Combination combination, int wordCount, int limit,
+                         Map<Integer, Match> found) {
+        List<Postings> lists = new ArrayList<>();
+        for (int i = 0; i < options.size(); i++) {
+            int choice = combination.choices()[i];
+            if (choice < options.get(i).size()) {
+                lists.add(options.get(i).get(choice).term().students);
+            }
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        Postings smallest = lists.get(0);
+        int[] positions = new int[lists.size()];
+        double score = combination.score() / wordCount;
+
+        candidates:
+        for (int c = 0; c < smallest.size && found.size() < limit; c++) {
+            int id = smallest.ids[c];
+            if (found.containsKey(id)) {
+                continue;
+            }
+            for (int l = 1; l < lists.size(); l++) {
+                Postings other = lists.get(l);
+                int position = Arrays.binarySearch(other.ids, positions[l], other.size, id);
+                if (position < 0) {
+                    // Later candidates are larger, so the search can resume from here.
+                    positions[l] = -position - 1;
+                    if (positions[l] == other.size) {
+                        return;
+                    }
+                    continue candidates;
+                }
+                positions[l] = position;
+            }
+            found.put(id, new Match(id, documents.get(id), score));
+        }
+    }
+
+    private static double score(List<List<TermMatch>> options, int[] choices) {
+        double score = 0;
+        for (int i = 0; i < choices.length; i++) {
+            if (choices[i] < options.get(i).size()) {
+                score += options.get(i).get(choices[i]).similarity();
+            }
+        }
+        return score;
+    }
+
+    private static List<Integer> key(int[] choices) {
+        return Arrays.stream(choices).boxed().toList();
+    }
+
+    // Jaccard similarity of two sorted, duplicate-free trigram arrays.
+    private static double jaccard(long[] a, long[] b) {
+        int shared = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                shared++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return (double) shared / (a.length + b.length - shared);
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int termCount() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long postingCount() {
+        lock.readLock().lock();
+        try {
+            return postingCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rough heap footprint in bytes, assuming compressed object pointers: per-student map
+     * entries and name strings, per-term tree entries and trigrams, and four bytes per posting.
+     * Spare capacity in the posting arrays is not counted.
+     */
+    long estimatedMemoryBytes() {
+        lock.readLock().lock();
+        try {
+            return documentBytes + termBytes + 4 * postingCount
+                    + 4L * Integer.highestOneBit(Math.max(documents.size(), 1)) * 2
+                    + (32L + 16 + 24 + 16) * termsByTrigram.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // TreeMap entry + Term + String + trigram array + Postings and its array header, plus the
+    // term's slots in the trigram lists.
+    private static long termBytes(Term term) {
+        return 40 + 24 + stringBytes(term.text) + 16 + 8L * term.trigrams.length + 16 + 16
+                + 4L * term.trigrams.length;
+    }
+
+    // HashMap node + Integer key + Document, then its three Strings, assuming Latin-1 text.
+    private static long documentBytes(Document document) {
+        return 32 + 16 + 24
+                + stringBytes(document.firstName())
+                + stringBytes(document.lastName())
+                + stringBytes(document.schoolNumber());
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 24 + 16 + value.length();
+    }
+
+    /**
+     * Distinct normalized words of all {@code texts}, in order of appearance.
+     */
+    static Set<String> words(String... texts) {
+        Set<String> words = new LinkedHashSet<>();
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            for (String word : normalize(text).split(" ")) {
+                if (!word.isEmpty()) {
+                    words.add(word);
+                }
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Distinct padded trigrams of a single normalized word, sorted.
+     */
+    static long[] trigrams(String word) {
+        String padded = "  " + word + " ";
+        long[] result = new long[padded.length() - 2];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ((long) padded.charAt(i) << 32)
+                    | ((long) padded.charAt(i + 1) << 16)
+                    | padded.charAt(i + 2);
+        }
+        Arrays.sort(result);
+        int distinct = 0;
+        for (int i = 0; i < result.length; i++) {
+            if (distinct == 0 || result[distinct - 1] != result[i]) {
+                result[distinct++] = result[i];
+            }
+        }
+        return Arrays.copyOf(result, distinct);
+    }
+
+    private static boolean isNumeric(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (!Character.isDigit(word.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Lower case without accents, with everything but letters and digits turned into spaces.
+    private static String normalize(String text) {
+        String folded = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        folded = COMBINING_MARKS.matcher(folded).replaceAll("");
+        StringBuilder out = new StringBuilder(folded.length());
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            // Dotless i does not decompose, but is typed as a plain i often enough.
+            if (c == '\u0131') {
+                c = 'i';
+            }
+            out.append(Character.isLetterOrDigit(c) ? c : ' ');
+        }
+        return out.toString();
+    }
+
+    private static final class Term {
+        private static final long[] NONE = new long[0];
+
+        private final String text;
+        // Empty for all-digit terms, which are only matched by prefix.
+        private final long[] trigrams;
+        private final Postings students = new Postings();
+
+        Term(String text) {
+            this.text = text;
+            this.trigrams = isNumeric(text) ? NONE : TrigramIndex.trigrams(text);
+        }
+    }
+
+    /**
+     * Sorted, duplicate-free list of student ids. Ids are handed out in increasing order, so
+     * most additions are appends.
+     */
+    private static final class Postings {
+        private int[] ids = new int[2];
+        private int size;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int position = Arrays.binarySearch(ids, 0, size, id);
+                if (position >= 0) {
+                    return;
+                }
+                insertAt(-position - 1, id);
+                return;
+            }
+            insertAt(size, id);
+        }
+
+        private void insertAt(int position, int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        void remove(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+                size--;
+            }
+        }
+    }
+}
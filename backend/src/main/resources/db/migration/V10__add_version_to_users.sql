@@ -0,0 +1,2 @@
+-- Bumped on every change to a user or their roles; embedded in JWTs so stale tokens can be refused.
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
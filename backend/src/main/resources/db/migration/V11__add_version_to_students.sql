@@ -0,0 +1,3 @@
+-- Optimistic-locking version, incremented on every change to a student or their grades.
+-- Exposed as the student's ETag.
+ALTER TABLE students ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,9 @@
+-- Append-only log of student writes feeding GET /api/students/changes. seq is the sync cursor;
+-- deletes are kept as tombstones so clients can drop the student too.
+CREATE TABLE student_changes (
+    seq BIGINT NOT NULL AUTO_INCREMENT,
+    student_id INT NOT NULL,
+    change_type VARCHAR(10) NOT NULL,
+    recorded_at TIMESTAMP(3) NOT NULL,
+    PRIMARY KEY (seq)
+);
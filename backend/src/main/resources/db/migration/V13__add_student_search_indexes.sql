@@ -0,0 +1,4 @@
+-- GET /api/students/search: the class filter with the default lastName order is a single range
+-- scan, and course/grade filters are answered from student_courses without touching the rows.
+CREATE INDEX idx_students_class_last_name_id ON students (student_class, last_name, id);
+CREATE INDEX idx_student_courses_course_grade ON student_courses (course, grade);
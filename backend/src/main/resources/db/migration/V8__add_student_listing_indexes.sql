@@ -0,0 +1,4 @@
+-- Keyset pagination walks students in (sort key, id) order; these indexes let
+-- every page be a single index range scan regardless of table size.
+CREATE INDEX idx_students_last_name_id ON students (last_name, id);
+CREATE INDEX idx_students_school_number_id ON students (school_number, id);
@@ -0,0 +1,11 @@
+-- Hibernate table generator backing Student ids. Handing ids out in blocks lets inserts be
+-- JDBC-batched, which IDENTITY columns prevent. The seed leaves a full allocation block of
+-- headroom above any existing AUTO_INCREMENT ids.
+CREATE TABLE id_generators (
+    gen_name VARCHAR(64) NOT NULL,
+    next_val BIGINT NOT NULL,
+    PRIMARY KEY (gen_name)
+);
+
+INSERT INTO id_generators (gen_name, next_val)
+SELECT 'students', COALESCE(MAX(id), 0) + 101 FROM students;
@@ -0,0 +1,15 @@
+package com.example;
+
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Repository-level tests against an in-memory H2 database in MySQL mode, migrated by the same
+ * Flyway scripts as production. Use {@link AbstractIntegrationTest} when real MySQL behaviour matters.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public abstract class AbstractJpaTest {
+}
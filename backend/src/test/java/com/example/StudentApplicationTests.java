@@ -24,8 +24,11 @@ import com.example.entity.enums.Course;
 import com.example.entity.enums.Grade;
 import com.example.entity.enums.StudentClass;
 import com.example.payload.request.LoginRequest;
+import com.example.payload.response.CursorPage;
 import com.example.payload.response.JwtResponse;
+import com.example.payload.response.StudentView;
 import com.example.service.StudentService;
+import com.example.service.StudentSort;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -82,14 +85,14 @@ class StudentApplicationTests extends AbstractIntegrationTest {
 	void testGetAllStudents() throws Exception {
 		Map<Course, Grade> courses1 = new HashMap<>();
 		courses1.put(Course.COMPUTER_SCIENCE, Grade.A);
-		Student student1 = new Student(1, "John", "Doe", "12345", "2004-01-01", StudentClass.C1A, courses1);
+		StudentView student1 = new StudentView(1, "John", "Doe", "12345", "2004-01-01", StudentClass.C1A, courses1, 0L);
 
 		Map<Course, Grade> courses2 = new HashMap<>();
 		courses2.put(Course.PROGRAMMING, Grade.B);
-		Student student2 = new Student(2, "Jane", "Doe", "67890", "2002-01-01", StudentClass.C1B, courses2);
-		List<Student> allStudents = Arrays.asList(student1, student2);
+		StudentView student2 = new StudentView(2, "Jane", "Doe", "67890", "2002-01-01", StudentClass.C1B, courses2, 0L);
+		List<StudentView> allStudents = Arrays.asList(student1, student2);
 
-		given(studentService.getAllStudents()).willReturn(allStudents);
+		given(studentService.listStudents(StudentSort.ID, null, 50)).willReturn(new CursorPage<>(allStudents, null));
 
 		mockMvc.perform(get("/api/students")
 						.header("Authorization", "Bearer " + jwtToken))
@@ -104,7 +107,7 @@ class StudentApplicationTests extends AbstractIntegrationTest {
 	void testGetStudentById() throws Exception {
 		Map<Course, Grade> courses = new HashMap<>();
 		courses.put(Course.COMPUTER_SCIENCE, Grade.A);
-		Student student = new Student(1, "John", "Doe", "12345", "2004-01-01", StudentClass.C1A, courses);
+		StudentView student = new StudentView(1, "John", "Doe", "12345", "2004-01-01", StudentClass.C1A, courses, 0L);
 		given(studentService.getStudentById(1)).willReturn(student);
 
 		mockMvc.perform(get("/api/students/1")
@@ -0,0 +1,109 @@
+package com.example;
+
+import com.example.config.StatementCountingDataSource;
+import com.example.entity.Student;
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.repository.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards the number of SQL statements each student read endpoint issues, so that an N+1 on the
+ * course grades shows up as a test failure instead of a production slowdown. Statements are
+ * counted at the data source, so grades read through {@code JdbcTemplate} count as well as
+ * Hibernate's queries.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class StudentQueryBudgetTest {
+
+    private static final int STUDENTS = 120;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    private int firstId;
+    private long statementsBefore;
+
+    @BeforeEach
+    void setUp() {
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            Student student = new Student();
+            student.setFirstName("First" + i);
+            student.setLastName("Last" + i);
+            student.getCourses().put(Course.PROGRAMMING, Grade.A);
+            student.getCourses().put(Course.NETWORKING, Grade.B);
+            students.add(student);
+        }
+        firstId = studentRepository.saveAll(students).get(0).getId();
+        statementsBefore = StatementCountingDataSource.statements();
+    }
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAll();
+    }
+
+    @Test
+    void listPageLoadsStudentsAndGradesInTwoStatements() throws Exception {
+        mockMvc.perform(get("/api/students?size=100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(100)))
+                .andExpect(jsonPath("$[99].courses.NETWORKING").value("B"));
+
+        assertBudget(2);
+    }
+
+    @Test
+    void maximumPageIsStillOneQueryPlusGrades() throws Exception {
+        mockMvc.perform(get("/api/students?size=500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(STUDENTS)));
+
+        assertBudget(2);
+    }
+
+    @Test
+    void filteredSearchIsOneQueryPlusGrades() throws Exception {
+        mockMvc.perform(get("/api/students/search?course=NETWORKING&grade=B&lastNamePrefix=Last&size=100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(100)))
+                .andExpect(jsonPath("$[99].courses.PROGRAMMING").value("A"));
+
+        assertBudget(2);
+    }
+
+    @Test
+    void singleStudentLoadsGradesInTheSameStatement() throws Exception {
+        mockMvc.perform(get("/api/students/" + firstId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courses.PROGRAMMING").value("A"));
+
+        assertBudget(1);
+    }
+
+    private void assertBudget(int budget) {
+        assertEquals(budget, StatementCountingDataSource.statements() - statementsBefore, "SQL statements");
+    }
+}
@@ -0,0 +1,133 @@
+package com.example;
+
+import com.example.entity.Student;
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.repository.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards how many {@code student_courses} rows each student write touches: changing one grade
+ * must update one row, not delete and re-insert every grade of the student.
+ */
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.SqlStatementCounter")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@WithMockUser
+class StudentWriteBudgetTest {
+
+    private static final MediaType MERGE_PATCH = MediaType.parseMediaType("application/merge-patch+json");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    private int id;
+
+    @BeforeEach
+    void setUp() {
+        Student student = new Student();
+        student.setFirstName("Grace");
+        student.setLastName("Hopper");
+        for (Course course : List.of(Course.PROGRAMMING, Course.NETWORKING, Course.DATA_SCIENCE,
+                Course.CLOUD_COMPUTING, Course.COMPUTER_SCIENCE)) {
+            student.getCourses().put(course, Grade.B);
+        }
+        id = studentRepository.save(student).getId();
+        SqlStatementCounter.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAll();
+    }
+
+    @Test
+    void mergePatchOfOneGradeUpdatesOneRow() throws Exception {
+        mockMvc.perform(patch("/api/students/" + id).contentType(MERGE_PATCH)
+                        .content("{\"courses\":{\"NETWORKING\":\"A\"}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courses.NETWORKING").value("A"))
+                .andExpect(jsonPath("$.courses.PROGRAMMING").value("B"));
+
+        assertGradeWrites(0, 1, 0);
+    }
+
+    @Test
+    void mergePatchOfDetailsOnlyWritesNoGrades() throws Exception {
+        mockMvc.perform(patch("/api/students/" + id).contentType(MERGE_PATCH).content("{\"lastName\":\"Murray\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lastName").value("Murray"))
+                .andExpect(jsonPath("$.firstName").value("Grace"));
+
+        assertGradeWrites(0, 0, 0);
+    }
+
+    @Test
+    void mergePatchAddsAndDropsCoursesRowByRow() throws Exception {
+        mockMvc.perform(patch("/api/students/" + id).contentType(MERGE_PATCH)
+                        .content("{\"courses\":{\"CYBER_SECURITY\":\"C\",\"PROGRAMMING\":null}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courses.CYBER_SECURITY").value("C"))
+                .andExpect(jsonPath("$.courses.PROGRAMMING").doesNotExist());
+
+        assertGradeWrites(1, 0, 1);
+    }
+
+    @Test
+    void singleGradePutUpdatesOneRow() throws Exception {
+        mockMvc.perform(put("/api/students/" + id + "/courses/DATA_SCIENCE")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"grade\":\"E\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courses.DATA_SCIENCE").value("E"));
+
+        assertGradeWrites(0, 1, 0);
+    }
+
+    @Test
+    void fullPutWritesOnlyTheChangedGrade() throws Exception {
+        mockMvc.perform(put("/api/students/" + id).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Grace\",\"lastName\":\"Hopper\",\"courses\":{"
+                                + "\"PROGRAMMING\":\"B\",\"NETWORKING\":\"B\",\"DATA_SCIENCE\":\"B\","
+                                + "\"CLOUD_COMPUTING\":\"A\",\"COMPUTER_SCIENCE\":\"B\"}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courses.CLOUD_COMPUTING").value("A"));
+
+        assertGradeWrites(0, 1, 0);
+    }
+
+    private static void assertGradeWrites(int inserts, int updates, int deletes) {
+        List<String> gradeWrites = SqlStatementCounter.statements().stream()
+                .map(sql -> sql.toLowerCase(Locale.ROOT))
+                .filter(sql -> sql.contains("student_courses") && !sql.startsWith("select"))
+                .toList();
+        assertEquals(inserts, count(gradeWrites, "insert"), () -> "Inserts in " + gradeWrites);
+        assertEquals(updates, count(gradeWrites, "update"), () -> "Updates in " + gradeWrites);
+        assertEquals(deletes, count(gradeWrites, "delete"), () -> "Deletes in " + gradeWrites);
+    }
+
+    private static long count(List<String> statements, String verb) {
+        return statements.stream().filter(sql -> sql.startsWith(verb)).count();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.benchmark;
+
+import com.example.AbstractIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Floods {@code /api/auth/signin} over real HTTP while a single client keeps reading
+ * {@code /api/students}, and reports sign-in throughput, 503 rejections and the student
+ * endpoint's p50/p99 latency. Run with {@code mvn test -Dbenchmarks=true -Dtest=LoginFloodBenchmarkTest};
+ * {@code -Dbenchmark.login.clients=N} and {@code -Dbenchmark.login.seconds=N} change the load.
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class LoginFloodBenchmarkTest extends AbstractIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginFloodBenchmarkTest.class);
+
+    private static final String CREDENTIALS = "{\"username\":\"flood\",\"password\":\"flood-password\"}";
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    @DynamicPropertySource
+    static void benchmarkProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("logging.level.com.example", () -> "WARN");
+    }
+
+    @Test
+    void studentReadsDuringLoginFlood() throws Exception {
+        int clients = Integer.getInteger("benchmark.login.clients", 200);
+        long seconds = Long.getLong("benchmark.login.seconds", 20);
+
+        HttpResponse<String> signup = post("/api/auth/signup",
+                "{\"username\":\"flood\",\"email\":\"flood@example.com\",\"password\":\"flood-password\"}");
+        assertEquals(200, signup.statusCode(), signup.body());
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong signedIn = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        ExecutorService flood = Executors.newFixedThreadPool(clients);
+        for (int i = 0; i < clients; i++) {
+            flood.submit(() -> {
+                while (running.get()) {
+                    try {
+                        int status = post("/api/auth/signin", CREDENTIALS).statusCode();
+                        if (status == 200) {
+                            signedIn.incrementAndGet();
+                        } else if (status == 503) {
+                            rejected.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        if (e instanceof InterruptedException) {
+                            return null;
+                        }
+                    }
+                }
+                return null;
+            });
+        }
+
+        List<Long> latenciesMicros = new ArrayList<>();
+        HttpRequest read = HttpRequest.newBuilder(uri("/api/students?size=20")).GET().build();
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        while (System.nanoTime() < end) {
+            long requestStart = System.nanoTime();
+            client.send(read, HttpResponse.BodyHandlers.discarding());
+            latenciesMicros.add((System.nanoTime() - requestStart) / 1_000);
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        running.set(false);
+        flood.shutdownNow();
+        flood.awaitTermination(30, TimeUnit.SECONDS);
+
+        Collections.sort(latenciesMicros);
+        logger.info("Login flood: {} clients for {} s, {} sign-ins/s, {} rejected with 503", clients,
+                String.format("%.1f", elapsed), Math.round(signedIn.get() / elapsed), rejected.get());
+        logger.info("GET /api/students during flood: {} requests, p50 {} ms, p99 {} ms", latenciesMicros.size(),
+                percentile(latenciesMicros, 0.50) / 1000.0, percentile(latenciesMicros, 0.99) / 1000.0);
+    }
+
+    private HttpResponse<String> post(String path, String json) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        return sorted.get(Math.min(sorted.size() - 1, (int) Math.ceil(p * sorted.size()) - 1));
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.benchmark;
+
+import com.example.AbstractIntegrationTest;
+import com.example.entity.Student;
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.entity.enums.StudentClass;
+import com.example.payload.response.ImportResult;
+import com.example.service.StudentExportFormat;
+import com.example.service.StudentImportService;
+import com.example.service.StudentService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Import throughput against real MySQL: the batched CSV import versus one {@code insertStudent}
+ * call per row. Run with {@code mvn test -Dbenchmarks=true -Dtest=StudentImportBenchmarkTest};
+ * {@code -Dbenchmark.import.rows=N} changes the import size.
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class StudentImportBenchmarkTest extends AbstractIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentImportBenchmarkTest.class);
+
+    private static final int SINGLE_ROW_SAMPLE = 2_000;
+
+    @Autowired
+    private StudentImportService studentImportService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @DynamicPropertySource
+    static void batchingProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("spring.jpa.properties.hibernate.order_inserts", () -> "true");
+        registry.add("spring.datasource.hikari.data-source-properties.rewriteBatchedStatements", () -> "true");
+        registry.add("app.students.import.batch-size", () -> "500");
+    }
+
+    @Test
+    void batchedImportVersusSingleRowInserts() throws Exception {
+        int rows = Integer.getInteger("benchmark.import.rows", 200_000);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < SINGLE_ROW_SAMPLE; i++) {
+            studentService.insertStudent(generated(i));
+        }
+        double singleRowSeconds = (System.nanoTime() - start) / 1e9;
+
+        start = System.nanoTime();
+        ImportResult result = studentImportService.importStudents(StudentExportFormat.CSV, new GeneratedCsv(rows));
+        double importSeconds = (System.nanoTime() - start) / 1e9;
+
+        assertEquals(rows, result.getImported());
+        logger.info("Single-row inserts: {} rows in {} s ({} rows/s)", SINGLE_ROW_SAMPLE,
+                String.format("%.2f", singleRowSeconds), Math.round(SINGLE_ROW_SAMPLE / singleRowSeconds));
+        logger.info("Batched CSV import: {} rows in {} s ({} rows/s)", rows,
+                String.format("%.2f", importSeconds), Math.round(rows / importSeconds));
+    }
+
+    private static Student generated(int i) {
+        Student student = new Student();
+        student.setFirstName("First" + i);
+        student.setLastName("Last" + i);
+        student.setSchoolNumber(String.valueOf(100_000 + i));
+        student.setBirthDate("2008-01-01");
+        student.setStudentClass(StudentClass.values()[i % StudentClass.values().length]);
+        student.getCourses().put(Course.PROGRAMMING, Grade.values()[i % Grade.values().length]);
+        student.getCourses().put(Course.NETWORKING, Grade.values()[(i + 1) % Grade.values().length]);
+        return student;
+    }
+
+    /**
+     * Produces the CSV lazily so the benchmark itself does not hold the whole file in memory.
+     */
+    private static final class GeneratedCsv extends InputStream {
+        private final int rows;
+        private int next = -1;
+        private byte[] line = new byte[0];
+        private int position;
+
+        private GeneratedCsv(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read() {
+            if (position == line.length) {
+                if (next == rows) {
+                    return -1;
+                }
+                line = (next < 0 ? "firstName,lastName,schoolNumber,birthDate,studentClass,PROGRAMMING,NETWORKING"
+                        : csvLine(generated(next))).concat("\n").getBytes(StandardCharsets.UTF_8);
+                next++;
+                position = 0;
+            }
+            return line[position++];
+        }
+
+        private static String csvLine(Student student) {
+            return String.join(",", student.getFirstName(), student.getLastName(), student.getSchoolNumber(),
+                    student.getBirthDate(), student.getStudentClass().getValue(),
+                    student.getCourses().get(Course.PROGRAMMING).name(),
+                    student.getCourses().get(Course.NETWORKING).name());
+        }
+    }
+}
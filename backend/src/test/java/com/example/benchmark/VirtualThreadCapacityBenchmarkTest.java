@@ -0,0 +1,126 @@
+package com.example.benchmark;
+
+import com.example.AbstractIntegrationTest;
+import com.example.entity.Student;
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.service.StudentService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent-request capacity of the student endpoints with platform or virtual request threads,
+ * at the same Hikari pool size. Each client repeatedly reads one student with its grades.
+ * <p>
+ * Run once per mode and compare the logged numbers:
+ * <pre>
+ * mvn test -Pjava21 -Dbenchmarks=true -Dtest=VirtualThreadCapacityBenchmarkTest
+ * mvn test -Pjava21 -Dbenchmarks=true -Dtest=VirtualThreadCapacityBenchmarkTest -Dbenchmark.virtual-threads=true
+ * </pre>
+ * {@code -Dbenchmark.clients=N}, {@code -Dbenchmark.seconds=N} and {@code -Dbenchmark.hikari-pool-size=N}
+ * change the load and pool size.
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class VirtualThreadCapacityBenchmarkTest extends AbstractIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadCapacityBenchmarkTest.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private StudentService studentService;
+
+    @DynamicPropertySource
+    static void threadingProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.threads.virtual.enabled", () -> Boolean.getBoolean("benchmark.virtual-threads"));
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> Integer.getInteger("benchmark.hikari-pool-size", 10));
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+
+    @Test
+    void concurrentStudentReads() throws Exception {
+        int clients = Integer.getInteger("benchmark.clients", 1_000);
+        long seconds = Long.getLong("benchmark.seconds", 30);
+
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Student student = new Student();
+            student.setFirstName("First" + i);
+            student.setLastName("Last" + i);
+            student.setSchoolNumber(String.valueOf(50_000 + i));
+            student.getCourses().put(Course.PROGRAMMING, Grade.values()[i % Grade.values().length]);
+            ids.add(studentService.insertStudent(student).getId());
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newFixedThreadPool(64))
+                .build();
+        ExecutorService load = Executors.newFixedThreadPool(clients);
+        AtomicLong errors = new AtomicLong();
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Future<List<Long>>> results = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            int offset = c;
+            results.add(load.submit(() -> {
+                List<Long> latencies = new ArrayList<>();
+                int i = offset;
+                while (System.nanoTime() < end) {
+                    HttpRequest request = HttpRequest.newBuilder(
+                            URI.create("http://localhost:" + port + "/api/students/" + ids.get(i++ % ids.size())))
+                            .timeout(Duration.ofSeconds(30))
+                            .GET()
+                            .build();
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    latencies.add((System.nanoTime() - start) / 1_000);
+                }
+                return latencies;
+            }));
+        }
+
+        List<Long> latenciesMicros = new ArrayList<>();
+        for (Future<List<Long>> result : results) {
+            latenciesMicros.addAll(result.get());
+        }
+        load.shutdown();
+        Collections.sort(latenciesMicros);
+
+        logger.info("{} threads, {} clients, Hikari pool {}: {} req/s, p50 {} ms, p99 {} ms, {} errors",
+                Boolean.getBoolean("benchmark.virtual-threads") ? "Virtual" : "Platform", clients,
+                Integer.getInteger("benchmark.hikari-pool-size", 10), latenciesMicros.size() / seconds,
+                percentile(latenciesMicros, 0.50) / 1000.0, percentile(latenciesMicros, 0.99) / 1000.0, errors.get());
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        return sorted.get(Math.min(sorted.size() - 1, (int) Math.ceil(p * sorted.size()) - 1));
+    }
+}
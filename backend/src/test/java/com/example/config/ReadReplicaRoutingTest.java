@@ -0,0 +1,117 @@
+package com.example.config;
+
+import com.example.entity.Student;
+import com.example.event.StudentChangedEvent;
+import com.example.payload.response.StudentChanges;
+import com.example.payload.response.StudentView;
+import com.example.repository.StudentRepository;
+import com.example.service.StudentChangeLog;
+import com.example.service.StudentService;
+import com.example.service.StudentSort;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Two in-memory H2 databases stand in for a primary and a replica that replication never
+ * catches up with, so every read shows which of them it went to. Pinning is off, since the test
+ * request would otherwise pin every read after the first write. The change feed's settle time is
+ * off, so that changes are in the feed as soon as they commit.
+ */
+@SpringBootTest(properties = {
+        "app.datasource.replica-urls=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "app.datasource.replica-username=sa",
+        "app.datasource.replica-password=",
+        "app.datasource.primary-pin=0s",
+        "app.students.changes.settle-time=0s"})
+@ActiveProfiles("h2")
+class ReadReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replicadb;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    static {
+        // The replica needs the schema before the application starts reading from it.
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+    }
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StudentChangeLog studentChangeLog;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM student_changes");
+        replica.update("DELETE FROM student_courses");
+        replica.update("DELETE FROM students");
+    }
+
+    @Test
+    void writesGoToThePrimaryAndListsReadTheReplica() {
+        Student written = new Student();
+        written.setFirstName("OnPrimary");
+        int id = studentService.insertStudent(written).getId();
+        replica.update("INSERT INTO students (id, first_name, version) VALUES (?, 'OnReplica', 0)", id + 1000);
+
+        List<StudentView> listed = studentService.listStudents(StudentSort.ID, null, 10).getItems();
+
+        assertEquals(List.of("OnReplica"), listed.stream().map(StudentView::getFirstName).toList());
+        assertEquals(0, replica.queryForObject("SELECT COUNT(*) FROM students WHERE id = ?", Integer.class, id));
+        // Outside a transaction, so on the primary.
+        assertEquals("OnPrimary", jdbcTemplate.queryForObject("SELECT first_name FROM students WHERE id = ?",
+                String.class, id));
+    }
+
+    @Test
+    void cachedSingleStudentIsLoadedFromThePrimary() {
+        Student written = new Student();
+        written.setFirstName("OnPrimary");
+        int id = studentService.insertStudent(written).getId();
+
+        assertEquals("OnPrimary", studentService.getStudentById(id).getFirstName());
+    }
+
+    @Test
+    void changeFeedReadsThePrimary() {
+        Student written = new Student();
+        written.setFirstName("OnPrimary");
+        int id = studentService.insertStudent(written).getId();
+
+        StudentChanges changes = studentChangeLog.changesSince(0, 10);
+
+        assertEquals(1, changes.getChanges().size());
+        StudentChanges.Change change = changes.getChanges().get(0);
+        assertEquals(id, change.getId());
+        assertEquals(StudentChangedEvent.Type.INSERTED, change.getType());
+        assertEquals("OnPrimary", change.getStudent().getFirstName());
+    }
+
+    @Test
+    void replicaPassesHealthCheck() {
+        replicaRoutingDataSource.checkReplicas();
+
+        assertEquals(1, replicaRoutingDataSource.healthyReplicas());
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica1 = mock(DataSource.class);
+    private final DataSource replica2 = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replica1Connection = mock(Connection.class);
+    private final Connection replica2Connection = mock(Connection.class);
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica1.getConnection()).thenReturn(replica1Connection);
+        when(replica2.getConnection()).thenReturn(replica2Connection);
+        when(replica1Connection.isValid(2)).thenReturn(true);
+        when(replica2Connection.isValid(2)).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clear();
+        }
+        SecurityContextHolder.clearContext();
+    }
+
+    private ReplicaRoutingDataSource routing(Duration pin) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", replica1);
+        replicas.put("replica-2", replica2);
+        return new ReplicaRoutingDataSource(primary, replicas, Duration.ofMinutes(1), pin, new SimpleMeterRegistry());
+    }
+
+    private static void beginTransaction(boolean readOnly) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clear();
+        }
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplicasInTurn() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(Duration.ZERO);
+        beginTransaction(true);
+
+        assertEquals(List.of(replica1Connection, replica2Connection, replica1Connection),
+                List.of(routing.getConnection(), routing.getConnection(), routing.getConnection()));
+    }
+
+    @Test
+    void writesAndWorkOutsideTransactionsUseThePrimary() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(Duration.ZERO);
+
+        assertSame(primaryConnection, routing.getConnection());
+        beginTransaction(false);
+        assertSame(primaryConnection, routing.getConnection());
+    }
+
+    @Test
+    void onPrimaryOverridesReadOnlyRouting() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(Duration.ZERO);
+        beginTransaction(true);
+
+        assertSame(primaryConnection, ReplicaRoutingDataSource.onPrimary(() -> {
+            try {
+                return routing.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+        assertSame(replica1Connection, routing.getConnection());
+    }
+
+    @Test
+    void refusedReplicaIsSkippedUntilItPassesAHealthCheck() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(Duration.ZERO);
+        when(replica1.getConnection()).thenThrow(new SQLException("Connection refused"));
+        beginTransaction(true);
+
+        assertSame(replica2Connection, routing.getConnection());
+        assertSame(replica2Connection, routing.getConnection());
+        assertEquals(1, routing.healthyReplicas());
+
+        doReturn(replica1Connection).when(replica1).getConnection();
+        routing.checkReplicas();
+
+        assertEquals(2, routing.healthyReplicas());
+        assertEquals(List.of(replica1Connection, replica2Connection),
+                List.of(routing.getConnection(), routing.getConnection()));
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWithoutHealthyReplicas() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(Duration.ZERO);
+        when(replica1Connection.isValid(2)).thenReturn(false);
+        when(replica2.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        routing.checkReplicas();
+        beginTransaction(true);
+
+        assertEquals(0, routing.healthyReplicas());
+        assertSame(primaryConnection, routing.getConnection());
+    }
+
+    @Test
+    void writerReadsFromThePrimaryWhilePinned() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(Duration.ofMinutes(1));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+
+        beginTransaction(false);
+        routing.getConnection();
+        beginTransaction(true);
+        assertSame(primaryConnection, routing.getConnection());
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("bob", null, List.of()));
+        assertSame(replica1Connection, routing.getConnection());
+    }
+
+    @Test
+    void pinningCanBeTurnedOff() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(Duration.ZERO);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+
+        beginTransaction(false);
+        routing.getConnection();
+        beginTransaction(true);
+
+        assertSame(replica1Connection, routing.getConnection());
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.config;
+
+import com.example.repository.UserRepository;
+import com.example.security.jwt.JwtUtils;
+import com.example.security.services.UserDetailsServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "management.endpoints.web.exposure.include=prometheus",
+        "management.metrics.distribution.percentiles-histogram.http.server.requests=true",
+        "management.metrics.distribution.percentiles-histogram.security=true"})
+@AutoConfigureMockMvc
+// Tests otherwise swap the Prometheus registry for a simple one.
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("h2")
+class RequestMetricsTest {
+
+    private static final String USERNAME = "metricsuser";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @AfterEach
+    void tearDown() {
+        userRepository.findByUsername(USERNAME).ifPresent(userRepository::delete);
+    }
+
+    @Test
+    @WithMockUser
+    void prometheusScrapeCoversRequestsHibernateAndThePool() throws Exception {
+        mockMvc.perform(get("/api/students")).andExpect(status().isOk());
+        assertFalse(jwtUtils.validateJwtToken("not.a.token"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("nobody"));
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/plain"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertContains(scrape, "http_server_requests_seconds_bucket{", "uri=\"/api/students\"", "le=\"");
+        assertContains(scrape, "http_server_requests_statements_count{", "uri=\"/api/students\"");
+        assertContains(scrape, "hibernate_query_executions_total{", "entityManagerFactory=\"");
+        assertContains(scrape, "hibernate_collections_fetches_total{");
+        assertContains(scrape, "hikaricp_connections_acquire_seconds_count{");
+        assertContains(scrape, "security_jwt_validation_seconds_bucket{", "result=\"rejected\"", "le=\"");
+        assertContains(scrape, "security_user_lookup_seconds_count{", "result=\"not_found\"");
+    }
+
+    @Test
+    void signedInRequestsCountTheUserLookup() throws Exception {
+        mockMvc.perform(post("/api/auth/signup").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + USERNAME + "\",\"email\":\"metrics@example.com\","
+                                + "\"password\":\"secret123\"}"))
+                .andExpect(status().isOk());
+        String token = objectMapper.readTree(mockMvc.perform(post("/api/auth/signin")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + USERNAME + "\",\"password\":\"secret123\"}"))
+                .andReturn().getResponse().getContentAsString()).get("token").asText();
+
+        double anonymous = statements(get("/api/students"));
+        // Sign-in checks the password without the user cache, so this is the user's first lookup through it.
+        double signedIn = statements(get("/api/students").header("Authorization", "Bearer " + token));
+
+        assertTrue(signedIn > anonymous, "anonymous " + anonymous + ", signed in " + signedIn);
+    }
+
+    private double statements(MockHttpServletRequestBuilder request) throws Exception {
+        DistributionSummary summary = meterRegistry.find("http.server.requests.statements")
+                .tag("uri", "/api/students").summary();
+        double before = summary != null ? summary.totalAmount() : 0;
+        mockMvc.perform(request).andExpect(status().isOk());
+        return meterRegistry.get("http.server.requests.statements").tag("uri", "/api/students").summary()
+                .totalAmount() - before;
+    }
+
+    private static void assertContains(String scrape, String prefix, String... labels) {
+        assertTrue(scrape.lines().anyMatch(line -> line.startsWith(prefix)
+                && Arrays.stream(labels).allMatch(line::contains)), prefix + " missing from\n" + scrape);
+    }
+}
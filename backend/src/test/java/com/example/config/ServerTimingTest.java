@@ -0,0 +1,108 @@
+package com.example.config;
+
+import com.example.entity.Student;
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.repository.StudentRepository;
+import com.example.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"app.server-timing.enabled=true", "app.server-timing.sample-rate=1.0"})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class ServerTimingTest {
+
+    private static final String USERNAME = "timinguser";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAll();
+        userRepository.findByUsername(USERNAME).ifPresent(userRepository::delete);
+    }
+
+    @Test
+    void studentListBreaksDownIntoStatementsLogicAndSerialisation() throws Exception {
+        Student student = new Student();
+        student.setFirstName("Timed");
+        student.getCourses().put(Course.PROGRAMMING, Grade.A);
+        studentRepository.save(student);
+
+        String timing = mockMvc.perform(get("/api/students"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(ServerTiming.HEADER);
+
+        // The students and their grades, one statement each.
+        assertPhase(timing, "db", "2 statements");
+        assertPhase(timing, "app", "Service logic");
+        assertPhase(timing, "json", "JSON serialisation");
+        assertTrue(Pattern.compile("total;dur=\\d+\\.\\d{2}$").matcher(timing).find(), timing);
+        assertFalse(timing.contains("jwt;"), timing);
+    }
+
+    @Test
+    void signedInRequestsIncludeTheTokenCheckAndUserLookup() throws Exception {
+        String credentials = "{\"username\":\"" + USERNAME + "\",\"password\":\"secret123\"}";
+        mockMvc.perform(post("/api/auth/signup").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + USERNAME + "\",\"email\":\"timing@example.com\","
+                                + "\"password\":\"secret123\"}"))
+                .andExpect(status().isOk());
+        String token = objectMapper.readTree(mockMvc.perform(post("/api/auth/signin")
+                        .contentType(MediaType.APPLICATION_JSON).content(credentials))
+                .andReturn().getResponse().getContentAsString()).get("token").asText();
+
+        String timing = mockMvc.perform(get("/api/students").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(ServerTiming.HEADER);
+
+        assertPhase(timing, "jwt", "JWT verification");
+        assertPhase(timing, "user", "User lookup");
+    }
+
+    @Test
+    void responsesWithoutABodyGetTheHeaderToo() throws Exception {
+        Student student = new Student();
+        student.setFirstName("Unchanged");
+        int id = studentRepository.save(student).getId();
+        String eTag = mockMvc.perform(get("/api/students/{id}", id))
+                .andReturn().getResponse().getHeader("ETag");
+
+        String timing = mockMvc.perform(get("/api/students/{id}", id).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andReturn().getResponse().getHeader(ServerTiming.HEADER);
+
+        assertPhase(timing, "app", "Service logic");
+        assertFalse(timing.contains("json;"), timing);
+    }
+
+    private static void assertPhase(String timing, String name, String description) {
+        Pattern phase = Pattern.compile("(^|, )" + name + ";dur=\\d+\\.\\d{2};desc=\"" + description + "\"");
+        assertTrue(timing != null && phase.matcher(timing).find(), name + " missing from " + timing);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatementCountingDataSourceTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:statement-counting;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(new StatementCountingDataSource(h2));
+        jdbcTemplate.execute("CREATE TABLE items (id INT PRIMARY KEY)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE items");
+        ServerTiming.end();
+    }
+
+    @Test
+    void countsQueriesUpdatesAndBatchesOnThisThread() {
+        long before = StatementCountingDataSource.statements();
+
+        jdbcTemplate.update("INSERT INTO items (id) VALUES (?)", 1);
+        jdbcTemplate.batchUpdate("INSERT INTO items (id) VALUES (?)", List.of(new Object[]{2}, new Object[]{3}));
+        jdbcTemplate.queryForList("SELECT id FROM items", Integer.class);
+
+        assertEquals(3, StatementCountingDataSource.statements() - before);
+    }
+
+    @Test
+    void addsStatementsToTheCurrentServerTiming() {
+        ServerTiming timing = ServerTiming.begin();
+
+        jdbcTemplate.queryForList("SELECT id FROM items", Integer.class);
+        timing.handlerFinished();
+
+        String header = timing.takeHeader();
+        assertNotNull(header);
+        assertTrue(header.contains("desc=\"1 statement\""), header);
+    }
+}
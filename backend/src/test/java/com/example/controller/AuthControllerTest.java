@@ -7,7 +7,10 @@ import com.example.payload.request.LoginRequest;
 import com.example.payload.request.SignupRequest;
 import com.example.repository.RoleRepository;
 import com.example.repository.UserRepository;
+import com.example.exception.ServiceUnavailableException;
 import com.example.security.jwt.JwtUtils;
+import com.example.security.jwt.TokenVersionCache;
+import com.example.security.services.CachingUserDetailsService;
 import com.example.security.services.UserDetailsImpl;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,6 +20,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -32,6 +36,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -57,6 +62,12 @@ public class AuthControllerTest {
     @MockBean
     private JwtUtils jwtUtils;
 
+    @MockBean
+    private TokenVersionCache tokenVersionCache;
+
+    @MockBean
+    private CachingUserDetailsService cachingUserDetailsService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -86,6 +97,40 @@ public class AuthControllerTest {
                 .andExpect(jsonPath("$.username").value("testuser"));
     }
 
+    @Test
+    void testAuthenticateUser_WhenHashingPoolSaturated_Returns503() throws Exception {
+        LoginRequest loginRequest = new LoginRequest();
+        loginRequest.setUsername("testuser");
+        loginRequest.setPassword("password");
+
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenThrow(new ServiceUnavailableException("Too many sign-in requests, please retry shortly", 1));
+
+        mockMvc.perform(post("/api/auth/signin").with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.status").value(503));
+    }
+
+    @Test
+    void testAuthenticateUser_WhenHashingPoolSaturatedForUnknownUser_Returns503() throws Exception {
+        LoginRequest loginRequest = new LoginRequest();
+        loginRequest.setUsername("nobody");
+        loginRequest.setPassword("password");
+
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenThrow(new InternalAuthenticationServiceException("Too many sign-in requests, please retry shortly",
+                        new ServiceUnavailableException("Too many sign-in requests, please retry shortly", 1)));
+
+        mockMvc.perform(post("/api/auth/signin").with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
     @Test
     void testRegisterUser_Success() throws Exception {
         SignupRequest signupRequest = new SignupRequest();
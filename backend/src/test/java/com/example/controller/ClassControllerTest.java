@@ -0,0 +1,166 @@
+package com.example.controller;
+
+import com.example.config.SecurityConfig;
+import com.example.entity.enums.Grade;
+import com.example.exception.BadRequestException;
+import com.example.exception.ResourceNotFoundException;
+import com.example.payload.response.BulkResult;
+import com.example.payload.response.ClassRanking;
+import com.example.payload.response.RankedStudent;
+import com.example.security.jwt.AuthEntryPointJwt;
+import com.example.security.jwt.JwtUtils;
+import com.example.security.jwt.TokenVersionCache;
+import com.example.security.services.CachingUserDetailsService;
+import com.example.security.services.UserDetailsServiceImpl;
+import com.example.service.ClassRankings;
+import com.example.service.StudentBulkService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Imported so that @PreAuthorize is enforced, as it is in the application.
+@WebMvcTest(ClassController.class)
+@Import({SecurityConfig.class, AuthEntryPointJwt.class})
+@WithMockUser
+public class ClassControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ClassRankings classRankings;
+
+    @MockBean
+    private StudentBulkService studentBulkService;
+
+    // Mock these beans to satisfy Spring Security configuration during test
+    @MockBean
+    private UserDetailsServiceImpl userDetailsService;
+
+    @MockBean
+    private JwtUtils jwtUtils;
+
+    @MockBean
+    private TokenVersionCache tokenVersionCache;
+
+    @MockBean
+    private CachingUserDetailsService cachingUserDetailsService;
+
+    @Test
+    void testGetRanking() throws Exception {
+        RankedStudent first = new RankedStudent(1, 7, "Ada", "Lovelace", "0000007", 4.0, 3);
+        RankedStudent second = new RankedStudent(2, 3, "Alan", "Turing", "0000003", 3.5, 2);
+        when(classRankings.top("2B", 2)).thenReturn(new ClassRanking("2B", 12, List.of(first, second)));
+
+        mockMvc.perform(get("/api/classes/2B/ranking").param("top", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.studentClass", is("2B")))
+                .andExpect(jsonPath("$.ranked", is(12)))
+                .andExpect(jsonPath("$.students[0].id", is(7)))
+                .andExpect(jsonPath("$.students[1].rank", is(2)))
+                .andExpect(jsonPath("$.students[1].gpa", is(3.5)));
+    }
+
+    @Test
+    void testGetRanking_DefaultTop() throws Exception {
+        when(classRankings.top("2B", 10)).thenReturn(new ClassRanking("2B", 0, List.of()));
+
+        mockMvc.perform(get("/api/classes/2B/ranking"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.students.length()", is(0)));
+    }
+
+    @Test
+    void testGetRanking_UnknownClass() throws Exception {
+        when(classRankings.top("9Z", 10)).thenThrow(new BadRequestException("Unknown student class: 9Z"));
+
+        mockMvc.perform(get("/api/classes/9Z/ranking"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetStudentRank() throws Exception {
+        when(classRankings.rankOf("2B", 3)).thenReturn(new RankedStudent(5, 3, "Alan", "Turing", "0000003", 3.5, 2));
+
+        mockMvc.perform(get("/api/classes/2B/ranking/3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rank", is(5)))
+                .andExpect(jsonPath("$.gradedCourses", is(2)));
+    }
+
+    @Test
+    void testGetStudentRank_NotRanked() throws Exception {
+        when(classRankings.rankOf("2B", 4))
+                .thenThrow(new ResourceNotFoundException("Student 4 is not ranked in class 2B"));
+
+        mockMvc.perform(get("/api/classes/2B/ranking/4"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testPromoteClass() throws Exception {
+        when(studentBulkService.promoteClass("1A")).thenReturn(new BulkResult(27, 27, 0, 0, 0, 0));
+
+        mockMvc.perform(post("/api/classes/1A/promote"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matched", is(27)))
+                .andExpect(jsonPath("$.studentsUpdated", is(27)));
+    }
+
+    @Test
+    void testPromoteClass_NotAdmin() throws Exception {
+        mockMvc.perform(post("/api/classes/1A/promote"))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(studentBulkService);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testMoveClass_FinalYear() throws Exception {
+        when(studentBulkService.moveClass("4A", "4A"))
+                .thenThrow(new BadRequestException("Students are already in class 4A"));
+
+        mockMvc.perform(post("/api/classes/4A/move").param("to", "4A"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testPutGrades() throws Exception {
+        when(studentBulkService.upsertGrades("2B", "PROGRAMMING", Map.of(3, Grade.A, 7, Grade.C)))
+                .thenReturn(new BulkResult(2, 2, 0, 1, 1, 0));
+
+        mockMvc.perform(put("/api/classes/2B/courses/PROGRAMMING/grades")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"3\":\"A\",\"7\":\"C\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.gradesInserted", is(1)))
+                .andExpect(jsonPath("$.gradesUpdated", is(1)));
+    }
+
+    @Test
+    void testPutGrades_UnknownGrade() throws Exception {
+        mockMvc.perform(put("/api/classes/2B/courses/PROGRAMMING/grades")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"3\":\"F\"}"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(studentBulkService);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.controller;
+
+import com.example.config.SecurityConfig;
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.payload.response.GradeDistribution;
+import com.example.payload.response.GradeRollupCheck;
+import com.example.payload.response.GradeStats;
+import com.example.security.jwt.AuthEntryPointJwt;
+import com.example.security.jwt.JwtUtils;
+import com.example.security.jwt.TokenVersionCache;
+import com.example.security.services.CachingUserDetailsService;
+import com.example.security.services.UserDetailsServiceImpl;
+import com.example.service.GradeRollups;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Imported so that @PreAuthorize is enforced, as it is in the application.
+@WebMvcTest(StatsController.class)
+@Import({SecurityConfig.class, AuthEntryPointJwt.class})
+public class StatsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private GradeRollups gradeRollups;
+
+    // Mock these beans to satisfy Spring Security configuration during test
+    @MockBean
+    private UserDetailsServiceImpl userDetailsService;
+
+    @MockBean
+    private JwtUtils jwtUtils;
+
+    @MockBean
+    private TokenVersionCache tokenVersionCache;
+
+    @MockBean
+    private CachingUserDetailsService cachingUserDetailsService;
+
+    @Test
+    @WithMockUser
+    void testGetGradeStats() throws Exception {
+        GradeDistribution distribution = new GradeDistribution(2, Map.of(Grade.A, 1L, Grade.C, 1L), 3.0);
+        when(gradeRollups.getStats()).thenReturn(new GradeStats(Map.of("2B", distribution),
+                Map.of(Course.CLOUD_COMPUTING, distribution), distribution));
+
+        mockMvc.perform(get("/api/stats/grades"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.studentClasses.2B.total", is(2)))
+                .andExpect(jsonPath("$.courses.CLOUD_COMPUTING.grades.A", is(1)))
+                .andExpect(jsonPath("$.overall.averageGpa", is(3.0)));
+    }
+
+    @Test
+    void testGetGradeStats_Unauthenticated() throws Exception {
+        mockMvc.perform(get("/api/stats/grades"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testVerifyGradeStats() throws Exception {
+        when(gradeRollups.verify(true)).thenReturn(new GradeRollupCheck(false, false, true, 12, List.of(
+                new GradeRollupCheck.Mismatch("1A", Course.DATA_SCIENCE, Grade.B, 5, 4))));
+
+        mockMvc.perform(post("/api/stats/grades/verify").param("repair", "true").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.consistent", is(false)))
+                .andExpect(jsonPath("$.repaired", is(true)))
+                .andExpect(jsonPath("$.mismatches[0].expected", is(5)));
+    }
+
+    @Test
+    @WithMockUser
+    void testVerifyGradeStats_RequiresAdmin() throws Exception {
+        mockMvc.perform(post("/api/stats/grades/verify").with(csrf()))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(gradeRollups);
+    }
+}
@@ -1,35 +1,80 @@
 package com.example.controller;
 
+import com.example.config.SecurityConfig;
 import com.example.entity.Student;
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.entity.enums.StudentClass;
+import com.example.event.StudentChangedEvent;
+import com.example.payload.response.BulkResult;
+import com.example.payload.response.CursorPage;
+import com.example.payload.response.StudentChanges;
+import com.example.payload.response.StudentFacets;
+import com.example.payload.response.StudentSuggestion;
+import com.example.security.jwt.AuthEntryPointJwt;
 import com.example.security.jwt.JwtUtils;
+import com.example.security.jwt.TokenVersionCache;
+import com.example.security.services.CachingUserDetailsService;
 import com.example.security.services.UserDetailsServiceImpl;
+import com.example.service.StudentBulkService;
+import com.example.service.StudentChangeLog;
+import com.example.service.StudentEventBroadcaster;
+import com.example.service.StudentExportFormat;
+import com.example.service.StudentExportService;
+import com.example.service.StudentFacetIndex;
+import com.example.service.StudentImportService;
+import com.example.service.StudentMergePatch;
+import com.example.service.StudentNameIndex;
+import com.example.service.StudentSearchCriteria;
+import com.example.payload.response.ImportResult;
+import com.example.payload.response.StudentView;
 import com.example.service.StudentService;
+import com.example.service.StudentSort;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import com.example.exception.PreconditionFailedException;
 import com.example.exception.ResourceNotFoundException;
+import com.example.exception.ServiceUnavailableException;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+// Imported so that the application's CORS configuration applies, as it does in the application.
 @WebMvcTest(StudentController.class)
+@Import({SecurityConfig.class, AuthEntryPointJwt.class})
 public class StudentControllerTest {
 
     @Autowired
@@ -38,6 +83,27 @@ public class StudentControllerTest {
     @MockBean
     private StudentService studentService;
 
+    @MockBean
+    private StudentExportService studentExportService;
+
+    @MockBean
+    private StudentImportService studentImportService;
+
+    @MockBean
+    private StudentChangeLog studentChangeLog;
+
+    @MockBean
+    private StudentEventBroadcaster studentEventBroadcaster;
+
+    @MockBean
+    private StudentNameIndex studentNameIndex;
+
+    @MockBean
+    private StudentFacetIndex studentFacetIndex;
+
+    @MockBean
+    private StudentBulkService studentBulkService;
+
     // Mock these beans to satisfy Spring Security configuration during test
     @MockBean
     private UserDetailsServiceImpl userDetailsService;
@@ -45,13 +111,22 @@ public class StudentControllerTest {
     @MockBean
     private JwtUtils jwtUtils;
 
+    @MockBean
+    private TokenVersionCache tokenVersionCache;
+
+    @MockBean
+    private CachingUserDetailsService cachingUserDetailsService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
     private Student student;
 
+    private StudentView view;
+
     @BeforeEach
     void setUp() {
+        view = new StudentView(1, "John", "Doe", null, null, null, Map.of(), 3L);
         student = new Student();
         student.setId(1);
         student.setFirstName("John");
@@ -61,24 +136,202 @@ public class StudentControllerTest {
     @Test
     @WithMockUser // Add mock user to satisfy security context
     void testGetAllStudents() throws Exception {
-        when(studentService.getAllStudents()).thenReturn(Collections.singletonList(student));
+        when(studentService.listStudents(eq(StudentSort.ID), isNull(), eq(50)))
+                .thenReturn(new CursorPage<>(Collections.singletonList(view), null));
 
         mockMvc.perform(get("/api/students"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Link"))
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].firstName", is("John")));
     }
 
+    @Test
+    @WithMockUser
+    void testGetAllStudents_NextPageLink() throws Exception {
+        when(studentService.listStudents(StudentSort.LAST_NAME, null, 1))
+                .thenReturn(new CursorPage<>(Collections.singletonList(view), "abc"));
+
+        mockMvc.perform(get("/api/students?size=1&sort=lastName"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Link",
+                        "<http://localhost/api/students?size=1&sort=lastName&cursor=abc>; rel=\"next\""));
+    }
+
+    @Test
+    @WithMockUser
+    void testGetAllStudents_UnknownSort() throws Exception {
+        mockMvc.perform(get("/api/students").param("sort", "birthDate"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void testGetChanges() throws Exception {
+        when(studentChangeLog.changesSince(10L, 2)).thenReturn(new StudentChanges(List.of(
+                new StudentChanges.Change(1, StudentChangedEvent.Type.UPDATED, view),
+                new StudentChanges.Change(2, StudentChangedEvent.Type.DELETED, null)), 12L, true));
+
+        mockMvc.perform(get("/api/students/changes?since=10&limit=2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cursor", is(12)))
+                .andExpect(jsonPath("$.hasMore", is(true)))
+                .andExpect(jsonPath("$.changes", hasSize(2)))
+                .andExpect(jsonPath("$.changes[0].type", is("UPDATED")))
+                .andExpect(jsonPath("$.changes[0].student.firstName", is("John")))
+                .andExpect(jsonPath("$.changes[1].type", is("DELETED")))
+                .andExpect(jsonPath("$.changes[1].student").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser
+    void testStreamStudentChanges() throws Exception {
+        SseEmitter emitter = new SseEmitter();
+        when(studentEventBroadcaster.subscribe()).thenReturn(emitter);
+
+        MvcResult result = mockMvc.perform(get("/api/students/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        emitter.send(SseEmitter.event().name("UPDATED").data("{\"studentId\":1}"));
+        emitter.complete();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/event-stream"))
+                .andExpect(content().string("event:UPDATED\ndata:{\"studentId\":1}\n\n"));
+    }
+
+    @Test
+    @WithMockUser
+    void testStreamStudentChanges_TooManySubscribers() throws Exception {
+        when(studentEventBroadcaster.subscribe())
+                .thenThrow(new ServiceUnavailableException("Too many open student streams, please retry later", 5));
+
+        mockMvc.perform(get("/api/students/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "5"));
+    }
+
+    @Test
+    @WithMockUser
+    void testSearchStudents() throws Exception {
+        when(studentService.searchStudents(any(StudentSearchCriteria.class), eq(StudentSort.LAST_NAME), isNull(), eq(20)))
+                .thenReturn(new CursorPage<>(Collections.singletonList(view), "abc"));
+
+        mockMvc.perform(get("/api/students/search?studentClass=2B&course=DATA_SCIENCE&grade=A&size=20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().string("Link",
+                        "<http://localhost/api/students/search?studentClass=2B&course=DATA_SCIENCE&grade=A&size=20&cursor=abc>; rel=\"next\""));
+    }
+
+    @Test
+    @WithMockUser
+    void testSearchStudents_UnknownCourse() throws Exception {
+        mockMvc.perform(get("/api/students/search").param("course", "ALCHEMY"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(studentService);
+    }
+
+    @Test
+    @WithMockUser
+    void testSuggestStudents() throws Exception {
+        when(studentNameIndex.suggest("jon do", 5))
+                .thenReturn(List.of(new StudentSuggestion(1, "John", "Doe", "00042", 0.5)));
+
+        mockMvc.perform(get("/api/students/suggest").param("q", "jon do").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[0].lastName", is("Doe")))
+                .andExpect(jsonPath("$[0].score", is(0.5)));
+    }
+
+    @Test
+    @WithMockUser
+    void testGetStudentFacets() throws Exception {
+        when(studentFacetIndex.facets(any(StudentSearchCriteria.class))).thenReturn(new StudentFacets(3,
+                Map.of("1A", 1, "2B", 2), Map.of(Course.CLOUD_COMPUTING, Map.of(Grade.A, 3))));
+
+        mockMvc.perform(get("/api/students/facets").param("course", "cloud_computing").param("grade", "A"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(3)))
+                .andExpect(jsonPath("$.studentClasses.2B", is(2)))
+                .andExpect(jsonPath("$.grades.CLOUD_COMPUTING.A", is(3)));
+
+        verify(studentFacetIndex).facets(argThat(criteria -> criteria.getStudentClass() == null
+                && criteria.getCourse() == Course.CLOUD_COMPUTING && criteria.getGrade() == Grade.A));
+    }
+
+    @Test
+    @WithMockUser
+    void testGetStudentFacets_UnknownGrade() throws Exception {
+        mockMvc.perform(get("/api/students/facets").param("grade", "F"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void testExportStudents_Csv() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("id\r\n1\r\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(studentExportService).export(eq(StudentExportFormat.CSV), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/students/export?format=csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"students.csv\""))
+                .andExpect(content().string("id\r\n1\r\n"));
+    }
+
+    @Test
+    @WithMockUser
+    void testExportStudents_UnknownFormat() throws Exception {
+        mockMvc.perform(get("/api/students/export?format=xml"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @WithMockUser // Add mock user to satisfy security context
     void testGetStudentById() throws Exception {
-        when(studentService.getStudentById(1)).thenReturn(student);
+        when(studentService.getStudentById(1)).thenReturn(view);
 
         mockMvc.perform(get("/api/students/1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.firstName", is("John")));
     }
 
+    @Test
+    @WithMockUser
+    void testGetStudentById_SendsETag() throws Exception {
+        when(studentService.getStudentById(1)).thenReturn(view);
+
+        mockMvc.perform(get("/api/students/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(jsonPath("$.version").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser
+    void testGetStudentById_NotModified() throws Exception {
+        when(studentService.getStudentById(1)).thenReturn(view);
+
+        mockMvc.perform(get("/api/students/1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/api/students/1").header("If-None-Match", "\"2\""))
+                .andExpect(status().isOk());
+    }
+
     @Test
     @WithMockUser
     void testGetStudentById_NotFound() throws Exception {
@@ -109,7 +362,7 @@ public class StudentControllerTest {
         updatedStudent.setFirstName("Jane");
         updatedStudent.setLastName("Doe");
 
-        when(studentService.updateStudent(anyInt(), any(Student.class))).thenReturn(updatedStudent);
+        when(studentService.updateStudent(anyInt(), any(Student.class), isNull())).thenReturn(updatedStudent);
 
         mockMvc.perform(put("/api/students/1").with(csrf())
                         .contentType(MediaType.APPLICATION_JSON)
@@ -118,13 +371,56 @@ public class StudentControllerTest {
                 .andExpect(jsonPath("$.firstName", is("Jane")));
     }
 
+    @Test
+    @WithMockUser(username="admin", roles={"ADMIN"})
+    void testUpdateStudent_IfMatch() throws Exception {
+        Student updatedStudent = new Student();
+        updatedStudent.setId(1);
+        updatedStudent.setFirstName("Jane");
+        updatedStudent.setVersion(4L);
+
+        when(studentService.updateStudent(eq(1), any(Student.class), eq(3L))).thenReturn(updatedStudent);
+
+        mockMvc.perform(put("/api/students/1").with(csrf())
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updatedStudent)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+    }
+
+    @Test
+    @WithMockUser(username="admin", roles={"ADMIN"})
+    void testUpdateStudent_StaleIfMatch() throws Exception {
+        when(studentService.updateStudent(eq(1), any(Student.class), eq(2L)))
+                .thenThrow(new PreconditionFailedException("Student 1 has been modified since version 2"));
+
+        mockMvc.perform(put("/api/students/1").with(csrf())
+                        .header("If-Match", "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(student)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status", is(412)));
+    }
+
+    @Test
+    @WithMockUser(username="admin", roles={"ADMIN"})
+    void testUpdateStudent_WeakIfMatchNeverMatches() throws Exception {
+        mockMvc.perform(put("/api/students/1").with(csrf())
+                        .header("If-Match", "W/\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(student)))
+                .andExpect(status().isPreconditionFailed());
+        verifyNoInteractions(studentService);
+    }
+
     @Test
     @WithMockUser(username="admin", roles={"ADMIN"})
     void testUpdateStudent_NotFound() throws Exception {
         Student updatedStudent = new Student();
         updatedStudent.setFirstName("Jane");
 
-        when(studentService.updateStudent(anyInt(), any(Student.class))).thenThrow(new ResourceNotFoundException("Student not found"));
+        when(studentService.updateStudent(anyInt(), any(Student.class), isNull())).thenThrow(new ResourceNotFoundException("Student not found"));
 
         mockMvc.perform(put("/api/students/99").with(csrf())
                         .contentType(MediaType.APPLICATION_JSON)
@@ -132,6 +428,72 @@ public class StudentControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @WithMockUser(username="admin", roles={"ADMIN"})
+    void testPatchStudent() throws Exception {
+        Student patchedStudent = new Student();
+        patchedStudent.setId(1);
+        patchedStudent.setLastName("Roe");
+        patchedStudent.setVersion(4L);
+
+        when(studentService.patchStudent(eq(1), any(StudentMergePatch.class), eq(3L))).thenReturn(patchedStudent);
+
+        mockMvc.perform(patch("/api/students/1").with(csrf())
+                        .header("If-Match", "\"3\"")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"lastName\":\"Roe\",\"courses\":{\"PROGRAMMING\":null}}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.lastName", is("Roe")));
+    }
+
+    @Test
+    void testPatchStudent_CorsPreflight() throws Exception {
+        mockMvc.perform(options("/api/students/1")
+                        .header("Origin", "http://localhost:3000")
+                        .header("Access-Control-Request-Method", "PATCH")
+                        .header("Access-Control-Request-Headers", "content-type,if-match"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Access-Control-Allow-Origin", "http://localhost:3000"))
+                .andExpect(header().string("Access-Control-Allow-Methods", containsString("PATCH")));
+    }
+
+    @Test
+    @WithMockUser(username="admin", roles={"ADMIN"})
+    void testPatchStudent_UnknownField() throws Exception {
+        mockMvc.perform(patch("/api/students/1").with(csrf())
+                        .contentType("application/merge-patch+json")
+                        .content("{\"version\":9}"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(studentService);
+    }
+
+    @Test
+    @WithMockUser(username="admin", roles={"ADMIN"})
+    void testPutGrade() throws Exception {
+        Student updatedStudent = new Student();
+        updatedStudent.setId(1);
+        updatedStudent.getCourses().put(Course.PROGRAMMING, Grade.A);
+
+        when(studentService.patchStudent(eq(1), any(StudentMergePatch.class), isNull())).thenReturn(updatedStudent);
+
+        mockMvc.perform(put("/api/students/1/courses/PROGRAMMING").with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"grade\":\"A\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courses.PROGRAMMING", is("A")));
+    }
+
+    @Test
+    @WithMockUser(username="admin", roles={"ADMIN"})
+    void testPutGrade_UnknownCourse() throws Exception {
+        mockMvc.perform(put("/api/students/1/courses/ALCHEMY").with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"grade\":\"A\"}"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(studentService);
+    }
+
     @Test
     @WithMockUser(username="admin", roles={"ADMIN"})
     void testDeleteStudentById() throws Exception {
@@ -149,4 +511,50 @@ public class StudentControllerTest {
         mockMvc.perform(delete("/api/students/99").with(csrf()))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    @WithMockUser(username="admin", roles={"ADMIN"})
+    void testDeleteStudents() throws Exception {
+        when(studentBulkService.deleteStudents(argThat(criteria -> criteria.getStudentClass() == StudentClass.C4B
+                && criteria.getGrade() == Grade.E))).thenReturn(new BulkResult(3, 0, 3, 0, 0, 7));
+
+        mockMvc.perform(delete("/api/students").with(csrf()).param("studentClass", "4B").param("grade", "E"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.studentsDeleted", is(3)))
+                .andExpect(jsonPath("$.gradesDeleted", is(7)));
+    }
+
+    @Test
+    @WithMockUser(username="admin", roles={"ADMIN"})
+    void testDeleteStudents_UnknownClass() throws Exception {
+        mockMvc.perform(delete("/api/students").with(csrf()).param("studentClass", "9Z"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(studentBulkService);
+    }
+
+    @Test
+    @WithMockUser(username="admin", roles={"ADMIN"})
+    void testImportStudents_Ndjson() throws Exception {
+        ImportResult result = new ImportResult();
+        result.recordImported(1);
+        result.recordFailure(2, "bad line");
+        when(studentImportService.importStudents(eq(StudentExportFormat.NDJSON), any(InputStream.class))).thenReturn(result);
+
+        mockMvc.perform(post("/api/students/import").with(csrf())
+                        .contentType("application/x-ndjson")
+                        .content("{\"firstName\":\"John\"}\nnot json\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.errors[0].line", is(2)));
+    }
+
+    @Test
+    @WithMockUser(username="admin", roles={"ADMIN"})
+    void testImportStudents_UnsupportedMediaType() throws Exception {
+        mockMvc.perform(post("/api/students/import").with(csrf())
+                        .contentType(MediaType.APPLICATION_XML)
+                        .content("<students/>"))
+                .andExpect(status().isUnsupportedMediaType());
+    }
 }
@@ -0,0 +1,169 @@
+package com.example.repository;
+
+import com.example.AbstractJpaTest;
+import com.example.entity.Student;
+import com.example.payload.response.CursorPage;
+import com.example.payload.response.StudentView;
+import com.example.entity.enums.StudentClass;
+import com.example.service.StudentCache;
+import com.example.service.StudentSearchCriteria;
+import com.example.service.StudentService;
+import com.example.service.StudentSort;
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class StudentRepositoryTest extends AbstractJpaTest {
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private StudentService studentService;
+
+    @BeforeEach
+    void setUp() {
+        studentService = new StudentService(studentRepository, new StudentViewRepository(entityManager, jdbcTemplate),
+                new StudentCache(new SimpleMeterRegistry(), Duration.ofMinutes(10), 100), event -> { });
+        // Duplicate and missing last names exercise the id tie-breaker and the NULL block.
+        String[] lastNames = {"Doe", null, "Adams", "Doe", "Zed", null, "Doe", "Baker"};
+        for (int i = 0; i < lastNames.length; i++) {
+            Student student = new Student();
+            student.setFirstName("Student" + i);
+            student.setLastName(lastNames[i]);
+            student.setSchoolNumber(String.format("%05d", 100 - i));
+            studentRepository.save(student);
+        }
+    }
+
+    @Test
+    void keysetPagesVisitEveryRowOnceInSortOrder() {
+        for (StudentSort sort : StudentSort.values()) {
+            List<Student> expected = studentRepository.findAll(sort.toSort());
+            List<StudentView> visited = new ArrayList<>();
+            String cursor = null;
+            do {
+                CursorPage<StudentView> page = studentService.listStudents(sort, cursor, 3);
+                visited.addAll(page.getItems());
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+
+            assertEquals(ids(expected), viewIds(visited), "sort " + sort);
+        }
+    }
+
+    @Test
+    void exactMultipleOfPageSizeEndsWithoutEmptyPage() {
+        CursorPage<StudentView> first = studentService.listStudents(StudentSort.ID, null, 4);
+        CursorPage<StudentView> second = studentService.listStudents(StudentSort.ID, first.getNextCursor(), 4);
+
+        assertEquals(4, second.getItems().size());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void searchCombinesClassCourseAndGrade() {
+        Student match = save("Match", "Ng", StudentClass.C2B, Course.DATA_SCIENCE, Grade.A);
+        save("WrongGrade", "Ng", StudentClass.C2B, Course.DATA_SCIENCE, Grade.B);
+        save("WrongCourse", "Ng", StudentClass.C2B, Course.NETWORKING, Grade.A);
+        save("WrongClass", "Ng", StudentClass.C3A, Course.DATA_SCIENCE, Grade.A);
+
+        CursorPage<StudentView> page = studentService.searchStudents(
+                StudentSearchCriteria.fromParameters("2b", "data_science", "A", null, null), StudentSort.LAST_NAME, null, 10);
+
+        assertEquals(List.of(match.getId()), viewIds(page.getItems()));
+    }
+
+    @Test
+    void searchByGradeAloneReturnsEachStudentOnce() {
+        Student student = save("Twice", "Ace", null, Course.DATA_SCIENCE, Grade.A);
+        student.getCourses().put(Course.NETWORKING, Grade.A);
+        studentRepository.save(student);
+
+        CursorPage<StudentView> page = studentService.searchStudents(
+                StudentSearchCriteria.fromParameters(null, null, "A", null, null), StudentSort.ID, null, 10);
+
+        assertEquals(List.of(student.getId()), viewIds(page.getItems()));
+    }
+
+    @Test
+    void searchByLastNamePrefixTreatsWildcardsLiterally() {
+        Student percent = save("Percent", "50% Off", null, null, null);
+        save("Other", "500", null, null, null);
+
+        CursorPage<StudentView> doe = studentService.searchStudents(
+                StudentSearchCriteria.fromParameters(null, null, null, "Do", null), StudentSort.LAST_NAME, null, 10);
+        CursorPage<StudentView> literal = studentService.searchStudents(
+                StudentSearchCriteria.fromParameters(null, null, null, "50%", null), StudentSort.LAST_NAME, null, 10);
+
+        assertEquals(3, doe.getItems().size());
+        assertEquals(List.of(percent.getId()), viewIds(literal.getItems()));
+    }
+
+    @Test
+    void searchBySchoolNumberPagesWithCursor() {
+        CursorPage<StudentView> bySchoolNumber = studentService.searchStudents(
+                StudentSearchCriteria.fromParameters(null, null, null, null, "00099"), StudentSort.LAST_NAME, null, 10);
+        assertEquals(1, bySchoolNumber.getItems().size());
+        assertEquals("Student1", bySchoolNumber.getItems().get(0).getFirstName());
+
+        StudentSearchCriteria does = StudentSearchCriteria.fromParameters(null, null, null, "Doe", null);
+        CursorPage<StudentView> first = studentService.searchStudents(does, StudentSort.LAST_NAME, null, 2);
+        CursorPage<StudentView> second = studentService.searchStudents(does, StudentSort.LAST_NAME,
+                first.getNextCursor(), 2);
+        assertEquals(List.of("Student0", "Student3"),
+                first.getItems().stream().map(StudentView::getFirstName).toList());
+        assertEquals(List.of("Student6"), second.getItems().stream().map(StudentView::getFirstName).toList());
+        assertNull(second.getNextCursor());
+    }
+
+    private Student save(String firstName, String lastName, StudentClass studentClass, Course course, Grade grade) {
+        Student student = new Student();
+        student.setFirstName(firstName);
+        student.setLastName(lastName);
+        student.setStudentClass(studentClass);
+        if (course != null) {
+            student.getCourses().put(course, grade);
+        }
+        return studentRepository.save(student);
+    }
+
+    private static List<Integer> ids(List<Student> students) {
+        return students.stream().map(Student::getId).collect(Collectors.toList());
+    }
+
+    private static List<Integer> viewIds(List<StudentView> students) {
+        return students.stream().map(StudentView::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    void versionIncrementsWhenOnlyGradesChange() {
+        Student student = studentRepository.findAll().get(0);
+        student.getCourses().put(Course.PROGRAMMING, Grade.A);
+        student = studentRepository.saveAndFlush(student);
+        long before = student.getVersion();
+
+        student.getCourses().put(Course.PROGRAMMING, Grade.B);
+        student = studentRepository.saveAndFlush(student);
+
+        assertEquals(before + 1, student.getVersion());
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.repository;
+
+import com.example.AbstractJpaTest;
+import com.example.entity.Student;
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.entity.enums.StudentClass;
+import com.example.payload.response.StudentView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StudentViewRepositoryTest extends AbstractJpaTest {
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private StudentViewRepository studentViewRepository;
+
+    @BeforeEach
+    void setUp() {
+        studentViewRepository = new StudentViewRepository(entityManager, jdbcTemplate);
+    }
+
+    @Test
+    void viewSerialisesLikeTheEntity() throws Exception {
+        Student student = save("Ada", StudentClass.C2B,
+                Map.of(Course.PROGRAMMING, Grade.A, Course.NETWORKING, Grade.B));
+        student.setBirthDate("2008-12-10");
+        studentRepository.saveAndFlush(student);
+        entityManager.clear();
+
+        Student entity = studentRepository.findById(student.getId()).orElseThrow();
+        StudentView view = studentViewRepository.findById(student.getId()).orElseThrow();
+
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsString(entity)),
+                objectMapper.readTree(objectMapper.writeValueAsString(view)));
+        assertEquals(entity.getVersion(), view.getVersion());
+    }
+
+    @Test
+    void findByIdKeepsStudentsWithoutGrades() {
+        Student student = save("Bob", null, Map.of());
+
+        StudentView view = studentViewRepository.findById(student.getId()).orElseThrow();
+
+        assertEquals("Bob", view.getFirstName());
+        assertTrue(view.getCourses().isEmpty());
+        assertTrue(studentViewRepository.findById(student.getId() + 1000).isEmpty());
+    }
+
+    @Test
+    void readsLeaveNothingInThePersistenceContext() {
+        Student first = save("Ann", StudentClass.C1A, Map.of(Course.PROGRAMMING, Grade.C));
+        Student second = save("Ben", StudentClass.C1A, Map.of(Course.DATA_SCIENCE, Grade.A));
+        entityManager.clear();
+
+        studentViewRepository.findById(first.getId());
+        List<StudentView> views = studentViewRepository.findAll(null, Sort.by("id"), 10);
+
+        assertEquals(List.of(first.getId(), second.getId()), views.stream().map(StudentView::getId).toList());
+        assertEquals(Map.of(Course.DATA_SCIENCE, Grade.A), views.get(1).getCourses());
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+        assertThrows(UnsupportedOperationException.class, () -> views.get(0).getCourses().clear());
+    }
+
+    @Test
+    void findAllByIdReturnsExistingStudentsInIdOrder() {
+        Student first = save("Ann", null, Map.of());
+        Student second = save("Ben", null, Map.of(Course.NETWORKING, Grade.E));
+
+        List<StudentView> views = studentViewRepository.findAllById(List.of(second.getId(), -1, first.getId()));
+
+        assertEquals(List.of(first.getId(), second.getId()), views.stream().map(StudentView::getId).toList());
+        assertTrue(studentViewRepository.findAllById(List.of()).isEmpty());
+    }
+
+    private Student save(String firstName, StudentClass studentClass, Map<Course, Grade> courses) {
+        Student student = new Student();
+        student.setFirstName(firstName);
+        student.setStudentClass(studentClass);
+        student.getCourses().putAll(courses);
+        return studentRepository.saveAndFlush(student);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.repository;
+
+import com.example.AbstractJpaTest;
+import com.example.entity.ERole;
+import com.example.entity.Role;
+import com.example.entity.User;
+import com.example.event.UserChangedEvent;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@RecordApplicationEvents
+class UserRepositoryTest extends AbstractJpaTest {
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void findVersionById_changesWhenRolesChange() {
+        User user = new User("teacher", "teacher@example.com", "secret");
+        user.getRoles().add(roleRepository.findByName(ERole.ROLE_USER).orElseThrow());
+        user = userRepository.saveAndFlush(user);
+        long issuedVersion = userRepository.findVersionById(user.getId()).orElseThrow();
+
+        Role admin = roleRepository.findByName(ERole.ROLE_ADMIN).orElseThrow();
+        user.getRoles().add(admin);
+        userRepository.saveAndFlush(user);
+        entityManager.clear();
+
+        assertEquals(issuedVersion + 1, userRepository.findVersionById(user.getId()).orElseThrow());
+    }
+
+    @Test
+    void roleChange_publishesUserChangedEvent() {
+        User user = new User("teacher", "teacher@example.com", "secret");
+        user = userRepository.saveAndFlush(user);
+        assertEquals(1, events.stream(UserChangedEvent.class).count());
+
+        user.getRoles().add(roleRepository.findByName(ERole.ROLE_MODERATOR).orElseThrow());
+        userRepository.saveAndFlush(user);
+
+        assertEquals(2, events.stream(UserChangedEvent.class)
+                .filter(event -> "teacher".equals(event.getUsername()))
+                .count());
+    }
+
+    @Test
+    void findVersionById_isEmptyForUnknownUser() {
+        assertTrue(userRepository.findVersionById(-1L).isEmpty());
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.security.crypto;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.exception.ServiceUnavailableException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private BoundedPasswordEncoder encoder;
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        if (encoder != null) {
+            encoder.destroy();
+        }
+    }
+
+    @Test
+    void encodeAndMatches_delegateToBCrypt() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 4);
+
+        String hash = encoder.encode("secret");
+
+        assertTrue(hash.startsWith("$2a$04$"));
+        assertTrue(encoder.matches("secret", hash));
+        assertFalse(encoder.matches("wrong", hash));
+    }
+
+    @Test
+    void matches_rejectsImmediatelyWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(started, release), 1, 1);
+
+        Future<Boolean> running = callers.submit(() -> encoder.matches("a", "a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<Boolean> queued = callers.submit(() -> encoder.matches("b", "b"));
+        // Wait until the second call occupies the only queue slot.
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(encoder, "executor");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.getQueue().isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        ServiceUnavailableException rejected =
+                assertThrows(ServiceUnavailableException.class, () -> encoder.matches("c", "c"));
+        assertEquals(1, rejected.getRetryAfterSeconds());
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Holds every call until released, to simulate a saturated hashing pool.
+     */
+    private static final class BlockingEncoder implements PasswordEncoder {
+        private final CountDownLatch started;
+        private final CountDownLatch release;
+
+        private BlockingEncoder(CountDownLatch started, CountDownLatch release) {
+            this.started = started;
+            this.release = release;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.security.jwt;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.security.services.CachingUserDetailsService;
+import com.example.security.services.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthTokenFilterTest {
+
+    @Mock
+    private JwtUtils jwtUtils;
+
+    @Mock
+    private CachingUserDetailsService userDetailsService;
+
+    @Mock
+    private TokenVersionCache tokenVersionCache;
+
+    @Mock
+    private Claims claims;
+
+    @InjectMocks
+    private AuthTokenFilter authTokenFilter;
+
+    private MockHttpServletRequest request;
+
+    private UserDetailsImpl user;
+
+    @BeforeEach
+    void setUp() {
+        request = new MockHttpServletRequest("GET", "/api/students/1");
+        request.addHeader("Authorization", "Bearer token");
+        user = new UserDetailsImpl(7L, "teacher", "teacher@example.com", null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")), 3L);
+        when(jwtUtils.parseValidatedClaims("token")).thenReturn(claims);
+        when(claims.getSubject()).thenReturn("teacher");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private Authentication filter() throws Exception {
+        authTokenFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Test
+    void doFilter_loadsUserFromDatabaseByDefault() throws Exception {
+        when(userDetailsService.loadUserByUsername("teacher")).thenReturn(user);
+
+        Authentication authentication = filter();
+
+        assertSame(user, authentication.getPrincipal());
+        verifyNoInteractions(tokenVersionCache);
+    }
+
+    @Test
+    void doFilter_withClaimsAuth_buildsUserWithoutDatabase() throws Exception {
+        ReflectionTestUtils.setField(authTokenFilter, "claimsAuthEnabled", true);
+        when(jwtUtils.getUserDetailsFromClaims(claims)).thenReturn(user);
+        when(tokenVersionCache.isCurrent(7L, 3L)).thenReturn(true);
+
+        Authentication authentication = filter();
+
+        assertSame(user, authentication.getPrincipal());
+        assertEquals(user.getAuthorities(), authentication.getAuthorities());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void doFilter_withClaimsAuth_ignoresStaleToken() throws Exception {
+        ReflectionTestUtils.setField(authTokenFilter, "claimsAuthEnabled", true);
+        when(jwtUtils.getUserDetailsFromClaims(claims)).thenReturn(user);
+        when(tokenVersionCache.isCurrent(7L, 3L)).thenReturn(false);
+
+        assertNull(filter());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void doFilter_withClaimsAuth_fallsBackForTokensWithoutClaims() throws Exception {
+        ReflectionTestUtils.setField(authTokenFilter, "claimsAuthEnabled", true);
+        when(jwtUtils.getUserDetailsFromClaims(claims)).thenReturn(null);
+        when(userDetailsService.loadUserByUsername("teacher")).thenReturn(user);
+
+        assertSame(user, filter().getPrincipal());
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.security.jwt;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.security.services.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilsTest {
+
+    private static final String SECRET = "thisisasecretkeyforjwttokengenerationanditshouldbeverylongandsecure";
+
+    private JwtUtils jwtUtils;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 60_000);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheSize", 100);
+        jwtUtils.init();
+    }
+
+    private Authentication authenticationFor(String username) {
+        UserDetailsImpl user = new UserDetailsImpl(1L, username, username + "@example.com", "secret",
+                List.of(new SimpleGrantedAuthority("ROLE_MODERATOR")), 4L);
+        return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+
+    @Test
+    void parseValidatedClaims_returnsSubjectOfGeneratedToken() {
+        String token = jwtUtils.generateJwtToken(authenticationFor("teacher"));
+
+        Claims claims = jwtUtils.parseValidatedClaims(token);
+
+        assertNotNull(claims);
+        assertEquals("teacher", claims.getSubject());
+        assertTrue(jwtUtils.validateJwtToken(token));
+        assertEquals("teacher", jwtUtils.getUserNameFromJwtToken(token));
+    }
+
+    @Test
+    void getUserDetailsFromClaims_rebuildsPrincipal() {
+        String token = jwtUtils.generateJwtToken(authenticationFor("teacher"));
+
+        UserDetailsImpl user = jwtUtils.getUserDetailsFromClaims(jwtUtils.parseValidatedClaims(token));
+
+        assertNotNull(user);
+        assertEquals(1L, user.getId());
+        assertEquals("teacher", user.getUsername());
+        assertEquals("teacher@example.com", user.getEmail());
+        assertEquals(4L, user.getVersion());
+        assertNull(user.getPassword());
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_MODERATOR")), user.getAuthorities());
+    }
+
+    @Test
+    void getUserDetailsFromClaims_returnsNullForTokensWithoutIdentityClaims() {
+        String legacy = Jwts.builder()
+                .setSubject("teacher")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertNull(jwtUtils.getUserDetailsFromClaims(jwtUtils.parseValidatedClaims(legacy)));
+    }
+
+    @Test
+    void parseValidatedClaims_servesRepeatTokensFromCache() {
+        String token = jwtUtils.generateJwtToken(authenticationFor("teacher"));
+
+        Claims first = jwtUtils.parseValidatedClaims(token);
+        Claims second = jwtUtils.parseValidatedClaims(token);
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void parseValidatedClaims_rejectsTamperedSignature() {
+        String token = jwtUtils.generateJwtToken(authenticationFor("teacher"));
+        // Change the first signature character; the last one carries unused padding bits.
+        int signatureStart = token.lastIndexOf('.') + 1;
+        char first = token.charAt(signatureStart);
+        String tampered = token.substring(0, signatureStart) + (first == 'A' ? 'B' : 'A')
+                + token.substring(signatureStart + 1);
+
+        assertNull(jwtUtils.parseValidatedClaims(tampered));
+        assertFalse(jwtUtils.validateJwtToken(tampered));
+    }
+
+    @Test
+    void parseValidatedClaims_rejectsExpiredToken() {
+        String expired = Jwts.builder()
+                .setSubject("teacher")
+                .setIssuedAt(new Date(System.currentTimeMillis() - 120_000))
+                .setExpiration(new Date(System.currentTimeMillis() - 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertNull(jwtUtils.parseValidatedClaims(expired));
+    }
+
+    @Test
+    void parseValidatedClaims_rejectsGarbage() {
+        assertNull(jwtUtils.parseValidatedClaims("not-a-jwt"));
+        assertNull(jwtUtils.parseValidatedClaims(""));
+    }
+}
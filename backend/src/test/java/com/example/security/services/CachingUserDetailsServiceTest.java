@@ -0,0 +1,77 @@
+package com.example.security.services;
+
+import com.example.event.UserChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachingUserDetailsServiceTest {
+
+    @Mock
+    private UserDetailsServiceImpl delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CachingUserDetailsService cachingUserDetailsService;
+
+    private final UserDetails teacher = new UserDetailsImpl(1L, "teacher", "teacher@example.com", "hash",
+            Collections.emptyList());
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cachingUserDetailsService = new CachingUserDetailsService(delegate, meterRegistry, Duration.ofMinutes(5), 100);
+    }
+
+    @Test
+    void loadUserByUsername_loadsEachUserOnce() {
+        when(delegate.loadUserByUsername("teacher")).thenReturn(teacher);
+
+        for (int i = 0; i < 5; i++) {
+            assertSame(teacher, cachingUserDetailsService.loadUserByUsername("teacher"));
+        }
+
+        verify(delegate, times(1)).loadUserByUsername("teacher");
+        assertEquals(4.0, meterRegistry.get("cache.gets").tag("cache", "userDetails").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "userDetails").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    void onUserChanged_evictsTheUser() {
+        when(delegate.loadUserByUsername("teacher")).thenReturn(teacher);
+        cachingUserDetailsService.loadUserByUsername("teacher");
+
+        cachingUserDetailsService.onUserChanged(new UserChangedEvent(1L, "teacher"));
+        cachingUserDetailsService.loadUserByUsername("teacher");
+
+        verify(delegate, times(2)).loadUserByUsername("teacher");
+    }
+
+    @Test
+    void loadUserByUsername_doesNotCacheUnknownUsers() {
+        when(delegate.loadUserByUsername("ghost")).thenThrow(new UsernameNotFoundException("not found"));
+
+        assertThrows(UsernameNotFoundException.class, () -> cachingUserDetailsService.loadUserByUsername("ghost"));
+        assertThrows(UsernameNotFoundException.class, () -> cachingUserDetailsService.loadUserByUsername("ghost"));
+
+        verify(delegate, times(2)).loadUserByUsername("ghost");
+    }
+}
@@ -2,15 +2,18 @@ package com.example.security.services;
 
 import com.example.entity.User;
 import com.example.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.when;
 
@@ -20,6 +23,9 @@ class UserDetailsServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private UserDetailsServiceImpl userDetailsService;
 
@@ -33,5 +39,6 @@ class UserDetailsServiceImplTest {
         assertThrows(UsernameNotFoundException.class, () -> {
             userDetailsService.loadUserByUsername(username);
         });
+        assertEquals(1, meterRegistry.get("security.user.lookup").tag("result", "not_found").timer().count());
     }
 }
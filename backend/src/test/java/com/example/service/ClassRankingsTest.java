@@ -0,0 +1,120 @@
+package com.example.service;
+
+import com.example.entity.Student;
+import com.example.entity.enums.Grade;
+import com.example.entity.enums.StudentClass;
+import com.example.event.StudentChangedEvent;
+import com.example.event.StudentsChangedEvent;
+import com.example.exception.BadRequestException;
+import com.example.exception.ResourceNotFoundException;
+import com.example.payload.response.RankedStudent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static com.example.service.StudentFixtures.student;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Events are published by hand here; that the services publish them is checked by
+ * {@link StudentListenersTest}.
+ */
+class ClassRankingsTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private ClassRankings classRankings;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = StudentFixtures.newDatabase();
+        classRankings = new ClassRankings(jdbcTemplate, new SimpleMeterRegistry(), 100);
+        classRankings.rebuild();
+    }
+
+    @Test
+    void followsChangeEventsByRereadingTheRows() {
+        int best = insert(student(StudentClass.C3A, Grade.A, Grade.A));
+        int second = insert(student(StudentClass.C3A, Grade.A, Grade.B));
+        assertEquals(2, classRankings.top("3A", 1).getRanked());
+        RankedStudent bestRank = classRankings.rankOf("3A", best);
+        RankedStudent secondRank = classRankings.rankOf("3A", second);
+        assertEquals(1, bestRank.getRank());
+        assertEquals(4.0, bestRank.getGpa());
+        assertEquals(2, bestRank.getGradedCourses());
+        assertEquals(2, secondRank.getRank());
+        assertEquals(3.5, secondRank.getGpa());
+
+        update(second, student(StudentClass.C3A, Grade.A, Grade.A));
+        // Same grades: the student with the lower id ranks first.
+        assertEquals(2, classRankings.rankOf("3A", second).getRank());
+
+        update(second, student(StudentClass.C3B, Grade.A, Grade.A));
+        assertThrows(ResourceNotFoundException.class, () -> classRankings.rankOf("3A", second));
+        assertEquals(4.0, classRankings.rankOf("3B", second).getGpa());
+
+        StudentFixtures.delete(jdbcTemplate, best);
+        classRankings.onStudentChanged(new StudentChangedEvent(StudentChangedEvent.Type.DELETED, best));
+        assertThrows(ResourceNotFoundException.class, () -> classRankings.rankOf("3A", best));
+        assertEquals(0, classRankings.top("3A", 1).getRanked());
+    }
+
+    @Test
+    void followsBulkEvents() {
+        int promoted = StudentFixtures.insert(jdbcTemplate, student(StudentClass.C1A, Grade.B));
+        int stays = StudentFixtures.insert(jdbcTemplate, student(StudentClass.C1A, Grade.C));
+        classRankings.rebuild();
+        StudentFixtures.update(jdbcTemplate, promoted, student(StudentClass.C2A, Grade.B));
+
+        classRankings.onStudentsChanged(new StudentsChangedEvent(StudentChangedEvent.Type.UPDATED,
+                List.of(promoted, stays)));
+
+        assertEquals(1, classRankings.rankOf("2A", promoted).getRank());
+        assertEquals(1, classRankings.rankOf("1A", stays).getRank());
+        assertEquals(1, classRankings.top("1A", 10).getRanked());
+
+        classRankings.onStudentsChanged(new StudentsChangedEvent(StudentChangedEvent.Type.DELETED,
+                List.of(promoted, stays)));
+        assertEquals(0, classRankings.top("1A", 10).getRanked());
+        assertEquals(0, classRankings.top("2A", 10).getRanked());
+    }
+
+    @Test
+    void studentsWithoutGradesAreNotRanked() {
+        int id = insert(student(StudentClass.C3A));
+
+        assertThrows(ResourceNotFoundException.class, () -> classRankings.rankOf("3A", id));
+    }
+
+    @Test
+    void rebuildPicksUpRowsWrittenWithoutEvents() {
+        int id = StudentFixtures.insert(jdbcTemplate, student(StudentClass.C4A, Grade.C));
+        assertEquals(0, classRankings.top("4A", 1).getRanked());
+
+        classRankings.rebuild();
+
+        assertEquals(1, classRankings.top("4A", 1).getRanked());
+        assertEquals(2.0, classRankings.rankOf("4A", id).getGpa());
+    }
+
+    @Test
+    void rejectsUnknownClassesAndOutOfRangeTop() {
+        assertThrows(BadRequestException.class, () -> classRankings.top("9Z", 10));
+        assertThrows(BadRequestException.class, () -> classRankings.top("3A", 0));
+        assertThrows(BadRequestException.class, () -> classRankings.top("3A", ClassRankings.MAX_TOP + 1));
+    }
+
+    private int insert(Student student) {
+        int id = StudentFixtures.insert(jdbcTemplate, student);
+        classRankings.onStudentChanged(new StudentChangedEvent(StudentChangedEvent.Type.INSERTED, id));
+        return id;
+    }
+
+    private void update(int id, Student student) {
+        StudentFixtures.update(jdbcTemplate, id, student);
+        classRankings.onStudentChanged(new StudentChangedEvent(StudentChangedEvent.Type.UPDATED, id));
+    }
+}
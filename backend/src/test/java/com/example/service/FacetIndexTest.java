@@ -0,0 +1,78 @@
+package com.example.service;
+
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.entity.enums.StudentClass;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FacetIndexTest {
+
+    private FacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FacetIndex();
+        index.put(1, StudentClass.C1A, Map.of(Course.CLOUD_COMPUTING, Grade.A, Course.PROGRAMMING, Grade.B));
+        index.put(2, StudentClass.C1A, Map.of(Course.CLOUD_COMPUTING, Grade.B));
+        index.put(3, StudentClass.C2B, Map.of(Course.CLOUD_COMPUTING, Grade.A));
+        index.put(4, StudentClass.C2B, Map.of(Course.PROGRAMMING, Grade.A));
+        index.put(5, null, Map.of());
+    }
+
+    @Test
+    void countsEveryoneWithoutFilters() {
+        FacetIndex.Counts counts = index.count(null, null, null);
+
+        assertEquals(5, counts.total());
+        assertEquals(2, counts.byClass().get(StudentClass.C1A));
+        assertEquals(0, counts.byClass().get(StudentClass.C4B));
+        assertEquals(2, counts.byCourseAndGrade().get(Course.CLOUD_COMPUTING).get(Grade.A));
+        assertEquals(0, counts.byCourseAndGrade().get(Course.NETWORKING).get(Grade.A));
+    }
+
+    @Test
+    void courseAndGradeApplyToTheSameGrade() {
+        FacetIndex.Counts counts = index.count(null, Course.CLOUD_COMPUTING, Grade.A);
+
+        assertEquals(2, counts.total());
+        assertEquals(1, counts.byClass().get(StudentClass.C1A));
+        assertEquals(1, counts.byClass().get(StudentClass.C2B));
+        // Student 1 also has a B in programming; student 4's A in programming does not count.
+        assertEquals(1, counts.byCourseAndGrade().get(Course.PROGRAMMING).get(Grade.B));
+        assertEquals(0, counts.byCourseAndGrade().get(Course.PROGRAMMING).get(Grade.A));
+    }
+
+    @Test
+    void gradeAloneMatchesAnyCourse() {
+        assertEquals(3, index.count(null, null, Grade.A).total());
+        assertEquals(2, index.count(null, null, Grade.B).total());
+        assertEquals(1, index.count(StudentClass.C2B, null, Grade.A).byCourseAndGrade()
+                .get(Course.PROGRAMMING).get(Grade.A));
+    }
+
+    @Test
+    void courseAloneMatchesAnyGrade() {
+        assertEquals(3, index.count(null, Course.CLOUD_COMPUTING, null).total());
+        assertEquals(1, index.count(StudentClass.C1A, Course.PROGRAMMING, null).total());
+    }
+
+    @Test
+    void putReplacesAndRemoveDrops() {
+        index.put(1, StudentClass.C4B, Map.of(Course.NETWORKING, Grade.E));
+        index.remove(3);
+
+        FacetIndex.Counts counts = index.count(null, null, null);
+        assertEquals(4, counts.total());
+        assertEquals(1, counts.byClass().get(StudentClass.C1A));
+        assertEquals(1, counts.byClass().get(StudentClass.C4B));
+        assertEquals(0, counts.byCourseAndGrade().get(Course.CLOUD_COMPUTING).get(Grade.A));
+        assertEquals(0, counts.byCourseAndGrade().get(Course.PROGRAMMING).get(Grade.B));
+        assertEquals(1, counts.byCourseAndGrade().get(Course.NETWORKING).get(Grade.E));
+        assertEquals(0, index.count(null, Course.CLOUD_COMPUTING, Grade.A).total());
+    }
+}
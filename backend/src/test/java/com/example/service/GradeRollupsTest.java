@@ -0,0 +1,130 @@
+package com.example.service;
+
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.entity.enums.StudentClass;
+import com.example.event.StudentGradesChangedEvent;
+import com.example.payload.response.GradeRollupCheck;
+import com.example.payload.response.GradeStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+
+import static com.example.service.StudentFixtures.student;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Events are published by hand here, next to the rows they describe; that the services publish
+ * them is checked by {@link StudentListenersTest}. A tiny slice size makes the recount run as many
+ * parallel slices even on a few rows.
+ */
+class GradeRollupsTest {
+
+    private static final Map<Course, Grade> CLOUD_A_PROGRAMMING_C =
+            Map.of(Course.CLOUD_COMPUTING, Grade.A, Course.PROGRAMMING, Grade.C);
+    private static final Map<Course, Grade> CLOUD_B = Map.of(Course.CLOUD_COMPUTING, Grade.B);
+    private static final Map<Course, Grade> CLOUD_E = Map.of(Course.CLOUD_COMPUTING, Grade.E);
+
+    private JdbcTemplate jdbcTemplate;
+    private GradeRollups gradeRollups;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = StudentFixtures.newDatabase();
+        gradeRollups = new GradeRollups(jdbcTemplate, new SimpleMeterRegistry(), 2, 2);
+        gradeRollups.afterSingletonsInstantiated();
+    }
+
+    @AfterEach
+    void tearDown() {
+        gradeRollups.destroy();
+    }
+
+    @Test
+    void followsGradeChangeEvents() {
+        int id = StudentFixtures.insert(jdbcTemplate, student(StudentClass.C2B, CLOUD_A_PROGRAMMING_C));
+        gradeRollups.onGradesChanged(StudentGradesChangedEvent.inserted(StudentClass.C2B, CLOUD_A_PROGRAMMING_C));
+        StudentFixtures.insert(jdbcTemplate, student(StudentClass.C2B, CLOUD_B));
+        gradeRollups.onGradesChanged(StudentGradesChangedEvent.inserted(StudentClass.C2B, CLOUD_B));
+
+        GradeStats inserted = gradeRollups.getStats();
+        assertEquals(3, total(inserted, "2B"));
+        assertEquals(1, count(inserted, "2B", Grade.A));
+        assertEquals(2, inserted.getCourses().get(Course.CLOUD_COMPUTING).getTotal());
+        assertEquals(3, inserted.getOverall().getTotal());
+
+        StudentFixtures.update(jdbcTemplate, id, student(StudentClass.C3A, CLOUD_E));
+        gradeRollups.onGradesChanged(StudentGradesChangedEvent.updated(StudentClass.C2B, CLOUD_A_PROGRAMMING_C,
+                StudentClass.C3A, CLOUD_E));
+
+        GradeStats updated = gradeRollups.getStats();
+        assertEquals(1, total(updated, "2B"));
+        assertEquals(1, count(updated, "3A", Grade.E));
+        assertEquals(0, updated.getCourses().get(Course.PROGRAMMING).getTotal());
+
+        StudentFixtures.delete(jdbcTemplate, id);
+        gradeRollups.onGradesChanged(StudentGradesChangedEvent.deleted(StudentClass.C3A, CLOUD_E));
+        assertEquals(0, total(gradeRollups.getStats(), "3A"));
+
+        GradeRollupCheck check = gradeRollups.verify(false);
+        assertTrue(check.isConsistent(), () -> "mismatches: " + check.getMismatches().size());
+    }
+
+    @Test
+    void averageGpaUsesGradePoints() {
+        gradeRollups.onGradesChanged(StudentGradesChangedEvent.inserted(StudentClass.C4B,
+                Map.of(Course.NETWORKING, Grade.A, Course.PROGRAMMING, Grade.D)));
+
+        GradeStats stats = gradeRollups.getStats();
+
+        assertEquals(2.5, stats.getStudentClasses().get("4B").getAverageGpa());
+        assertEquals(4.0, stats.getCourses().get(Course.NETWORKING).getAverageGpa());
+        assertNull(stats.getCourses().get(Course.CLOUD_COMPUTING).getAverageGpa());
+    }
+
+    @Test
+    void recountSplitsIntoSlices() {
+        for (int i = 0; i < 5; i++) {
+            StudentFixtures.insert(jdbcTemplate, student(StudentClass.C1B, CLOUD_B));
+        }
+
+        gradeRollups.verify(true);
+
+        assertEquals(5, count(gradeRollups.getStats(), "1B", Grade.B));
+        assertTrue(gradeRollups.verify(false).isConsistent());
+    }
+
+    @Test
+    void verifyFindsAndRepairsWritesMadeBehindItsBack() {
+        StudentFixtures.insert(jdbcTemplate, student(StudentClass.C1A, Map.of(Course.DATA_SCIENCE, Grade.B)));
+
+        GradeRollupCheck check = gradeRollups.verify(false);
+        assertFalse(check.isConsistent());
+        assertFalse(check.isRepaired());
+        assertEquals(1, check.getMismatches().size());
+        GradeRollupCheck.Mismatch mismatch = check.getMismatches().get(0);
+        assertEquals("1A", mismatch.getStudentClass());
+        assertEquals(Course.DATA_SCIENCE, mismatch.getCourse());
+        assertEquals(Grade.B, mismatch.getGrade());
+        assertEquals(1, mismatch.getExpected());
+        assertEquals(0, mismatch.getActual());
+
+        assertTrue(gradeRollups.verify(true).isRepaired());
+        assertTrue(gradeRollups.verify(false).isConsistent());
+    }
+
+    private static long total(GradeStats stats, String studentClass) {
+        return stats.getStudentClasses().get(studentClass).getTotal();
+    }
+
+    private static long count(GradeStats stats, String studentClass, Grade grade) {
+        return stats.getStudentClasses().get(studentClass).getGrades().get(grade);
+    }
+}
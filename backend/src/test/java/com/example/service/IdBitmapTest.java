@@ -0,0 +1,82 @@
+package com.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdBitmapTest {
+
+    // Spans several chunks, with densities on both sides of the array/bitset threshold.
+    private static final int MAX_ID = 5 * 65536;
+
+    @Test
+    void addRemoveAndContains() {
+        IdBitmap bitmap = new IdBitmap();
+        bitmap.add(7);
+        bitmap.add(7);
+        bitmap.add(70_000);
+
+        assertTrue(bitmap.contains(7));
+        assertTrue(bitmap.contains(70_000));
+        assertFalse(bitmap.contains(8));
+        assertEquals(2, bitmap.cardinality());
+
+        bitmap.remove(7);
+        bitmap.remove(8);
+        assertFalse(bitmap.contains(7));
+        assertEquals(1, bitmap.cardinality());
+    }
+
+    @Test
+    void rejectsNegativeIds() {
+        assertThrows(IllegalArgumentException.class, () -> new IdBitmap().add(-1));
+    }
+
+    @Test
+    void agreesWithBitSetAcrossRepresentations() {
+        Random random = new Random(7);
+        for (double density : new double[]{0.001, 0.05, 0.5}) {
+            BitSet expectedA = new BitSet();
+            BitSet expectedB = new BitSet();
+            IdBitmap a = randomBitmap(random, density, expectedA);
+            IdBitmap b = randomBitmap(random, 0.03, expectedB);
+
+            // Thin the dense bitmap out again so that bitset chunks turn back into arrays.
+            for (int id = 0; id < MAX_ID; id += 3) {
+                a.remove(id);
+                expectedA.clear(id);
+            }
+
+            assertEquals(expectedA.cardinality(), a.cardinality());
+            BitSet and = (BitSet) expectedA.clone();
+            and.and(expectedB);
+            assertEquals(and.cardinality(), a.andCardinality(b));
+            assertEquals(and.cardinality(), b.andCardinality(a));
+            assertSame(and, a.and(b));
+        }
+    }
+
+    private static IdBitmap randomBitmap(Random random, double density, BitSet expected) {
+        IdBitmap bitmap = new IdBitmap();
+        for (int id = 0; id < MAX_ID; id++) {
+            if (random.nextDouble() < density) {
+                bitmap.add(id);
+                expected.set(id);
+            }
+        }
+        return bitmap;
+    }
+
+    private static void assertSame(BitSet expected, IdBitmap actual) {
+        assertEquals(expected.cardinality(), actual.cardinality());
+        for (int id = 0; id < MAX_ID; id++) {
+            assertEquals(expected.get(id), actual.contains(id), "id " + id);
+        }
+    }
+}
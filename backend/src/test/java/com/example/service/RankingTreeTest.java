@@ -0,0 +1,69 @@
+package com.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RankingTreeTest {
+
+    @Test
+    void ordersByGpaThenGradedCoursesThenId() {
+        RankingTree tree = new RankingTree();
+        RankingTree.Entry threeAs = new RankingTree.Entry(9, 12, 3);
+        RankingTree.Entry oneA = new RankingTree.Entry(2, 4, 1);
+        RankingTree.Entry oneAHigherId = new RankingTree.Entry(5, 4, 1);
+        RankingTree.Entry aAndC = new RankingTree.Entry(1, 6, 2);
+        tree.insert(aAndC);
+        tree.insert(oneAHigherId);
+        tree.insert(oneA);
+        tree.insert(threeAs);
+
+        assertEquals(List.of(threeAs, oneA, oneAHigherId, aAndC), tree.top(10));
+        assertEquals(1, tree.rank(threeAs));
+        assertEquals(3, tree.rank(oneAHigherId));
+        assertEquals(4, tree.rank(aAndC));
+        assertEquals(0, tree.rank(new RankingTree.Entry(7, 4, 1)));
+    }
+
+    @Test
+    void removeOnlyDropsTheExactEntry() {
+        RankingTree tree = new RankingTree();
+        tree.insert(new RankingTree.Entry(1, 8, 2));
+
+        assertFalse(tree.remove(new RankingTree.Entry(1, 6, 2)));
+        assertTrue(tree.remove(new RankingTree.Entry(1, 8, 2)));
+        assertEquals(0, tree.size());
+        assertEquals(List.of(), tree.top(3));
+    }
+
+    @Test
+    void agreesWithASortedListUnderRandomChanges() {
+        Random random = new Random(19);
+        RankingTree tree = new RankingTree();
+        List<RankingTree.Entry> expected = new ArrayList<>();
+        for (int step = 0; step < 5_000; step++) {
+            if (!expected.isEmpty() && random.nextInt(3) == 0) {
+                RankingTree.Entry removed = expected.remove(random.nextInt(expected.size()));
+                assertTrue(tree.remove(removed));
+            } else {
+                int graded = 1 + random.nextInt(10);
+                RankingTree.Entry entry = new RankingTree.Entry(step, random.nextInt(4 * graded + 1), graded);
+                tree.insert(entry);
+                expected.add(entry);
+            }
+        }
+        expected.sort(RankingTree::compare);
+
+        assertEquals(expected.size(), tree.size());
+        assertEquals(expected.subList(0, 50), tree.top(50));
+        for (int i = 0; i < expected.size(); i += 37) {
+            assertEquals(i + 1, tree.rank(expected.get(i)));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedLocksTest {
+
+    private static final long TIMEOUT_MS = 5_000;
+
+    @Test
+    void sameIdWaitsForTheHolder() throws Exception {
+        StripedLocks locks = new StripedLocks(4);
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch second = new CountDownLatch(1);
+        Thread holder = new Thread(() -> locks.run(7, () -> {
+            holding.countDown();
+            await(release);
+        }));
+        Thread waiter = new Thread(() -> locks.run(7, second::countDown));
+        holder.start();
+        assertTrue(holding.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        waiter.start();
+
+        assertFalse(second.await(100, TimeUnit.MILLISECONDS));
+        release.countDown();
+        assertTrue(second.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        holder.join(TIMEOUT_MS);
+        waiter.join(TIMEOUT_MS);
+    }
+
+    @Test
+    void otherStripesProceed() throws Exception {
+        StripedLocks locks = new StripedLocks(4);
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> locks.run(7, () -> {
+            holding.countDown();
+            await(release);
+        }));
+        holder.start();
+        assertTrue(holding.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        boolean[] ran = new boolean[1];
+        locks.run(8, () -> ran[0] = true);
+
+        assertTrue(ran[0]);
+        release.countDown();
+        holder.join(TIMEOUT_MS);
+    }
+
+    @Test
+    void manyIdsWaitForAHolderOfAnyOfThem() throws Exception {
+        StripedLocks locks = new StripedLocks(4);
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch second = new CountDownLatch(1);
+        Thread holder = new Thread(() -> locks.run(6, () -> {
+            holding.countDown();
+            await(release);
+        }));
+        // 1 and 5 share a stripe; taken in stripe order whatever the id order.
+        Thread waiter = new Thread(() -> locks.run(List.of(5, 2, 1), second::countDown));
+        holder.start();
+        assertTrue(holding.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        waiter.start();
+
+        assertFalse(second.await(100, TimeUnit.MILLISECONDS));
+        release.countDown();
+        assertTrue(second.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        holder.join(TIMEOUT_MS);
+        waiter.join(TIMEOUT_MS);
+    }
+
+    @Test
+    void mapsNegativeIdsToAStripe() {
+        StripedLocks locks = new StripedLocks(4);
+
+        assertEquals(3, locks.stripe(-1));
+        assertEquals(0, locks.stripe(4));
+    }
+
+    @Test
+    void rejectsNoStripes() {
+        assertThrows(IllegalArgumentException.class, () -> new StripedLocks(0));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.service;
+
+import com.example.config.StatementCountingDataSource;
+import com.example.entity.Student;
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.entity.enums.StudentClass;
+import com.example.exception.BadRequestException;
+import com.example.exception.ResourceNotFoundException;
+import com.example.payload.response.BulkResult;
+import com.example.repository.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bulk writes must change exactly the selected rows and keep everything that follows student
+ * events, checked here through the grade rollups and class rankings, in step with the database.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class StudentBulkServiceTest {
+
+    @Autowired
+    private StudentBulkService studentBulkService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private GradeRollups gradeRollups;
+
+    @Autowired
+    private ClassRankings classRankings;
+
+    @BeforeEach
+    void setUp() {
+        // Start from an empty table with rollups and rankings that match it.
+        studentRepository.deleteAll();
+        gradeRollups.verify(true);
+        classRankings.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAll();
+        gradeRollups.verify(true);
+        classRankings.rebuild();
+    }
+
+    @Test
+    void promoteMovesTheWholeClassAndNobodyElse() {
+        int first = insert(StudentClass.C1A, Map.of(Course.PROGRAMMING, Grade.A)).getId();
+        Student second = insert(StudentClass.C1A, Map.of());
+        int other = insert(StudentClass.C1B, Map.of(Course.PROGRAMMING, Grade.B)).getId();
+
+        BulkResult result = studentBulkService.promoteClass("1A");
+
+        assertEquals(2, result.getMatched());
+        assertEquals(2, result.getStudentsUpdated());
+        assertEquals(StudentClass.C2A, studentRepository.findById(first).orElseThrow().getStudentClass());
+        Student promoted = studentRepository.findById(second.getId()).orElseThrow();
+        assertEquals(StudentClass.C2A, promoted.getStudentClass());
+        assertEquals(second.getVersion() + 1, promoted.getVersion());
+        assertEquals(StudentClass.C1B, studentRepository.findById(other).orElseThrow().getStudentClass());
+        assertEquals(Map.of(Course.PROGRAMMING, Grade.A), studentRepository.findById(first).orElseThrow().getCourses());
+
+        assertEquals(1, classRankings.rankOf("2A", first).getRank());
+        assertThrows(ResourceNotFoundException.class, () -> classRankings.rankOf("1A", first));
+        assertTrue(gradeRollups.verify(false).isConsistent());
+    }
+
+    @Test
+    void promotingTheFinalYearOrMovingInPlaceIsRejected() {
+        assertThrows(BadRequestException.class, () -> studentBulkService.promoteClass("4B"));
+        assertThrows(BadRequestException.class, () -> studentBulkService.moveClass("2A", "2a"));
+        assertThrows(BadRequestException.class, () -> studentBulkService.moveClass("2A", "9Z"));
+    }
+
+    @Test
+    void deleteRemovesMatchingStudentsWithTheirGrades() {
+        int failed = insert(StudentClass.C3A, Map.of(Course.NETWORKING, Grade.E, Course.PROGRAMMING, Grade.B)).getId();
+        int passed = insert(StudentClass.C3A, Map.of(Course.NETWORKING, Grade.C)).getId();
+        int elsewhere = insert(StudentClass.C3B, Map.of(Course.NETWORKING, Grade.E)).getId();
+
+        BulkResult result = studentBulkService.deleteStudents(
+                StudentSearchCriteria.fromParameters("3A", "NETWORKING", "E", null, null));
+
+        assertEquals(1, result.getMatched());
+        assertEquals(1, result.getStudentsDeleted());
+        assertEquals(2, result.getGradesDeleted());
+        assertFalse(studentRepository.existsById(failed));
+        assertTrue(studentRepository.existsById(passed));
+        assertTrue(studentRepository.existsById(elsewhere));
+        assertTrue(gradeRollups.verify(false).isConsistent());
+    }
+
+    @Test
+    void deleteWithoutFiltersIsRejected() {
+        insert(StudentClass.C3A, Map.of());
+
+        assertThrows(BadRequestException.class, () -> studentBulkService.deleteStudents(
+                StudentSearchCriteria.fromParameters(null, null, null, " ", null)));
+        assertEquals(1, studentRepository.count());
+    }
+
+    @Test
+    void upsertGradesInsertsUpdatesAndSkipsUnchanged() {
+        Student missing = insert(StudentClass.C2B, Map.of(Course.PROGRAMMING, Grade.A));
+        Student changed = insert(StudentClass.C2B, Map.of(Course.DATA_SCIENCE, Grade.D));
+        Student unchanged = insert(StudentClass.C2B, Map.of(Course.DATA_SCIENCE, Grade.B));
+
+        BulkResult result = studentBulkService.upsertGrades("2B", "data_science", Map.of(
+                missing.getId(), Grade.C, changed.getId(), Grade.A, unchanged.getId(), Grade.B));
+
+        assertEquals(3, result.getMatched());
+        assertEquals(1, result.getGradesInserted());
+        assertEquals(1, result.getGradesUpdated());
+        assertEquals(2, result.getStudentsUpdated());
+        assertEquals(Map.of(Course.PROGRAMMING, Grade.A, Course.DATA_SCIENCE, Grade.C),
+                studentRepository.findById(missing.getId()).orElseThrow().getCourses());
+        assertEquals(Grade.A, studentRepository.findById(changed.getId()).orElseThrow().getCourses()
+                .get(Course.DATA_SCIENCE));
+        assertEquals(unchanged.getVersion(), studentRepository.findById(unchanged.getId()).orElseThrow().getVersion());
+        assertEquals(changed.getVersion() + 1, studentRepository.findById(changed.getId()).orElseThrow().getVersion());
+        assertEquals(4.0, classRankings.rankOf("2B", changed.getId()).getGpa());
+        assertTrue(gradeRollups.verify(false).isConsistent());
+    }
+
+    @Test
+    void upsertGradesWritesNothingWhenAStudentIsNotInTheClass() {
+        int inClass = insert(StudentClass.C2B, Map.of()).getId();
+        int otherClass = insert(StudentClass.C2A, Map.of()).getId();
+
+        BadRequestException e = assertThrows(BadRequestException.class, () -> studentBulkService.upsertGrades(
+                "2B", "PROGRAMMING", Map.of(inClass, Grade.A, otherClass, Grade.A, 999_999, Grade.B)));
+
+        assertTrue(e.getMessage().contains("[" + otherClass + ", 999999]"), e.getMessage());
+        assertTrue(studentRepository.findById(inClass).orElseThrow().getCourses().isEmpty());
+    }
+
+    @Test
+    void statementsDoNotGrowWithTheNumberOfStudents() {
+        insertMany(StudentClass.C1A, 10);
+        insertMany(StudentClass.C1B, 100);
+
+        long promoteTen = statements(() -> studentBulkService.promoteClass("1A"));
+        long promoteHundred = statements(() -> studentBulkService.promoteClass("1B"));
+        long deleteTen = statements(() -> studentBulkService.deleteStudents(
+                StudentSearchCriteria.fromParameters("2A", null, null, null, null)));
+        long deleteHundred = statements(() -> studentBulkService.deleteStudents(
+                StudentSearchCriteria.fromParameters("2B", null, null, null, null)));
+
+        // Includes what the change log, indexes and rankings run once the transaction commits.
+        assertTrue(promoteTen > 0 && deleteTen > 0);
+        assertEquals(promoteTen, promoteHundred);
+        assertEquals(deleteTen, deleteHundred);
+        assertEquals(0, studentRepository.count());
+        assertTrue(gradeRollups.verify(false).isConsistent());
+    }
+
+    private static long statements(Runnable action) {
+        long before = StatementCountingDataSource.statements();
+        action.run();
+        return StatementCountingDataSource.statements() - before;
+    }
+
+    private void insertMany(StudentClass studentClass, int count) {
+        for (int i = 0; i < count; i++) {
+            insert(studentClass, Map.of(Course.PROGRAMMING, Grade.values()[i % Grade.values().length]));
+        }
+    }
+
+    private Student insert(StudentClass studentClass, Map<Course, Grade> grades) {
+        return studentService.insertStudent(StudentFixtures.student(studentClass, grades));
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.service;
+
+import com.example.entity.Student;
+import com.example.repository.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Races committed updates against cached reads through the real service, transaction manager
+ * and event listeners. Once the last update has returned, every read must see it.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class StudentCacheConsistencyTest {
+
+    private static final int READERS = 4;
+    private static final int UPDATES = 200;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAll();
+    }
+
+    @Test
+    void readsNeverStayStaleAfterConcurrentUpdates() throws Exception {
+        Student student = new Student();
+        student.setFirstName("0");
+        student.setLastName("Race");
+        int id = studentService.insertStudent(student).getId();
+
+        ExecutorService readers = Executors.newFixedThreadPool(READERS);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<Future<Integer>> reads = new ArrayList<>();
+        for (int r = 0; r < READERS; r++) {
+            reads.add(readers.submit(() -> {
+                int count = 0;
+                while (writing.get()) {
+                    studentService.getStudentById(id);
+                    count++;
+                }
+                return count;
+            }));
+        }
+
+        try {
+            for (int i = 1; i <= UPDATES; i++) {
+                Student details = new Student();
+                details.setFirstName(String.valueOf(i));
+                details.setLastName("Race");
+                studentService.updateStudent(id, details);
+                // The update has committed and returned, so no reader may observe an older value now.
+                int seen = Integer.parseInt(studentService.getStudentById(id).getFirstName());
+                assertEquals(i, seen, "stale read after update " + i);
+            }
+        } finally {
+            writing.set(false);
+            readers.shutdown();
+        }
+
+        int totalReads = 0;
+        for (Future<Integer> read : reads) {
+            totalReads += read.get(10, TimeUnit.SECONDS);
+        }
+
+        assertTrue(totalReads > 0);
+        assertEquals(String.valueOf(UPDATES), studentService.getStudentById(id).getFirstName());
+    }
+}
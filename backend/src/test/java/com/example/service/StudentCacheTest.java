@@ -0,0 +1,115 @@
+package com.example.service;
+
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.event.StudentChangedEvent;
+import com.example.payload.response.StudentView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StudentCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private StudentCache studentCache;
+
+    private final ExecutorService threads = Executors.newFixedThreadPool(2);
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        studentCache = new StudentCache(meterRegistry, Duration.ofMinutes(10), 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        threads.shutdownNow();
+    }
+
+    private static StudentView student(String firstName) {
+        return student(1, firstName);
+    }
+
+    private static StudentView student(int id, String firstName) {
+        return new StudentView(id, firstName, null, null, null, null, Map.of(Course.PROGRAMMING, Grade.A), 0L);
+    }
+
+    @Test
+    void get_loadsOnceAndSharesTheImmutableView() {
+        AtomicInteger loads = new AtomicInteger();
+
+        StudentView first = studentCache.get(1, id -> { loads.incrementAndGet(); return student("Ada"); });
+        StudentView second = studentCache.get(1, id -> { loads.incrementAndGet(); return student("Other"); });
+
+        assertEquals(1, loads.get());
+        assertEquals("Ada", second.getFirstName());
+        assertSame(first, second);
+        assertThrows(UnsupportedOperationException.class, () -> second.getCourses().put(Course.NETWORKING, Grade.B));
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "students").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void onStudentChanged_evictsOnlyThatStudent() {
+        studentCache.get(1, id -> student("Ada"));
+        StudentView other = student(2, "Bob");
+        studentCache.get(2, id -> other);
+
+        studentCache.onStudentChanged(new StudentChangedEvent(StudentChangedEvent.Type.UPDATED, 1));
+
+        assertEquals("Grace", studentCache.get(1, id -> student("Grace")).getFirstName());
+        assertEquals("Bob", studentCache.get(2, id -> student("Unexpected")).getFirstName());
+    }
+
+    /**
+     * A reader loads the old row, the writer commits and invalidates while that load is still in
+     * flight, then the reader finishes. The old row must not survive in the cache.
+     */
+    @Test
+    void invalidateDuringInFlightLoad_doesNotLeaveStaleEntry() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch readOldRow = new CountDownLatch(1);
+
+        Future<StudentView> reader = threads.submit(() -> studentCache.get(1, id -> {
+            loading.countDown();
+            try {
+                readOldRow.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return student("Old");
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        Future<?> writer = threads.submit(() -> studentCache.invalidate(1));
+        // Give the invalidation time to reach the cache while the load is still running.
+        Thread.sleep(100);
+        readOldRow.countDown();
+
+        assertEquals("Old", reader.get(5, TimeUnit.SECONDS).getFirstName());
+        writer.get(5, TimeUnit.SECONDS);
+        assertEquals("New", studentCache.get(1, id -> student("New")).getFirstName());
+    }
+
+    @Test
+    void get_doesNotCacheFailedLoads() {
+        assertThrows(IllegalStateException.class, () -> studentCache.get(1, id -> {
+            throw new IllegalStateException("not found");
+        }));
+
+        assertEquals("Ada", studentCache.get(1, id -> student("Ada")).getFirstName());
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.service;
+
+import com.example.event.StudentChangedEvent;
+import com.example.event.StudentsChangedEvent;
+import com.example.exception.BadRequestException;
+import com.example.payload.response.StudentChanges;
+import com.example.payload.response.StudentView;
+import com.example.repository.StudentViewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.lenient;
+
+/**
+ * Events are published by hand outside any transaction, so each is written as it arrives; that
+ * the services publish them, and that entries are only written when the transaction commits, is
+ * checked by {@link StudentListenersTest}. Students are served from a map standing in for the
+ * table.
+ */
+@ExtendWith(MockitoExtension.class)
+class StudentChangeLogTest {
+
+    private static final Instant NOW = Instant.parse("2024-05-01T12:00:00Z");
+
+    @Mock
+    private StudentViewRepository studentViewRepository;
+
+    private final Map<Integer, StudentView> students = new HashMap<>();
+
+    private JdbcTemplate jdbcTemplate;
+    private StudentChangeLog changeLog;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = StudentFixtures.newDatabase();
+        lenient().when(studentViewRepository.findAllById(anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<Integer>>getArgument(0).stream()
+                        .map(students::get)
+                        .filter(Objects::nonNull)
+                        .toList());
+        changeLog = changeLog(Duration.ZERO, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void changesSince_returnsLatestStatePerStudentAndTombstones() {
+        save(StudentChangedEvent.Type.INSERTED, 1, "Ann");
+        save(StudentChangedEvent.Type.INSERTED, 2, "Bob");
+        long cursor = changeLog.changesSince(0, 100).getCursor();
+
+        save(StudentChangedEvent.Type.UPDATED, 1, "Anna");
+        save(StudentChangedEvent.Type.UPDATED, 1, "Annie");
+        remove(2);
+
+        StudentChanges changes = changeLog.changesSince(cursor, 100);
+
+        assertEquals(2, changes.getChanges().size());
+        StudentChanges.Change update = changes.getChanges().get(0);
+        assertEquals(1, update.getId());
+        assertEquals(StudentChangedEvent.Type.UPDATED, update.getType());
+        assertEquals("Annie", update.getStudent().getFirstName());
+        StudentChanges.Change delete = changes.getChanges().get(1);
+        assertEquals(2, delete.getId());
+        assertEquals(StudentChangedEvent.Type.DELETED, delete.getType());
+        assertNull(delete.getStudent());
+        assertFalse(changes.isHasMore());
+
+        StudentChanges none = changeLog.changesSince(changes.getCursor(), 100);
+        assertTrue(none.getChanges().isEmpty());
+        assertEquals(changes.getCursor(), none.getCursor());
+    }
+
+    @Test
+    void changesSince_pagesWithHasMore() {
+        for (int i = 0; i < 5; i++) {
+            save(StudentChangedEvent.Type.INSERTED, i, "S" + i);
+        }
+
+        StudentChanges first = changeLog.changesSince(0, 3);
+        StudentChanges second = changeLog.changesSince(first.getCursor(), 3);
+
+        assertEquals(3, first.getChanges().size());
+        assertTrue(first.isHasMore());
+        assertEquals(2, second.getChanges().size());
+        assertFalse(second.isHasMore());
+        assertEquals(List.of("S3", "S4"),
+                second.getChanges().stream().map(change -> change.getStudent().getFirstName()).toList());
+    }
+
+    @Test
+    void changesSince_reportsStudentDeletedLaterInTheLogAsDeleted() {
+        save(StudentChangedEvent.Type.INSERTED, 1, "Ann");
+        remove(1);
+
+        // The page ends at the insert, but the student is already gone.
+        StudentChanges changes = changeLog.changesSince(0, 1);
+
+        assertEquals(StudentChangedEvent.Type.DELETED, changes.getChanges().get(0).getType());
+        assertNull(changes.getChanges().get(0).getStudent());
+        assertTrue(changes.isHasMore());
+    }
+
+    @Test
+    void bulkEventsLogEveryStudent() {
+        students.put(1, view(1, "Ann"));
+        students.put(2, view(2, "Bob"));
+
+        changeLog.onStudentsChanged(new StudentsChangedEvent(StudentChangedEvent.Type.UPDATED, List.of(1, 2)));
+
+        StudentChanges changes = changeLog.changesSince(0, 100);
+        assertEquals(List.of(1, 2), changes.getChanges().stream().map(StudentChanges.Change::getId).toList());
+        assertTrue(changes.getChanges().stream()
+                .allMatch(change -> change.getType() == StudentChangedEvent.Type.UPDATED));
+    }
+
+    @Test
+    void changesSince_holdsBackChangesYoungerThanTheSettleTime() {
+        save(StudentChangedEvent.Type.INSERTED, 1, "Ann");
+        Clock now = Clock.fixed(NOW, ZoneOffset.UTC);
+
+        StudentChanges changes = changeLog(Duration.ofMinutes(1), now).changesSince(0, 100);
+
+        assertTrue(changes.getChanges().isEmpty());
+        assertEquals(0, changes.getCursor());
+        assertEquals(1, changeLog(Duration.ofMinutes(1), Clock.offset(now, Duration.ofMinutes(2)))
+                .changesSince(0, 100).getChanges().size());
+    }
+
+    @Test
+    void changesSince_rejectsInvalidArguments() {
+        assertThrows(BadRequestException.class, () -> changeLog.changesSince(-1, 10));
+        assertThrows(BadRequestException.class, () -> changeLog.changesSince(0, 0));
+        assertThrows(BadRequestException.class, () -> changeLog.changesSince(0, StudentChangeLog.MAX_LIMIT + 1));
+    }
+
+    private StudentChangeLog changeLog(Duration settleTime, Clock clock) {
+        return new StudentChangeLog(jdbcTemplate, studentViewRepository, settleTime, clock);
+    }
+
+    private void save(StudentChangedEvent.Type type, int id, String firstName) {
+        students.put(id, view(id, firstName));
+        changeLog.onStudentChanged(new StudentChangedEvent(type, id));
+    }
+
+    private void remove(int id) {
+        students.remove(id);
+        changeLog.onStudentChanged(new StudentChangedEvent(StudentChangedEvent.Type.DELETED, id));
+    }
+
+    private static StudentView view(int id, String firstName) {
+        return new StudentView(id, firstName, "Sync", null, null, null, Map.of(), 0L);
+    }
+}
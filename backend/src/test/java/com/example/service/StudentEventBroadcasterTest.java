@@ -0,0 +1,243 @@
+package com.example.service;
+
+import com.example.event.StudentChangedEvent;
+import com.example.event.StudentsChangedEvent;
+import com.example.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StudentEventBroadcasterTest {
+
+    private static final long TIMEOUT_MS = 5_000;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private StudentEventBroadcaster broadcaster;
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.destroy();
+    }
+
+    @Test
+    void deliversCommittedChangesAsNamedEvents() throws Exception {
+        broadcaster = new StudentEventBroadcaster(meterRegistry, 16, 10, 2, Duration.ofMinutes(1));
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.register(emitter);
+
+        broadcaster.onStudentChanged(new StudentChangedEvent(StudentChangedEvent.Type.UPDATED, 7));
+
+        emitter.awaitFrames(2);
+        assertEquals(":connected\n\n", emitter.frames.get(0));
+        assertEquals("event:UPDATED\ndata:{\"type\":\"UPDATED\",\"studentId\":7}\n\n", emitter.frames.get(1));
+    }
+
+    @Test
+    void bulkChangesLargerThanTheBufferAreSentAsOneEvent() throws Exception {
+        broadcaster = new StudentEventBroadcaster(meterRegistry, 4, 10, 1, Duration.ofMinutes(1));
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter emitter = new RecordingEmitter(release);
+        broadcaster.register(emitter);
+        // Hold the sender so that nothing is drained while the event is offered.
+        emitter.awaitSendStarted();
+
+        List<Integer> ids = IntStream.rangeClosed(1, 10).boxed().toList();
+        broadcaster.onStudentsChanged(new StudentsChangedEvent(StudentChangedEvent.Type.UPDATED, ids));
+        release.countDown();
+
+        emitter.awaitFrames(2);
+        assertEquals("event:UPDATED\ndata:{\"type\":\"UPDATED\",\"studentIds\":[1,2,3,4,5,6,7,8,9,10]}\n\n",
+                emitter.frames.get(1));
+        assertEquals(1, broadcaster.getSubscriberCount());
+        assertEquals(0.0, meterRegistry.get("students.stream.dropped").counter().count());
+    }
+
+    @Test
+    void slowSubscriberIsDroppedWithoutHoldingBackOthers() throws Exception {
+        broadcaster = new StudentEventBroadcaster(meterRegistry, 4, 10, 2, Duration.ofMinutes(1));
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        RecordingEmitter fast = new RecordingEmitter();
+        broadcaster.register(slow);
+        broadcaster.register(fast);
+        // Let the slow subscriber's sender block on its first frame before publishing.
+        slow.awaitSendStarted();
+
+        long start = System.nanoTime();
+        for (int i = 1; i <= 10; i++) {
+            broadcaster.onStudentChanged(new StudentChangedEvent(StudentChangedEvent.Type.INSERTED, i));
+            // Keep the fast subscriber's buffer from filling; only the slow one should overflow.
+            fast.awaitFrames(i + 1);
+        }
+        long publishMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        release.countDown();
+
+        assertTrue(publishMs < TIMEOUT_MS, "publishing blocked on the slow subscriber");
+        assertEquals(1, broadcaster.getSubscriberCount());
+        assertEquals(1.0, meterRegistry.get("students.stream.dropped").counter().count());
+        assertEquals(1.0, meterRegistry.get("students.stream.subscribers").gauge().value());
+        assertEquals(11, fast.frames.size());
+        slow.awaitCompleted();
+    }
+
+    @Test
+    void sendsHeartbeats() throws Exception {
+        broadcaster = new StudentEventBroadcaster(meterRegistry, 16, 10, 1, Duration.ofMillis(20));
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.register(emitter);
+
+        emitter.awaitFrames(3);
+
+        assertEquals(":heartbeat\n\n", emitter.frames.get(2));
+    }
+
+    @Test
+    void failedSendRemovesSubscriber() throws Exception {
+        broadcaster = new StudentEventBroadcaster(meterRegistry, 16, 10, 1, Duration.ofMinutes(1));
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitter.failing = true;
+        broadcaster.register(emitter);
+
+        emitter.awaitCompleted();
+
+        assertEquals(0, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    void rejectsSubscribersBeyondTheLimit() {
+        broadcaster = new StudentEventBroadcaster(meterRegistry, 16, 1, 1, Duration.ofMinutes(1));
+        broadcaster.register(new RecordingEmitter());
+
+        ServiceUnavailableException e = assertThrows(ServiceUnavailableException.class,
+                () -> broadcaster.register(new RecordingEmitter()));
+
+        assertEquals(5, e.getRetryAfterSeconds());
+    }
+
+    @Test
+    void concurrentSubscribersNeverExceedTheLimit() throws Exception {
+        broadcaster = new StudentEventBroadcaster(meterRegistry, 16, 5, 1, Duration.ofMinutes(1));
+        int threads = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                        broadcaster.register(new RecordingEmitter());
+                        accepted.incrementAndGet();
+                    } catch (ServiceUnavailableException | InterruptedException ignored) {
+                        // Rejected, as expected past the limit.
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        }
+
+        assertEquals(5, accepted.get());
+        assertEquals(5, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    void droppedSubscriberFreesItsSlot() throws Exception {
+        broadcaster = new StudentEventBroadcaster(meterRegistry, 16, 1, 1, Duration.ofMinutes(1));
+        RecordingEmitter failing = new RecordingEmitter();
+        failing.failing = true;
+        broadcaster.register(failing);
+        failing.awaitCompleted();
+
+        broadcaster.register(new RecordingEmitter());
+
+        assertEquals(1, broadcaster.getSubscriberCount());
+    }
+
+    /**
+     * Captures frames as the text they would put on the wire, optionally blocking every send
+     * until released to simulate a client that stopped reading.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<String> frames = new CopyOnWriteArrayList<>();
+        private final CountDownLatch release;
+        private final CountDownLatch sendStarted = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private volatile boolean failing;
+
+        RecordingEmitter() {
+            this(new CountDownLatch(0));
+        }
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sendStarted.countDown();
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            MappingJackson2HttpMessageConverter json = new MappingJackson2HttpMessageConverter();
+            frames.add(builder.build().stream()
+                    .map(part -> part.getData() instanceof String text ? text : write(json, part.getData()))
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        void awaitFrames(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+            while (frames.size() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertTrue(frames.size() >= count, "expected " + count + " frames but got " + frames);
+        }
+
+        void awaitSendStarted() throws InterruptedException {
+            assertTrue(sendStarted.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        }
+
+        void awaitCompleted() throws InterruptedException {
+            assertTrue(completed.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        }
+
+        private static String write(MappingJackson2HttpMessageConverter json, Object data) {
+            try {
+                return json.getObjectMapper().writeValueAsString(data);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.service;
+
+import com.example.AbstractJpaTest;
+import com.example.entity.Student;
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.entity.enums.StudentClass;
+import com.example.repository.StudentRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StudentExportServiceTest extends AbstractJpaTest {
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private StudentExportService exportService;
+
+    private Student john;
+    private Student jane;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new StudentExportService(jdbcTemplate, objectMapper, 100);
+
+        john = new Student();
+        john.setFirstName("John");
+        john.setLastName("Doe, Jr.");
+        john.setStudentClass(StudentClass.C1A);
+        john.getCourses().put(Course.PROGRAMMING, Grade.A);
+        john.getCourses().put(Course.NETWORKING, Grade.C);
+        john = studentRepository.save(john);
+
+        jane = new Student();
+        jane.setFirstName("Jane");
+        jane.setLastName("Roe");
+        jane = studentRepository.saveAndFlush(jane);
+    }
+
+    @Test
+    void exportNdjson_writesOneLinePerStudentWithAllCourses() throws Exception {
+        String[] lines = export(StudentExportFormat.NDJSON).split("\n");
+
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(john.getId(), first.get("id").asInt());
+        assertEquals("1A", first.get("studentClass").asText());
+        assertEquals("A", first.get("courses").get("PROGRAMMING").asText());
+        assertEquals("C", first.get("courses").get("NETWORKING").asText());
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertEquals(jane.getId(), second.get("id").asInt());
+        assertEquals(0, second.get("courses").size());
+    }
+
+    @Test
+    void exportCsv_writesHeaderAndQuotedRows() throws Exception {
+        String[] lines = export(StudentExportFormat.CSV).split("\r\n");
+
+        assertEquals(3, lines.length);
+        assertEquals(StudentCsvFormat.header(), lines[0]);
+        assertEquals(john.getId() + ",John,\"Doe, Jr.\",,,1A,,A,,,,,,,C,", lines[1]);
+        assertEquals(jane.getId() + ",Jane,Roe,,,,,,,,,,,,,", lines[2]);
+    }
+
+    private String export(StudentExportFormat format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.service;
+
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.entity.enums.StudentClass;
+import com.example.event.StudentChangedEvent;
+import com.example.event.StudentsChangedEvent;
+import com.example.payload.response.StudentFacets;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.example.service.StudentFixtures.student;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Events are published by hand here; that the services publish them is checked by
+ * {@link StudentListenersTest}.
+ */
+class StudentFacetIndexTest {
+
+    private static final StudentSearchCriteria ALL = new StudentSearchCriteria(null, null, null, null, null);
+    private static final StudentSearchCriteria CLOUD_A =
+            new StudentSearchCriteria(null, Course.CLOUD_COMPUTING, Grade.A, null, null);
+
+    private JdbcTemplate jdbcTemplate;
+    private StudentFacetIndex facetIndex;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = StudentFixtures.newDatabase();
+        facetIndex = new StudentFacetIndex(jdbcTemplate, new SimpleMeterRegistry(), 100);
+        facetIndex.rebuild();
+    }
+
+    @Test
+    void followsChangeEventsByRereadingTheRows() {
+        int id = StudentFixtures.insert(jdbcTemplate, student(StudentClass.C2B, Map.of(Course.CLOUD_COMPUTING, Grade.A)));
+        facetIndex.onStudentChanged(new StudentChangedEvent(StudentChangedEvent.Type.INSERTED, id));
+        assertEquals(1, facetIndex.facets(CLOUD_A).getStudentClasses().get("2B"));
+
+        StudentFixtures.update(jdbcTemplate, id, student(StudentClass.C3A, Map.of(Course.CLOUD_COMPUTING, Grade.B)));
+        facetIndex.onStudentChanged(new StudentChangedEvent(StudentChangedEvent.Type.UPDATED, id));
+        assertEquals(0, facetIndex.facets(CLOUD_A).getTotal());
+        assertEquals(1, facetIndex.facets(ALL).getGrades().get(Course.CLOUD_COMPUTING).get(Grade.B));
+        assertEquals(1, facetIndex.facets(ALL).getStudentClasses().get("3A"));
+
+        StudentFixtures.delete(jdbcTemplate, id);
+        facetIndex.onStudentChanged(new StudentChangedEvent(StudentChangedEvent.Type.DELETED, id));
+        assertEquals(0, facetIndex.facets(ALL).getTotal());
+    }
+
+    @Test
+    void followsBulkEvents() {
+        int moved = StudentFixtures.insert(jdbcTemplate, student(StudentClass.C1A, Map.of(Course.CLOUD_COMPUTING, Grade.A)));
+        int ungraded = StudentFixtures.insert(jdbcTemplate, student(StudentClass.C1A, Map.of()));
+        int gone = StudentFixtures.insert(jdbcTemplate, student(StudentClass.C1A, Map.of(Course.PROGRAMMING, Grade.C)));
+        facetIndex.rebuild();
+        StudentFixtures.update(jdbcTemplate, moved, student(StudentClass.C2A, Map.of(Course.CLOUD_COMPUTING, Grade.A)));
+        StudentFixtures.update(jdbcTemplate, ungraded, student(StudentClass.C2A, Map.of()));
+        StudentFixtures.delete(jdbcTemplate, gone);
+
+        facetIndex.onStudentsChanged(new StudentsChangedEvent(StudentChangedEvent.Type.UPDATED,
+                List.of(moved, ungraded, gone)));
+
+        StudentFacets facets = facetIndex.facets(ALL);
+        assertEquals(2, facets.getTotal());
+        assertEquals(2, facets.getStudentClasses().get("2A"));
+        assertEquals(0, facets.getStudentClasses().get("1A"));
+        assertEquals(1, facetIndex.facets(CLOUD_A).getStudentClasses().get("2A"));
+
+        facetIndex.onStudentsChanged(new StudentsChangedEvent(StudentChangedEvent.Type.DELETED, List.of(moved, ungraded)));
+        assertEquals(0, facetIndex.facets(ALL).getTotal());
+    }
+
+    @Test
+    void rebuildPicksUpRowsWrittenWithoutEvents() {
+        StudentSearchCriteria in4A = new StudentSearchCriteria(StudentClass.C4A, null, null, null, null);
+        StudentFixtures.insert(jdbcTemplate, student(StudentClass.C4A, Map.of(Course.CLOUD_COMPUTING, Grade.C)));
+        assertEquals(0, facetIndex.facets(in4A).getTotal());
+
+        facetIndex.rebuild();
+
+        StudentFacets facets = facetIndex.facets(in4A);
+        assertEquals(1, facets.getTotal());
+        assertEquals(1, facets.getGrades().get(Course.CLOUD_COMPUTING).get(Grade.C));
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.service;
+
+import com.example.entity.Student;
+import com.example.entity.converter.StudentClassConverter;
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.entity.enums.StudentClass;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Students for the service tests: entities to hand to the services, and rows written straight
+ * into a database of a test's own, so that the in-memory indexes can be tested without an
+ * application context. Those tests publish the events the services would themselves.
+ */
+final class StudentFixtures {
+
+    private static final StudentClassConverter STUDENT_CLASS_CONVERTER = new StudentClassConverter();
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private static final String INSERT_SQL = "INSERT INTO students "
+            + "(first_name, last_name, school_number, student_class, version) VALUES (?, ?, ?, ?, 0)";
+    private static final String UPDATE_SQL = "UPDATE students SET first_name = ?, last_name = ?, school_number = ?, "
+            + "student_class = ?, version = version + 1 WHERE id = ?";
+    private static final String INSERT_GRADE_SQL =
+            "INSERT INTO student_courses (student_id, course, grade) VALUES (?, ?, ?)";
+
+    private StudentFixtures() {
+    }
+
+    static Student student(String firstName, String lastName) {
+        return student(firstName, lastName, null, Map.of());
+    }
+
+    static Student student(StudentClass studentClass, Map<Course, Grade> grades) {
+        return student("Test", "Student", studentClass, grades);
+    }
+
+    /**
+     * A student of {@code studentClass} with the given grades in the first courses, in course order.
+     */
+    static Student student(StudentClass studentClass, Grade... grades) {
+        Course[] courses = Course.values();
+        Map<Course, Grade> courseGrades = new HashMap<>();
+        for (int i = 0; i < grades.length; i++) {
+            courseGrades.put(courses[i], grades[i]);
+        }
+        return student(studentClass, courseGrades);
+    }
+
+    static Student student(String firstName, String lastName, StudentClass studentClass, Map<Course, Grade> grades) {
+        Student student = new Student();
+        student.setFirstName(firstName);
+        student.setLastName(lastName);
+        student.setStudentClass(studentClass);
+        student.setCourses(new HashMap<>(grades));
+        return student;
+    }
+
+    /**
+     * A new in-memory database with the application's schema and no students. It lives until the
+     * JVM exits.
+     */
+    static JdbcTemplate newDatabase() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:fixture-" + DATABASES.incrementAndGet()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        return new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Inserts {@code student} and its grades, and returns the generated id.
+     */
+    static int insert(JdbcTemplate jdbcTemplate, Student student) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_SQL, new String[]{"id"});
+            statement.setString(1, student.getFirstName());
+            statement.setString(2, student.getLastName());
+            statement.setString(3, student.getSchoolNumber());
+            statement.setString(4, STUDENT_CLASS_CONVERTER.convertToDatabaseColumn(student.getStudentClass()));
+            return statement;
+        }, keyHolder);
+        int id = Objects.requireNonNull(keyHolder.getKey()).intValue();
+        insertGrades(jdbcTemplate, id, student.getCourses());
+        return id;
+    }
+
+    /**
+     * Replaces the row and grades of student {@code id} with {@code student}, bumping its version.
+     */
+    static void update(JdbcTemplate jdbcTemplate, int id, Student student) {
+        jdbcTemplate.update(UPDATE_SQL, student.getFirstName(), student.getLastName(), student.getSchoolNumber(),
+                STUDENT_CLASS_CONVERTER.convertToDatabaseColumn(student.getStudentClass()), id);
+        jdbcTemplate.update("DELETE FROM student_courses WHERE student_id = ?", id);
+        insertGrades(jdbcTemplate, id, student.getCourses());
+    }
+
+    static void delete(JdbcTemplate jdbcTemplate, int id) {
+        jdbcTemplate.update("DELETE FROM student_courses WHERE student_id = ?", id);
+        jdbcTemplate.update("DELETE FROM students WHERE id = ?", id);
+    }
+
+    private static void insertGrades(JdbcTemplate jdbcTemplate, int id, Map<Course, Grade> grades) {
+        grades.forEach((course, grade) ->
+                jdbcTemplate.update(INSERT_GRADE_SQL, id, course.name(), grade == null ? null : grade.name()));
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.service;
+
+import com.example.AbstractJpaTest;
+import com.example.entity.Student;
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.entity.enums.StudentClass;
+import com.example.exception.BadRequestException;
+import com.example.payload.response.ImportResult;
+import com.example.repository.StudentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Each chunk commits in its own transaction, so the test must not wrap them in one.
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StudentImportServiceTest extends AbstractJpaTest {
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private StudentImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        importService = new StudentImportService(studentRepository, entityManager, transactionManager,
+                new ObjectMapper(), event -> { }, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Rows were committed, so they must be removed explicitly to keep other tests isolated.
+        studentRepository.deleteAll();
+    }
+
+    @Test
+    void importCsv_persistsValidRowsAndReportsInvalidOnes() throws Exception {
+        String csv = "firstName,lastName,studentClass,PROGRAMMING,NETWORKING\r\n"
+                + "John,Doe,1A,A,\r\n"
+                + "Jane,\"Multi\nLine\",2B,B,C\r\n"
+                + "\r\n"
+                + "Bad,Class,9Z,A,\r\n"
+                + "Bad,Grade,1A,F,\r\n"
+                + "Ann,Lee,,,\r\n";
+
+        ImportResult result = importService.importStudents(StudentExportFormat.CSV, stream(csv));
+
+        assertEquals(3, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertEquals(6, result.getErrors().get(0).getLine());
+        assertEquals("Unknown student class: 9Z", result.getErrors().get(0).getMessage());
+        assertEquals(7, result.getErrors().get(1).getLine());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<Student> students = studentRepository.findAll(Sort.by("id"));
+            assertEquals(List.of("Doe", "Multi\nLine", "Lee"), students.stream().map(Student::getLastName).toList());
+            Student jane = students.get(1);
+            assertEquals(StudentClass.C2B, jane.getStudentClass());
+            assertEquals(Grade.B, jane.getCourses().get(Course.PROGRAMMING));
+            assertEquals(Grade.C, jane.getCourses().get(Course.NETWORKING));
+        });
+    }
+
+    @Test
+    void importCsv_rejectsUnknownColumns() {
+        assertThrows(BadRequestException.class,
+                () -> importService.importStudents(StudentExportFormat.CSV, stream("firstName,nickname\r\nA,B\r\n")));
+    }
+
+    @Test
+    void importNdjson_ignoresIncomingIdsAndReportsBadLines() throws Exception {
+        String ndjson = "{\"id\":999,\"firstName\":\"John\",\"courses\":{\"DATA_SCIENCE\":\"A\"}}\n"
+                + "{\"firstName\":\"Broken\"\n"
+                + "{\"firstName\":\"Jane\",\"studentClass\":\"3A\"}\n";
+
+        ImportResult result = importService.importStudents(StudentExportFormat.NDJSON, stream(ndjson));
+
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(2, result.getErrors().get(0).getLine());
+        assertEquals(0, studentRepository.findById(999).map(s -> 1).orElse(0));
+        assertEquals(2, studentRepository.count());
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.service;
+
+import com.example.config.StatementCountingDataSource;
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.entity.enums.StudentClass;
+import com.example.event.StudentChangedEvent;
+import com.example.exception.ResourceNotFoundException;
+import com.example.payload.response.StudentChanges;
+import com.example.repository.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.service.StudentFixtures.student;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Writes through the real services and transactions must reach every component that follows
+ * student events. What each component does with an event is tested on its own; this only checks
+ * that the events arrive, and arrive only for committed writes. The settle window is turned off
+ * so that logged changes are visible immediately.
+ */
+@SpringBootTest(properties = "app.students.changes.settle-time=0s")
+@ActiveProfiles("h2")
+class StudentListenersTest {
+
+    private static final StudentSearchCriteria ALL = new StudentSearchCriteria(null, null, null, null, null);
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentBulkService studentBulkService;
+
+    @Autowired
+    private StudentImportService studentImportService;
+
+    @Autowired
+    private StudentNameIndex nameIndex;
+
+    @Autowired
+    private StudentFacetIndex facetIndex;
+
+    @Autowired
+    private ClassRankings classRankings;
+
+    @Autowired
+    private GradeRollups gradeRollups;
+
+    @Autowired
+    private StudentChangeLog changeLog;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        // Other tests share the database; start from an empty one that every component agrees with.
+        reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        reset();
+    }
+
+    @Test
+    void serviceWritesReachEveryListener() {
+        int id = studentService.insertStudent(student("Grace", "Hopper", StudentClass.C2B,
+                Map.of(Course.PROGRAMMING, Grade.A))).getId();
+
+        assertEquals(id, nameIndex.suggest("hopper", 10).get(0).getId());
+        assertEquals(1, facetIndex.facets(ALL).getStudentClasses().get("2B"));
+        assertEquals(4.0, classRankings.rankOf("2B", id).getGpa());
+        assertEquals(1, gradeRollups.getStats().getStudentClasses().get("2B").getTotal());
+
+        studentService.updateStudent(id, student("Grace", "Murray", StudentClass.C3A,
+                Map.of(Course.PROGRAMMING, Grade.B)));
+
+        assertEquals(id, nameIndex.suggest("murray", 10).get(0).getId());
+        assertEquals(1, facetIndex.facets(ALL).getStudentClasses().get("3A"));
+        assertEquals(3.0, classRankings.rankOf("3A", id).getGpa());
+        assertEquals(1, gradeRollups.getStats().getStudentClasses().get("3A").getTotal());
+
+        studentService.removeStudentById(id);
+
+        assertTrue(nameIndex.suggest("grace", 10).isEmpty());
+        assertEquals(0, facetIndex.facets(ALL).getTotal());
+        assertThrows(ResourceNotFoundException.class, () -> classRankings.rankOf("3A", id));
+        assertEquals(0, gradeRollups.getStats().getOverall().getTotal());
+        assertEquals(List.of(StudentChangedEvent.Type.DELETED), loggedTypes());
+    }
+
+    @Test
+    void bulkWritesReachEveryListener() {
+        int id = studentService.insertStudent(student("Alan", "Turing", StudentClass.C1A,
+                Map.of(Course.PROGRAMMING, Grade.A))).getId();
+
+        studentBulkService.promoteClass("1A");
+
+        assertEquals(1, facetIndex.facets(ALL).getStudentClasses().get("2A"));
+        assertEquals(1, classRankings.rankOf("2A", id).getRank());
+        assertEquals(1, gradeRollups.getStats().getStudentClasses().get("2A").getTotal());
+        assertEquals(List.of(StudentChangedEvent.Type.UPDATED), loggedTypes());
+
+        studentBulkService.deleteStudents(new StudentSearchCriteria(StudentClass.C2A, null, null, null, null));
+
+        assertTrue(nameIndex.suggest("turing", 10).isEmpty());
+        assertEquals(0, facetIndex.facets(ALL).getTotal());
+        assertEquals(0, gradeRollups.getStats().getOverall().getTotal());
+        assertEquals(List.of(StudentChangedEvent.Type.DELETED), loggedTypes());
+    }
+
+    @Test
+    void rolledBackWritesReachNoListener() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        assertThrows(IllegalStateException.class, () -> transaction.executeWithoutResult(status -> {
+            studentService.insertStudent(student("Ghost", "Writer", StudentClass.C4B,
+                    Map.of(Course.PROGRAMMING, Grade.A)));
+            throw new IllegalStateException("rollback");
+        }));
+
+        assertTrue(nameIndex.suggest("ghost", 10).isEmpty());
+        assertEquals(0, facetIndex.facets(ALL).getTotal());
+        assertEquals(0, classRankings.top("4B", 1).getRanked());
+        assertTrue(changeLog.changesSince(0, 100).getChanges().isEmpty());
+    }
+
+    @Test
+    void importedStudentsAreLogged() throws Exception {
+        String ndjson = "{\"firstName\":\"Ann\"}\n{\"firstName\":\"Bob\"}\n";
+        studentImportService.importStudents(StudentExportFormat.NDJSON,
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        StudentChanges changes = changeLog.changesSince(0, 100);
+
+        assertEquals(2, changes.getChanges().size());
+        assertTrue(changes.getChanges().stream()
+                .allMatch(change -> change.getType() == StudentChangedEvent.Type.INSERTED));
+    }
+
+    @Test
+    void importedChunksAreReReadOnceNotPerRow() throws Exception {
+        long ten = statements(() -> importStudents("Ten", 10));
+        long hundred = statements(() -> importStudents("Hundred", 100));
+
+        assertEquals(10, nameIndex.suggest("ten", 50).size());
+        assertEquals(110, facetIndex.facets(ALL).getStudentClasses().get("1A"));
+        assertEquals(110, classRankings.top("1A", 1).getRanked());
+        // Allowing for the id generator fetching another block of ids, which costs a statement or two.
+        assertTrue(hundred <= ten + 2, "10 rows took " + ten + " statements, 100 rows took " + hundred);
+    }
+
+    private void importStudents(String lastName, int count) {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            ndjson.append("{\"firstName\":\"S").append(i).append("\",\"lastName\":\"").append(lastName)
+                    .append("\",\"studentClass\":\"1A\",\"courses\":{\"PROGRAMMING\":\"A\"}}\n");
+        }
+        try {
+            studentImportService.importStudents(StudentExportFormat.NDJSON,
+                    new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long statements(Runnable action) {
+        long before = StatementCountingDataSource.statements();
+        action.run();
+        return StatementCountingDataSource.statements() - before;
+    }
+
+    private List<StudentChangedEvent.Type> loggedTypes() {
+        return changeLog.changesSince(0, 100).getChanges().stream().map(StudentChanges.Change::getType).toList();
+    }
+
+    private void reset() {
+        studentRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM student_changes");
+        nameIndex.rebuild();
+        facetIndex.rebuild();
+        classRankings.rebuild();
+        gradeRollups.verify(true);
+    }
+}
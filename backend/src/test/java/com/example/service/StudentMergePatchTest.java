@@ -0,0 +1,95 @@
+package com.example.service;
+
+import com.example.entity.Student;
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.entity.enums.StudentClass;
+import com.example.exception.BadRequestException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StudentMergePatchTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Student student;
+
+    @BeforeEach
+    void setUp() {
+        student = new Student();
+        student.setFirstName("Ada");
+        student.setLastName("Lovelace");
+        student.setSchoolNumber("0000042");
+        student.setStudentClass(StudentClass.C2B);
+        student.getCourses().put(Course.PROGRAMMING, Grade.B);
+        student.getCourses().put(Course.NETWORKING, Grade.C);
+    }
+
+    @Test
+    void setsPresentMembersAndLeavesTheRestAlone() throws Exception {
+        apply("{\"lastName\":\"King\",\"studentClass\":\"3a\",\"courses\":{\"programming\":\"a\"}}");
+
+        assertEquals("Ada", student.getFirstName());
+        assertEquals("King", student.getLastName());
+        assertEquals(StudentClass.C3A, student.getStudentClass());
+        assertEquals(Map.of(Course.PROGRAMMING, Grade.A, Course.NETWORKING, Grade.C), student.getCourses());
+    }
+
+    @Test
+    void nullClearsFieldsAndDropsCourses() throws Exception {
+        apply("{\"schoolNumber\":null,\"studentClass\":null,\"courses\":{\"NETWORKING\":null,\"CYBER_SECURITY\":\"E\"}}");
+
+        assertNull(student.getSchoolNumber());
+        assertNull(student.getStudentClass());
+        assertEquals(Map.of(Course.PROGRAMMING, Grade.B, Course.CYBER_SECURITY, Grade.E), student.getCourses());
+    }
+
+    @Test
+    void nullCoursesRemovesEveryCourse() throws Exception {
+        apply("{\"courses\":null}");
+
+        assertTrue(student.getCourses().isEmpty());
+        assertEquals("Lovelace", student.getLastName());
+    }
+
+    @Test
+    void rejectsWhatItCannotApply() {
+        assertThrows(BadRequestException.class, () -> parse("[]"));
+        assertThrows(BadRequestException.class, () -> parse("{\"id\":7}"));
+        assertThrows(BadRequestException.class, () -> parse("{\"firstName\":1}"));
+        assertThrows(BadRequestException.class, () -> parse("{\"studentClass\":\"9Z\"}"));
+        assertThrows(BadRequestException.class, () -> parse("{\"courses\":[\"PROGRAMMING\"]}"));
+        assertThrows(BadRequestException.class, () -> parse("{\"courses\":{\"ALCHEMY\":\"A\"}}"));
+        assertThrows(BadRequestException.class, () -> parse("{\"courses\":{\"PROGRAMMING\":\"F\"}}"));
+        assertThrows(BadRequestException.class, () -> StudentMergePatch.ofGrade("PROGRAMMING", null));
+    }
+
+    @Test
+    void replaceGradesOnlyTouchesDifferingEntries() {
+        Map<Course, Grade> courses = student.getCourses();
+
+        StudentMergePatch.replaceGrades(courses, Map.of(Course.PROGRAMMING, Grade.B, Course.DATA_SCIENCE, Grade.A));
+        assertEquals(Map.of(Course.PROGRAMMING, Grade.B, Course.DATA_SCIENCE, Grade.A), courses);
+
+        StudentMergePatch.replaceGrades(courses, null);
+        assertTrue(courses.isEmpty());
+    }
+
+    private void apply(String json) throws Exception {
+        parse(json).applyTo(student);
+    }
+
+    private StudentMergePatch parse(String json) throws Exception {
+        JsonNode patch = objectMapper.readTree(json);
+        return StudentMergePatch.fromJson(patch);
+    }
+}
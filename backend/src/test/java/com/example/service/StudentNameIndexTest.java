@@ -0,0 +1,101 @@
+package com.example.service;
+
+import com.example.event.StudentChangedEvent;
+import com.example.event.StudentsChangedEvent;
+import com.example.exception.BadRequestException;
+import com.example.payload.response.StudentSuggestion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static com.example.service.StudentFixtures.student;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Events are published by hand here; that the services publish them is checked by
+ * {@link StudentListenersTest}.
+ */
+class StudentNameIndexTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private StudentNameIndex nameIndex;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = StudentFixtures.newDatabase();
+        nameIndex = new StudentNameIndex(jdbcTemplate, new SimpleMeterRegistry(), 100);
+        nameIndex.rebuild();
+    }
+
+    @Test
+    void followsChangeEventsByRereadingTheRow() {
+        int id = StudentFixtures.insert(jdbcTemplate, student("Grace", "Hopper"));
+        nameIndex.onStudentChanged(new StudentChangedEvent(StudentChangedEvent.Type.INSERTED, id));
+        assertEquals(List.of(id), ids(nameIndex.suggest("grase hoper", 10)));
+
+        StudentFixtures.update(jdbcTemplate, id, student("Grace", "Murray"));
+        nameIndex.onStudentChanged(new StudentChangedEvent(StudentChangedEvent.Type.UPDATED, id));
+        assertTrue(nameIndex.suggest("hopper", 10).isEmpty());
+        assertEquals("Murray", nameIndex.suggest("murray", 10).get(0).getLastName());
+
+        StudentFixtures.delete(jdbcTemplate, id);
+        nameIndex.onStudentChanged(new StudentChangedEvent(StudentChangedEvent.Type.DELETED, id));
+        assertTrue(nameIndex.suggest("grace", 10).isEmpty());
+    }
+
+    @Test
+    void updateOfAStudentAlreadyGoneRemovesIt() {
+        int id = StudentFixtures.insert(jdbcTemplate, student("Ada", "Lovelace"));
+        nameIndex.rebuild();
+        StudentFixtures.delete(jdbcTemplate, id);
+
+        nameIndex.onStudentChanged(new StudentChangedEvent(StudentChangedEvent.Type.UPDATED, id));
+
+        assertTrue(nameIndex.suggest("lovelace", 10).isEmpty());
+    }
+
+    @Test
+    void followsBulkEvents() {
+        int renamed = StudentFixtures.insert(jdbcTemplate, student("Alan", "Turing"));
+        int gone = StudentFixtures.insert(jdbcTemplate, student("Alonzo", "Church"));
+        nameIndex.rebuild();
+        StudentFixtures.update(jdbcTemplate, renamed, student("Alan", "Mathison"));
+        StudentFixtures.delete(jdbcTemplate, gone);
+
+        nameIndex.onStudentsChanged(new StudentsChangedEvent(StudentChangedEvent.Type.UPDATED, List.of(renamed, gone)));
+
+        assertEquals(List.of(renamed), ids(nameIndex.suggest("mathison", 10)));
+        assertTrue(nameIndex.suggest("church", 10).isEmpty());
+
+        nameIndex.onStudentsChanged(new StudentsChangedEvent(StudentChangedEvent.Type.DELETED, List.of(renamed)));
+        assertTrue(nameIndex.suggest("alan", 10).isEmpty());
+    }
+
+    @Test
+    void rebuildPicksUpRowsWrittenWithoutEvents() {
+        int id = StudentFixtures.insert(jdbcTemplate, student("Alan", "Turing"));
+        assertTrue(nameIndex.suggest("turing", 10).isEmpty());
+
+        nameIndex.rebuild();
+
+        StudentSuggestion suggestion = nameIndex.suggest("turing", 10).get(0);
+        assertEquals(id, suggestion.getId());
+        assertEquals("Alan", suggestion.getFirstName());
+    }
+
+    @Test
+    void rejectsBlankQueriesAndBadLimits() {
+        assertThrows(BadRequestException.class, () -> nameIndex.suggest(" ", 10));
+        assertThrows(BadRequestException.class, () -> nameIndex.suggest("ada", 0));
+        assertThrows(BadRequestException.class, () -> nameIndex.suggest("ada", StudentNameIndex.MAX_LIMIT + 1));
+    }
+
+    private static List<Integer> ids(List<StudentSuggestion> suggestions) {
+        return suggestions.stream().map(StudentSuggestion::getId).toList();
+    }
+}
@@ -1,17 +1,33 @@
 package com.example.service;
 
 import com.example.entity.Student;
+import com.example.entity.enums.Course;
+import com.example.entity.enums.Grade;
+import com.example.exception.BadRequestException;
+import com.example.exception.PreconditionFailedException;
 import com.example.exception.ResourceNotFoundException;
+import com.example.payload.response.CursorPage;
+import com.example.payload.response.StudentView;
+import com.example.event.StudentChangedEvent;
+import com.example.event.StudentGradesChangedEvent;
 import com.example.repository.StudentRepository;
+import com.example.repository.StudentViewRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -23,44 +39,110 @@ class StudentServiceTest {
     @Mock
     private StudentRepository studentRepository;
 
-    @InjectMocks
+    @Mock
+    private StudentViewRepository studentViewRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private StudentCache studentCache;
+
     private StudentService studentService;
 
     private Student student;
 
+    private StudentView view;
+
     @BeforeEach
     void setUp() {
+        studentCache = new StudentCache(new SimpleMeterRegistry(), Duration.ofMinutes(10), 100);
+        studentService = new StudentService(studentRepository, studentViewRepository, studentCache, eventPublisher);
         student = new Student();
         student.setId(1);
         student.setFirstName("John");
         student.setLastName("Doe");
+        view = new StudentView(1, "John", "Doe", null, null, null, Map.of(), 0L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testListStudents_LastPage() {
+        when(studentViewRepository.findAll(any(Specification.class), eq(Sort.by("id")), eq(11)))
+                .thenReturn(Collections.singletonList(view));
+        CursorPage<StudentView> page = studentService.listStudents(StudentSort.ID, null, 10);
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
     }
 
     @Test
-    void testGetAllStudents() {
-        when(studentRepository.findAll()).thenReturn(Collections.singletonList(student));
-        List<Student> students = (List<Student>) studentService.getAllStudents();
-        assertFalse(students.isEmpty());
-        assertEquals(1, students.size());
-        verify(studentRepository, times(1)).findAll();
+    @SuppressWarnings("unchecked")
+    void testListStudents_HasNextPage() {
+        StudentView second = new StudentView(2, null, "Roe", null, null, null, Map.of(), 0L);
+        when(studentViewRepository.findAll(any(Specification.class), any(Sort.class), eq(2)))
+                .thenReturn(Arrays.asList(view, second));
+
+        CursorPage<StudentView> page = studentService.listStudents(StudentSort.LAST_NAME, null, 1);
+
+        assertEquals(1, page.getItems().size());
+        StudentCursor cursor = StudentCursor.decode(page.getNextCursor(), StudentSort.LAST_NAME);
+        assertEquals(1, cursor.getId());
+        assertEquals("Doe", cursor.getKey());
+    }
+
+    @Test
+    void testListStudents_InvalidSize() {
+        assertThrows(BadRequestException.class, () -> studentService.listStudents(StudentSort.ID, null, 0));
+        assertThrows(BadRequestException.class,
+                () -> studentService.listStudents(StudentSort.ID, null, StudentService.MAX_PAGE_SIZE + 1));
+        verifyNoInteractions(studentViewRepository);
+    }
+
+    @Test
+    void testListStudents_CursorFromOtherSort() {
+        String cursor = StudentCursor.after(StudentSort.ID, view).encode();
+        assertThrows(BadRequestException.class, () -> studentService.listStudents(StudentSort.LAST_NAME, cursor, 10));
     }
 
     @Test
     void testGetStudentById_Success() {
-        when(studentRepository.findById(1)).thenReturn(Optional.of(student));
-        Student foundStudent = studentService.getStudentById(1);
+        when(studentViewRepository.findById(1)).thenReturn(Optional.of(view));
+        StudentView foundStudent = studentService.getStudentById(1);
         assertNotNull(foundStudent);
-        assertEquals(student.getId(), foundStudent.getId());
-        verify(studentRepository, times(1)).findById(1);
+        assertEquals(view.getId(), foundStudent.getId());
+        verify(studentViewRepository, times(1)).findById(1);
+    }
+
+    @Test
+    void testGetStudentById_ServedFromCacheUntilChanged() {
+        when(studentViewRepository.findById(1)).thenReturn(Optional.of(view));
+
+        studentService.getStudentById(1);
+        studentService.getStudentById(1);
+        verify(studentViewRepository, times(1)).findById(1);
+
+        studentCache.onStudentChanged(new StudentChangedEvent(StudentChangedEvent.Type.UPDATED, 1));
+        studentService.getStudentById(1);
+        verify(studentViewRepository, times(2)).findById(1);
+    }
+
+    @Test
+    void testUpdateStudent_PublishesChange() {
+        when(studentRepository.findById(1)).thenReturn(Optional.of(student));
+        when(studentRepository.save(any(Student.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        studentService.updateStudent(1, new Student());
+
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof StudentChangedEvent changed
+                && changed.getType() == StudentChangedEvent.Type.UPDATED && changed.getStudentId() == 1));
     }
 
     @Test
     void testGetStudentById_NotFound() {
-        when(studentRepository.findById(1)).thenReturn(Optional.empty());
+        when(studentViewRepository.findById(1)).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> {
             studentService.getStudentById(1);
         });
-        verify(studentRepository, times(1)).findById(1);
+        verify(studentViewRepository, times(1)).findById(1);
     }
 
     @Test
@@ -89,6 +171,49 @@ class StudentServiceTest {
         verify(studentRepository, times(1)).save(any(Student.class));
     }
 
+    @Test
+    void testUpdateStudent_ChangesGradesInPlace() {
+        Map<Course, Grade> courses = student.getCourses();
+        courses.put(Course.PROGRAMMING, Grade.B);
+        courses.put(Course.NETWORKING, Grade.C);
+        Student studentDetails = new Student();
+        studentDetails.setCourses(new HashMap<>(Map.of(Course.PROGRAMMING, Grade.A, Course.DATA_SCIENCE, Grade.D)));
+
+        when(studentRepository.findById(1)).thenReturn(Optional.of(student));
+        when(studentRepository.save(any(Student.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Student updatedStudent = studentService.updateStudent(1, studentDetails);
+
+        // The managed map is kept, so Hibernate diffs its rows instead of recreating the collection.
+        assertSame(courses, updatedStudent.getCourses());
+        assertEquals(Map.of(Course.PROGRAMMING, Grade.A, Course.DATA_SCIENCE, Grade.D), courses);
+    }
+
+    @Test
+    void testPatchStudent_PublishesGradeChange() {
+        student.getCourses().put(Course.PROGRAMMING, Grade.B);
+        when(studentRepository.findById(1)).thenReturn(Optional.of(student));
+        when(studentRepository.save(any(Student.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Student patchedStudent = studentService.patchStudent(1, StudentMergePatch.ofGrade("PROGRAMMING", Grade.A), null);
+
+        assertEquals("John", patchedStudent.getFirstName());
+        assertEquals(Grade.A, patchedStudent.getCourses().get(Course.PROGRAMMING));
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof StudentGradesChangedEvent changed
+                && changed.getPreviousGrades().get(Course.PROGRAMMING) == Grade.B
+                && changed.getGrades().get(Course.PROGRAMMING) == Grade.A));
+    }
+
+    @Test
+    void testUpdateStudent_StaleVersion() {
+        student.setVersion(5L);
+        when(studentRepository.findById(1)).thenReturn(Optional.of(student));
+
+        assertThrows(PreconditionFailedException.class, () -> studentService.updateStudent(1, new Student(), 4L));
+        verify(studentRepository, never()).save(any(Student.class));
+        verifyNoInteractions(eventPublisher);
+    }
+
     @Test
     void testUpdateStudent_NotFound() {
         when(studentRepository.findById(1)).thenReturn(Optional.empty());
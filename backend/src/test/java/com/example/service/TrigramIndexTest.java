@@ -0,0 +1,87 @@
+package com.example.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        index.put(1, "Mehmet", "Yılmaz", "10001");
+        index.put(2, "Ahmet", "Kaya", "10002");
+        index.put(3, "Ayşe", "Demir", "10003");
+        index.put(4, "Mehmet", "Demir", "20004");
+    }
+
+    @Test
+    void ranksMisspelledNamesByClosestMatch() {
+        List<TrigramIndex.Match> matches = index.search("mehmet yilmas", 10);
+
+        assertEquals(1, matches.get(0).id());
+        assertEquals(4, matches.get(1).id());
+        assertTrue(matches.get(0).score() > matches.get(1).score());
+    }
+
+    @Test
+    void matchesPartialNamesAndIgnoresAccents() {
+        assertEquals(3, index.search("ayse", 10).get(0).id());
+        assertEquals(List.of(3, 4), ids(index.search("demi", 10)));
+    }
+
+    @Test
+    void matchesSchoolNumbers() {
+        assertEquals(4, index.search("20004", 10).get(0).id());
+    }
+
+    @Test
+    void exactMatchScoresOne() {
+        assertEquals(1.0, index.search("Ahmet Kaya 10002", 1).get(0).score());
+    }
+
+    @Test
+    void putReplacesPreviousTrigrams() {
+        index.put(2, "Ahmet", "Öztürk", "10002");
+
+        assertTrue(ids(index.search("kaya", 10)).isEmpty());
+        assertEquals(2, index.search("ozturk", 10).get(0).id());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void removeDropsStudentAndItsTrigrams() {
+        int termsBefore = index.termCount();
+        index.put(5, "Zeynep", "Xu", "99999");
+        index.remove(5);
+
+        assertTrue(index.search("zeynep", 10).isEmpty());
+        assertEquals(4, index.size());
+        assertEquals(termsBefore, index.termCount());
+    }
+
+    @Test
+    void honoursLimitAndIgnoresPunctuationOnlyQueries() {
+        assertEquals(1, index.search("mehmet", 1).size());
+        assertTrue(index.search("  --  ", 10).isEmpty());
+    }
+
+    @Test
+    void reportsSizeAndMemory() {
+        assertEquals(4, index.size());
+        // Mehmet and Demir are shared, so there are fewer terms than postings.
+        assertEquals(12, index.postingCount());
+        assertEquals(10, index.termCount());
+        assertTrue(index.estimatedMemoryBytes() > 0);
+    }
+
+    private static List<Integer> ids(List<TrigramIndex.Match> matches) {
+        return matches.stream().map(TrigramIndex.Match::id).toList();
+    }
+}
@@ -17,9 +17,17 @@ import { Student } from '../types';
 // }
 
 
+// The backend pages the list and advertises the next page in a `Link: <...>; rel="next"` header.
+const parseNextCursor = (linkHeader?: string): string | null => {
+  const match = linkHeader?.match(/<([^>]+)>;\s*rel="next"/);
+  return match ? new URL(match[1]).searchParams.get('cursor') : null;
+};
+
 const StudentList: React.FC = () => {
   const [students, setStudents] = useState<Student[]>([]); // Explicitly type students as an array of Student
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
   const [isLoading, setIsLoading] = useState(true);
+  const [isLoadingMore, setIsLoadingMore] = useState(false);
   const [error, setError] = useState<string | null>(null);
   const navigate = useNavigate();
 
@@ -30,6 +38,7 @@ const StudentList: React.FC = () => {
       const response = await AuthService.apiClient.get('students');
       const data: Student[] = response.data; // Expecting an array of students
       setStudents(data);
+      setNextCursor(parseNextCursor(response.headers.link));
     } catch (e: any) { // Catch any type for broader error handling
       setError('Could not fetch students. Please check your connection.');
       console.error(e);
@@ -38,6 +47,22 @@ const StudentList: React.FC = () => {
     }
   }, []);
 
+  const loadMore = async () => {
+    if (!nextCursor) return;
+    setIsLoadingMore(true);
+    try {
+      const response = await AuthService.apiClient.get('students', { params: { cursor: nextCursor } });
+      const data: Student[] = response.data;
+      setStudents(previous => [...previous, ...data]);
+      setNextCursor(parseNextCursor(response.headers.link));
+    } catch (e: any) {
+      setError('Could not fetch more students. Please check your connection.');
+      console.error(e);
+    } finally {
+      setIsLoadingMore(false);
+    }
+  };
+
   useEffect(() => {
     fetchStudents();
   }, [fetchStudents]);
@@ -121,6 +146,17 @@ const StudentList: React.FC = () => {
           </motion.ul>
         </div>
       )}
+      {!isLoading && !error && nextCursor && (
+        <div className="text-center mt-6">
+          <button
+            onClick={loadMore}
+            disabled={isLoadingMore}
+            className="bg-gray-700 hover:bg-gray-800 text-white font-semibold py-2 px-4 rounded-lg transition duration-300 disabled:opacity-50"
+          >
+            {isLoadingMore ? 'Loading...' : 'Load more'}
+          </button>
+        </div>
+      )}
     </motion.div>
   );
 };